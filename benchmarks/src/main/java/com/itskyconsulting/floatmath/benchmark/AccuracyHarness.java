@@ -0,0 +1,426 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import static com.itskyconsulting.floatmath.benchmark.Reference.ONE;
+import static com.itskyconsulting.floatmath.benchmark.Reference.TWO;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+import com.itskyconsulting.floatmath.FastFloatMath;
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Measure the error in ulps and the time of each function of FloatMathExt and FastFloatMath, scalar and bulk.
+ *
+ * java [--add-modules jdk.incubator.vector] -cp target/benchmarks.jar com.itskyconsulting.floatmath.benchmark.AccuracyHarness [options]
+ *   -n count      arguments per function and distribution, default 1000000
+ *   -t threads    threads for the reference values, default the number of processors
+ *   -f regex      only the functions whose name matches, for example -f 'cot|sec'
+ *   -ulps limit   maximum error of the recommended implementation, default 4
+ *   -time millis  time measurement per function and distribution, default 200
+ *   -csv          print the results as CSV
+ *
+ * The arguments are generated by Inputs.Domain like for the benchmarks, with the distributions NORMAL,
+ * NEAR_SINGULARITY and LARGE, which are all finite. Each result is compared with Reference, which is exact
+ * to far more digits than double, so the error is the difference to the exact value in units of the ulp of
+ * the exact value. Arguments where the function is not defined (poles, outside of the domain) are skipped.
+ * The bulk versions (f(in, off, len, out)) are measured as implementations of their own, "FloatMathExt bulk" and
+ * "FastFloatMath bulk", by applying them to all arguments of a chunk at once. With the module jdk.incubator.vector
+ * they use the SIMD kernels, whose results can differ from the scalar functions and between interpreted and compiled
+ * code, otherwise they give the results of the scalar functions.
+ * The reference values take most of the time and are calculated in parallel, 10-100 microseconds each, so the
+ * default of a million arguments takes a few hours of CPU time for all functions; use -f for a few functions or
+ * -n 100000 for a quick overview. The times are measured afterwards in one thread, the fastest of many passes over
+ * the arguments: the scalar functions are called through DoubleUnaryOperator in a loop over the array, the bulk
+ * versions once for the array. The times include a few ns for the call of the scalar functions and only serve
+ * to compare the implementations with each other; the JMH benchmarks are more precise.
+ *
+ * The last part of the output recommends for each function the fastest implementation whose maximum error
+ * is within the limit in all distributions.
+ */
+public class AccuracyHarness {
+
+    /** a bulk version f(in, off, len, out) like those of FloatMathExt */
+    private interface BulkFunction {
+        void apply(double[] in, int off, int len, double[] out);
+    }
+
+    /** a scalar function applied to in[off..off+len-1] in a loop */
+    private static BulkFunction loop(DoubleUnaryOperator f) {
+        return (in, off, len, out) -> {
+            for (int i = off, end = off + len; i < end; i++) {
+                out[i] = f.applyAsDouble(in[i]);
+            }
+        };
+    }
+
+    /** a function, its reference and its implementations, scalar and bulk */
+    private static final class Case {
+        final String name;
+        final Domain domain;
+        /** the exact value, null if the function is not defined */
+        final UnaryOperator<BigDecimal> reference;
+        final Map<String, BulkFunction> implementations = new LinkedHashMap<>();
+
+        Case(String name, Domain domain, UnaryOperator<BigDecimal> reference, DoubleUnaryOperator floatMathExt, BulkFunction floatMathExtBulk) {
+            this.name = name;
+            this.domain = domain;
+            this.reference = reference;
+            implementations.put("FloatMathExt", loop(floatMathExt));
+            implementations.put("FloatMathExt bulk", floatMathExtBulk);
+        }
+
+        Case fast(DoubleUnaryOperator fastFloatMath, BulkFunction fastFloatMathBulk) {
+            implementations.put("FastFloatMath", loop(fastFloatMath));
+            implementations.put("FastFloatMath bulk", fastFloatMathBulk);
+            return this;
+        }
+    }
+
+    /** error statistics of one implementation for one distribution */
+    private static final class Stats {
+        long count;
+        long skipped;
+        double sum;
+        double max;
+        double argMax = Double.NaN;
+        double nanosPerOp = Double.NaN;
+
+        void add(double error, double x) {
+            count++;
+            sum += error;
+            if (error > max || Double.isNaN(argMax)) {
+                max = error;
+                argMax = x;
+            }
+        }
+
+        void merge(Stats other) {
+            count += other.count;
+            skipped += other.skipped;
+            sum += other.sum;
+            if (other.max > max || Double.isNaN(argMax)) {
+                max = other.max;
+                argMax = other.argMax;
+            }
+        }
+
+        double mean() {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+    }
+
+    private static final Distribution[] DISTRIBUTIONS = { Distribution.NORMAL, Distribution.NEAR_SINGULARITY, Distribution.LARGE };
+
+    /** number of arguments per parallel task */
+    private static final int CHUNK = 10000;
+
+    /** number of arguments for the time measurement */
+    private static final int TIMED = 10000;
+
+    private static final MathContext MC = Reference.MC;
+
+    /** 2^1024, the value of infinite results for the error calculation */
+    private static final BigDecimal TWO_1024 = TWO.pow(1024);
+
+    private static BigDecimal inverse(BigDecimal x) {
+        return x.signum() == 0 ? null : ONE.divide(x, MC);
+    }
+
+    private static BigDecimal quotient(BigDecimal x, BigDecimal y) {
+        return y.signum() == 0 ? null : x.divide(y, MC);
+    }
+
+    /** sin of x degrees, exactly 0 for multiples of 180 */
+    private static BigDecimal sinDegrees(BigDecimal x) {
+        return x.remainder(BigDecimal.valueOf(180)).signum() == 0 ? BigDecimal.ZERO : Reference.sin(Reference.radians(x));
+    }
+
+    /** cos of x degrees, exactly 0 for odd multiples of 90 */
+    private static BigDecimal cosDegrees(BigDecimal x) {
+        return x.subtract(BigDecimal.valueOf(90)).remainder(BigDecimal.valueOf(180)).signum() == 0
+            ? BigDecimal.ZERO : Reference.cos(Reference.radians(x));
+    }
+
+    private static BigDecimal asinh(BigDecimal x) {
+        BigDecimal a = x.abs();
+        BigDecimal r = Reference.log(a.add(Reference.sqrt(a.multiply(a).add(ONE)), MC));
+        return x.signum() < 0 ? r.negate() : r;
+    }
+
+    /** log((1 + x)/(1 - x))/2, atanh for |x| &lt; 1 and acoth for |x| &gt; 1 */
+    private static BigDecimal halfLogQuotient(BigDecimal x) {
+        return Reference.log(ONE.add(x).divide(ONE.subtract(x), MC).abs()).divide(TWO);
+    }
+
+    /** the functions of FloatMathExt with one argument and their FastFloatMath versions */
+    private static List<Case> cases() {
+        BigDecimal ninety = BigDecimal.valueOf(90);
+        List<Case> cases = new ArrayList<>();
+        cases.add(new Case("cot", Domain.RADIANS_POLE_AT_ZERO, x -> quotient(Reference.cos(x), Reference.sin(x)), FloatMathExt::cot, FloatMathExt::cot).fast(FastFloatMath::cot, FastFloatMath::cot));
+        cases.add(new Case("sec", Domain.RADIANS_POLE_AT_HALF_PI, x -> inverse(Reference.cos(x)), FloatMathExt::sec, FloatMathExt::sec).fast(FastFloatMath::sec, FastFloatMath::sec));
+        cases.add(new Case("csc", Domain.RADIANS_POLE_AT_ZERO, x -> inverse(Reference.sin(x)), FloatMathExt::csc, FloatMathExt::csc).fast(FastFloatMath::csc, FastFloatMath::csc));
+        cases.add(new Case("acot", Domain.REAL, x -> Reference.HALF_PI.subtract(Reference.atan(x), MC), FloatMathExt::acot, FloatMathExt::acot));
+        cases.add(new Case("asec", Domain.OUTSIDE_UNIT, x -> x.abs().compareTo(ONE) < 0 ? null : Reference.acos(inverse(x)), FloatMathExt::asec, FloatMathExt::asec));
+        cases.add(new Case("acsc", Domain.OUTSIDE_UNIT, x -> x.abs().compareTo(ONE) < 0 ? null : Reference.asin(inverse(x)), FloatMathExt::acsc, FloatMathExt::acsc));
+        cases.add(new Case("sind", Domain.DEGREES_POLE_AT_ZERO, AccuracyHarness::sinDegrees, FloatMathExt::sind, FloatMathExt::sind));
+        cases.add(new Case("cosd", Domain.DEGREES_POLE_AT_NINETY, AccuracyHarness::cosDegrees, FloatMathExt::cosd, FloatMathExt::cosd));
+        cases.add(new Case("tand", Domain.DEGREES_POLE_AT_NINETY, x -> quotient(sinDegrees(x), cosDegrees(x)), FloatMathExt::tand, FloatMathExt::tand));
+        cases.add(new Case("cotd", Domain.DEGREES_POLE_AT_ZERO, x -> quotient(cosDegrees(x), sinDegrees(x)), FloatMathExt::cotd, FloatMathExt::cotd));
+        cases.add(new Case("secd", Domain.DEGREES_POLE_AT_NINETY, x -> inverse(cosDegrees(x)), FloatMathExt::secd, FloatMathExt::secd));
+        cases.add(new Case("cscd", Domain.DEGREES_POLE_AT_ZERO, x -> inverse(sinDegrees(x)), FloatMathExt::cscd, FloatMathExt::cscd));
+        cases.add(new Case("asind", Domain.CLOSED_UNIT, x -> x.abs().compareTo(ONE) > 0 ? null : Reference.degrees(Reference.asin(x)), FloatMathExt::asind, FloatMathExt::asind));
+        cases.add(new Case("acosd", Domain.CLOSED_UNIT, x -> x.abs().compareTo(ONE) > 0 ? null : Reference.degrees(Reference.acos(x)), FloatMathExt::acosd, FloatMathExt::acosd));
+        cases.add(new Case("atand", Domain.REAL, x -> Reference.degrees(Reference.atan(x)), FloatMathExt::atand, FloatMathExt::atand));
+        cases.add(new Case("acotd", Domain.REAL, x -> ninety.subtract(Reference.degrees(Reference.atan(x)), MC), FloatMathExt::acotd, FloatMathExt::acotd));
+        cases.add(new Case("asecd", Domain.OUTSIDE_UNIT, x -> x.abs().compareTo(ONE) < 0 ? null : Reference.degrees(Reference.acos(inverse(x))), FloatMathExt::asecd, FloatMathExt::asecd));
+        cases.add(new Case("acscd", Domain.OUTSIDE_UNIT, x -> x.abs().compareTo(ONE) < 0 ? null : Reference.degrees(Reference.asin(inverse(x))), FloatMathExt::acscd, FloatMathExt::acscd));
+        cases.add(new Case("coth", Domain.POLE_AT_ZERO, x -> x.signum() == 0 ? null : ONE.add(TWO.divide(Reference.expm1(x.multiply(TWO)), MC), MC), FloatMathExt::coth, FloatMathExt::coth));
+        cases.add(new Case("sech", Domain.REAL, x -> TWO.divide(Reference.exp(x).add(Reference.exp(x.negate()), MC), MC), FloatMathExt::sech, FloatMathExt::sech));
+        cases.add(new Case("csch", Domain.POLE_AT_ZERO, x -> x.signum() == 0 ? null : TWO.divide(Reference.expm1(x).subtract(Reference.expm1(x.negate()), MC), MC), FloatMathExt::csch, FloatMathExt::csch));
+        cases.add(new Case("asinh", Domain.REAL, AccuracyHarness::asinh, FloatMathExt::asinh, FloatMathExt::asinh).fast(FastFloatMath::asinh, FastFloatMath::asinh));
+        cases.add(new Case("acosh", Domain.AT_LEAST_ONE, x -> x.compareTo(ONE) < 0 ? null : Reference.log(x.add(Reference.sqrt(x.multiply(x).subtract(ONE)), MC)), FloatMathExt::acosh, FloatMathExt::acosh).fast(FastFloatMath::acosh, FastFloatMath::acosh));
+        cases.add(new Case("atanh", Domain.OPEN_UNIT, x -> x.abs().compareTo(ONE) >= 0 ? null : halfLogQuotient(x), FloatMathExt::atanh, FloatMathExt::atanh).fast(FastFloatMath::atanh, FastFloatMath::atanh));
+        cases.add(new Case("acoth", Domain.OUTSIDE_UNIT, x -> x.abs().compareTo(ONE) <= 0 ? null : halfLogQuotient(x), FloatMathExt::acoth, FloatMathExt::acoth));
+        cases.add(new Case("asech", Domain.POSITIVE_UNIT, x -> x.signum() <= 0 || x.compareTo(ONE) > 0 ? null : Reference.log(ONE.add(Reference.sqrt(ONE.subtract(x.multiply(x)))).divide(x, MC)), FloatMathExt::asech, FloatMathExt::asech));
+        cases.add(new Case("acsch", Domain.POLE_AT_ZERO, x -> x.signum() == 0 ? null : asinh(inverse(x)), FloatMathExt::acsch, FloatMathExt::acsch));
+        cases.add(new Case("log2", Domain.POSITIVE, x -> x.signum() <= 0 ? null : Reference.log(x).divide(Reference.LN2, MC), FloatMathExt::log2, FloatMathExt::log2).fast(FastFloatMath::log2, FastFloatMath::log2));
+        cases.add(new Case("exp2", Domain.EXPONENT, x -> Reference.exp(x.multiply(Reference.LN2, MC)), FloatMathExt::exp2, FloatMathExt::exp2).fast(FastFloatMath::exp2, FastFloatMath::exp2));
+        cases.add(new Case("exp10", Domain.EXPONENT, x -> Reference.exp(x.multiply(Reference.LN10, MC)), FloatMathExt::exp10, FloatMathExt::exp10).fast(FastFloatMath::exp10, FastFloatMath::exp10));
+        cases.add(new Case("square", Domain.POWER, x -> x.multiply(x), FloatMathExt::square, FloatMathExt::square));
+        cases.add(new Case("cube", Domain.POWER, x -> x.multiply(x).multiply(x), FloatMathExt::cube, FloatMathExt::cube));
+        return cases;
+    }
+
+    /**
+     * the error of found in ulps of the exact value, infinite for NaN
+     *
+     * Results beyond the range of double count as 2^1024, so infinity is 1 ulp away from Double.MAX_VALUE.
+     */
+    static double ulpError(double found, BigDecimal exact) {
+        double rounded = exact.doubleValue();
+        if (Double.isNaN(found)) {
+            return Double.POSITIVE_INFINITY;
+        } else if (Double.isInfinite(found) && found == rounded) {
+            return 0;
+        }
+        BigDecimal f = Double.isInfinite(found) ? (found > 0 ? TWO_1024 : TWO_1024.negate()) : new BigDecimal(found);
+        return f.subtract(exact).abs().divide(ulp(exact, rounded), new MathContext(10)).doubleValue();
+    }
+
+    /** the ulp of exact, which is rounded to double */
+    private static BigDecimal ulp(BigDecimal exact, double rounded) {
+        double a = Math.min(Math.abs(rounded), Double.MAX_VALUE);
+        double u = Math.ulp(a);
+        // just below a power of 2 the ulp is half as large
+        if (a >= Double.MIN_NORMAL && a == Math.scalb(1.0, Math.getExponent(a)) && exact.abs().compareTo(new BigDecimal(a)) < 0) {
+            u /= 2;
+        }
+        return new BigDecimal(u);
+    }
+
+    /** the errors of all implementations of c for count arguments of the distribution from the given random seed */
+    private static Map<String, Stats> measure(Case c, Distribution distribution, long seed, int count) {
+        Random random = new Random(seed);
+        double[] args = new double[count];
+        BigDecimal[] exact = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = c.domain.next(distribution, random);
+            exact[i] = c.reference.apply(new BigDecimal(args[i]));
+        }
+        Map<String, Stats> result = new LinkedHashMap<>();
+        double[] out = new double[count];
+        for (Map.Entry<String, BulkFunction> e : c.implementations.entrySet()) {
+            Stats stats = new Stats();
+            e.getValue().apply(args, 0, count, out);
+            for (int i = 0; i < count; i++) {
+                if (exact[i] == null) {
+                    stats.skipped++;
+                } else {
+                    stats.add(ulpError(out[i], exact[i]), args[i]);
+                }
+            }
+            result.put(e.getKey(), stats);
+        }
+        return result;
+    }
+
+    /** nanoseconds per argument of f, the fastest pass over the arguments during millis milliseconds after a warmup */
+    private static double time(BulkFunction f, double[] args, long millis) {
+        double[] out = new double[args.length];
+        double sink = 0;
+        long end = System.nanoTime() + millis * 500000L;
+        while (System.nanoTime() < end) {
+            f.apply(args, 0, args.length, out);
+            sink += out[0];
+        }
+        long best = Long.MAX_VALUE;
+        end = System.nanoTime() + millis * 500000L;
+        long now;
+        do {
+            long start = System.nanoTime();
+            f.apply(args, 0, args.length, out);
+            now = System.nanoTime();
+            sink += out[0];
+            best = Math.min(best, now - start);
+        } while (now < end);
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return (double) best / args.length;
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int n = 1000000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Pattern filter = Pattern.compile(".*");
+        double limit = 4;
+        long millis = 200;
+        boolean csv = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "-n":
+                n = Integer.parseInt(args[++i]);
+                break;
+            case "-t":
+                threads = Integer.parseInt(args[++i]);
+                break;
+            case "-f":
+                filter = Pattern.compile(args[++i]);
+                break;
+            case "-ulps":
+                limit = Double.parseDouble(args[++i]);
+                break;
+            case "-time":
+                millis = Long.parseLong(args[++i]);
+                break;
+            case "-csv":
+                csv = true;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown option " + args[i] + ", expected -n count -t threads -f regex -ulps limit -time millis -csv");
+            }
+        }
+        List<Case> cases = new ArrayList<>();
+        for (Case c : cases()) {
+            if (filter.matcher(c.name).matches()) {
+                cases.add(c);
+            }
+        }
+
+        // errors, in parallel chunks
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Map<Case, Map<Distribution, List<Future<Map<String, Stats>>>>> futures = new LinkedHashMap<>();
+        for (Case c : cases) {
+            Map<Distribution, List<Future<Map<String, Stats>>>> byDistribution = new LinkedHashMap<>();
+            for (Distribution d : DISTRIBUTIONS) {
+                List<Future<Map<String, Stats>>> list = new ArrayList<>();
+                for (int off = 0; off < n; off += CHUNK) {
+                    long seed = (31L * c.name.hashCode() + d.ordinal()) * 1000003L + off;
+                    int count = Math.min(CHUNK, n - off);
+                    list.add(executor.submit(() -> measure(c, d, seed, count)));
+                }
+                byDistribution.put(d, list);
+            }
+            futures.put(c, byDistribution);
+        }
+        Map<Case, Map<Distribution, Map<String, Stats>>> results = new LinkedHashMap<>();
+        for (Map.Entry<Case, Map<Distribution, List<Future<Map<String, Stats>>>>> e : futures.entrySet()) {
+            Map<Distribution, Map<String, Stats>> byDistribution = new LinkedHashMap<>();
+            for (Map.Entry<Distribution, List<Future<Map<String, Stats>>>> f : e.getValue().entrySet()) {
+                Map<String, Stats> total = new LinkedHashMap<>();
+                for (Future<Map<String, Stats>> future : f.getValue()) {
+                    for (Map.Entry<String, Stats> s : future.get().entrySet()) {
+                        total.computeIfAbsent(s.getKey(), k -> new Stats()).merge(s.getValue());
+                    }
+                }
+                byDistribution.put(f.getKey(), total);
+            }
+            results.put(e.getKey(), byDistribution);
+        }
+        executor.shutdown();
+
+        // times, in this thread only
+        for (Case c : cases) {
+            for (Distribution d : DISTRIBUTIONS) {
+                Random random = new Random(d.ordinal());
+                double[] timed = new double[TIMED];
+                for (int i = 0; i < TIMED; i++) {
+                    timed[i] = c.domain.next(d, random);
+                }
+                for (Map.Entry<String, BulkFunction> e : c.implementations.entrySet()) {
+                    results.get(c).get(d).get(e.getKey()).nanosPerOp = time(e.getValue(), timed, millis);
+                }
+            }
+        }
+
+        if (csv) {
+            System.out.println("function,implementation,distribution,count,skipped,maxUlps,meanUlps,argMax,nsPerOp");
+        } else {
+            System.out.println(String.format(Locale.ROOT, "%-8s %-18s %-17s %9s %9s %12s %12s %24s %8s",
+                                              "function", "implementation", "distribution", "count", "skipped", "max ulps", "mean ulps", "at x", "ns/op"));
+        }
+        for (Map.Entry<Case, Map<Distribution, Map<String, Stats>>> e : results.entrySet()) {
+            for (String name : e.getKey().implementations.keySet()) {
+                for (Map.Entry<Distribution, Map<String, Stats>> d : e.getValue().entrySet()) {
+                    Stats s = d.getValue().get(name);
+                    String format = csv ? "%s,%s,%s,%d,%d,%.4g,%.4g,%s,%.2f" : "%-8s %-18s %-17s %9d %9d %12.4g %12.4g %24s %8.2f";
+                    System.out.println(String.format(Locale.ROOT, format, e.getKey().name, name, d.getKey(), s.count, s.skipped,
+                                                     s.max, s.mean(), Double.toString(s.argMax), s.nanosPerOp));
+                }
+            }
+        }
+        if (csv) {
+            return;
+        }
+
+        System.out.println();
+        System.out.println("fastest implementation with at most " + limit + " ulps in all distributions, time for NORMAL arguments:");
+        for (Map.Entry<Case, Map<Distribution, Map<String, Stats>>> e : results.entrySet()) {
+            String best = null;
+            double bestTime = Double.POSITIVE_INFINITY;
+            double bestError = Double.NaN;
+            for (String name : e.getKey().implementations.keySet()) {
+                double max = 0;
+                for (Map<String, Stats> byName : e.getValue().values()) {
+                    max = Math.max(max, byName.get(name).max);
+                }
+                double t = e.getValue().get(Distribution.NORMAL).get(name).nanosPerOp;
+                if (max <= limit && t < bestTime) {
+                    best = name;
+                    bestTime = t;
+                    bestError = max;
+                }
+            }
+            if (best == null) {
+                System.out.println(String.format(Locale.ROOT, "%-8s none", e.getKey().name));
+            } else {
+                System.out.println(String.format(Locale.ROOT, "%-8s %-18s %8.4g ulps %8.2f ns/op", e.getKey().name, best, bestError, bestTime));
+            }
+        }
+    }
+}
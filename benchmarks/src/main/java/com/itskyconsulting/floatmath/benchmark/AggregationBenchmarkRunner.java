@@ -0,0 +1,33 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the aggregation benchmarks with the GC profiler, which reports the allocation rate (gc.alloc.rate.norm is bytes per call).
+ *
+ * java -cp target/benchmarks.jar com.itskyconsulting.floatmath.benchmark.AggregationBenchmarkRunner
+ */
+public class AggregationBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ArrayAggregationBenchmark.class.getSimpleName())
+            .include(CollectionAggregationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,124 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.FloatCollectionMath;
+
+/**
+ * Aggregations of FloatCollectionMath on double[] of different sizes.
+ * The score is the time for one call on the whole array.
+ * Run with -prof gc (or AggregationBenchmarkRunner) to see how much the means allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ArrayAggregationBenchmark {
+
+    @Param({ "8", "1000", "1000000", "100000000" })
+    public int size;
+
+    @Param
+    public Order order;
+
+    private double[] values;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        values = order.arrange(Order.values(size));
+    }
+
+    @Benchmark
+    public double sum() {
+        return FloatCollectionMath.sum(values);
+    }
+
+    @Benchmark
+    public double parallelSum() {
+        return FloatCollectionMath.parallelSum(values);
+    }
+
+    @Benchmark
+    public double reproducibleSum() {
+        return FloatCollectionMath.reproducibleSum(values);
+    }
+
+    @Benchmark
+    public double parallelReproducibleSum() {
+        return FloatCollectionMath.parallelReproducibleSum(values);
+    }
+
+    @Benchmark
+    public double exactSum() {
+        return FloatCollectionMath.exactSum(values);
+    }
+
+    @Benchmark
+    public double parallelExactSum() {
+        return FloatCollectionMath.parallelExactSum(values);
+    }
+
+    @Benchmark
+    public double prod() {
+        return FloatCollectionMath.prod(values);
+    }
+
+    @Benchmark
+    public double min() {
+        return FloatCollectionMath.min(values);
+    }
+
+    @Benchmark
+    public double max() {
+        return FloatCollectionMath.max(values);
+    }
+
+    @Benchmark
+    public double arithmeticMean() {
+        return FloatCollectionMath.arithmeticMean(values);
+    }
+
+    @Benchmark
+    public double geometricMean() {
+        return FloatCollectionMath.geometricMean(values);
+    }
+
+    @Benchmark
+    public double harmonicMean() {
+        return FloatCollectionMath.harmonicMean(values);
+    }
+
+    @Benchmark
+    public double quadraticMean() {
+        return FloatCollectionMath.quadraticMean(values);
+    }
+
+    @Benchmark
+    public double cubicMean() {
+        return FloatCollectionMath.cubicMean(values);
+    }
+}
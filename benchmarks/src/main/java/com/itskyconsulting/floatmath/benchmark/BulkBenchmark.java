@@ -0,0 +1,273 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Bulk versions of all functions of FloatMathExt, each on an array of SIZE arguments.
+ * Run with -jvmArgsAppend --add-modules=jdk.incubator.vector on JDK 16+ to measure the SIMD kernels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class BulkBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] radiansPoleAtZero;
+    private double[] radiansPoleAtHalfPi;
+    private double[] real;
+    private double[] outsideUnit;
+    private double[] degreesPoleAtZero;
+    private double[] degreesPoleAtNinety;
+    private double[] closedUnit;
+    private double[] poleAtZero;
+    private double[] atLeastOne;
+    private double[] openUnit;
+    private double[] positiveUnit;
+    private double[] positive;
+    private double[] exponent;
+    private double[] power;
+
+    private final double[] out = new double[Inputs.SIZE];
+
+    @Setup
+    public void setup() {
+        radiansPoleAtZero = Inputs.generate(Domain.RADIANS_POLE_AT_ZERO, distribution);
+        radiansPoleAtHalfPi = Inputs.generate(Domain.RADIANS_POLE_AT_HALF_PI, distribution);
+        real = Inputs.generate(Domain.REAL, distribution);
+        outsideUnit = Inputs.generate(Domain.OUTSIDE_UNIT, distribution);
+        degreesPoleAtZero = Inputs.generate(Domain.DEGREES_POLE_AT_ZERO, distribution);
+        degreesPoleAtNinety = Inputs.generate(Domain.DEGREES_POLE_AT_NINETY, distribution);
+        closedUnit = Inputs.generate(Domain.CLOSED_UNIT, distribution);
+        poleAtZero = Inputs.generate(Domain.POLE_AT_ZERO, distribution);
+        atLeastOne = Inputs.generate(Domain.AT_LEAST_ONE, distribution);
+        openUnit = Inputs.generate(Domain.OPEN_UNIT, distribution);
+        positiveUnit = Inputs.generate(Domain.POSITIVE_UNIT, distribution);
+        positive = Inputs.generate(Domain.POSITIVE, distribution);
+        exponent = Inputs.generate(Domain.EXPONENT, distribution);
+        power = Inputs.generate(Domain.POWER, distribution);
+    }
+
+    @Benchmark
+    public double[] cot() {
+        FloatMathExt.cot(radiansPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] sec() {
+        FloatMathExt.sec(radiansPoleAtHalfPi, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] csc() {
+        FloatMathExt.csc(radiansPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acot() {
+        FloatMathExt.acot(real, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] asec() {
+        FloatMathExt.asec(outsideUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acsc() {
+        FloatMathExt.acsc(outsideUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] sind() {
+        FloatMathExt.sind(degreesPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] cosd() {
+        FloatMathExt.cosd(degreesPoleAtNinety, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] tand() {
+        FloatMathExt.tand(degreesPoleAtNinety, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] cotd() {
+        FloatMathExt.cotd(degreesPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] secd() {
+        FloatMathExt.secd(degreesPoleAtNinety, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] cscd() {
+        FloatMathExt.cscd(degreesPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] asind() {
+        FloatMathExt.asind(closedUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acosd() {
+        FloatMathExt.acosd(closedUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] atand() {
+        FloatMathExt.atand(real, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acotd() {
+        FloatMathExt.acotd(real, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] asecd() {
+        FloatMathExt.asecd(outsideUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acscd() {
+        FloatMathExt.acscd(outsideUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] coth() {
+        FloatMathExt.coth(poleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] sech() {
+        FloatMathExt.sech(real, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] csch() {
+        FloatMathExt.csch(poleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] asinh() {
+        FloatMathExt.asinh(real, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acosh() {
+        FloatMathExt.acosh(atLeastOne, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] atanh() {
+        FloatMathExt.atanh(openUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acoth() {
+        FloatMathExt.acoth(outsideUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] asech() {
+        FloatMathExt.asech(positiveUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acsch() {
+        FloatMathExt.acsch(poleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] log2() {
+        FloatMathExt.log2(positive, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] exp10() {
+        FloatMathExt.exp10(exponent, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] exp2() {
+        FloatMathExt.exp2(exponent, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] square() {
+        FloatMathExt.square(power, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] cube() {
+        FloatMathExt.cube(power, 0, Inputs.SIZE, out);
+        return out;
+    }
+}
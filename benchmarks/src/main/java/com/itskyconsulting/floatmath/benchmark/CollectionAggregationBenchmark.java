@@ -0,0 +1,111 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.FloatCollectionMath;
+
+/**
+ * Generic min and max of FloatCollectionMath on ArrayList&lt;Double&gt; and TreeSet&lt;Double&gt; of different sizes.
+ * The TreeSet is always sorted, so order only matters for the ArrayList.
+ * The boxed collections need about 60 bytes per element, so the default sizes stop at 10^7.
+ * Use -p size=100000000 -jvmArgsAppend -Xmx12g to measure 10^8 elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CollectionAggregationBenchmark {
+
+    @Param({ "8", "1000", "1000000", "10000000" })
+    public int size;
+
+    @Param
+    public Order order;
+
+    private List<Double> list;
+
+    private TreeSet<Double> treeSet;
+
+    private Double totalMax;
+
+    private Double totalMin;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        double[] values = order.arrange(Order.values(size));
+        list = new ArrayList<Double>(size);
+        for (double x : values) {
+            list.add(x);
+        }
+        treeSet = new TreeSet<Double>(list);
+        totalMax = Double.POSITIVE_INFINITY;
+        totalMin = Double.NEGATIVE_INFINITY;
+    }
+
+    @Benchmark
+    public Double minArrayList() {
+        return FloatCollectionMath.min(list);
+    }
+
+    @Benchmark
+    public Double maxArrayList() {
+        return FloatCollectionMath.max(list);
+    }
+
+    @Benchmark
+    public Double minArrayListWithDefault() {
+        return FloatCollectionMath.min(list, totalMax);
+    }
+
+    @Benchmark
+    public Double maxArrayListWithDefault() {
+        return FloatCollectionMath.max(list, totalMin);
+    }
+
+    @Benchmark
+    public Double minTreeSet() {
+        return FloatCollectionMath.min(treeSet);
+    }
+
+    @Benchmark
+    public Double maxTreeSet() {
+        return FloatCollectionMath.max(treeSet);
+    }
+
+    @Benchmark
+    public Double minTreeSetWithDefault() {
+        return FloatCollectionMath.min(treeSet, totalMax);
+    }
+
+    @Benchmark
+    public Double maxTreeSetWithDefault() {
+        return FloatCollectionMath.max(treeSet, totalMin);
+    }
+}
@@ -0,0 +1,55 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.ConcurrentDoubleStats;
+
+/**
+ * Four threads recording into shared statistics: ConcurrentDoubleStats compared with a synchronized
+ * DoubleSummaryStatistics, which has no variance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentDoubleStatsBenchmark {
+
+    private final ConcurrentDoubleStats stats = new ConcurrentDoubleStats();
+    private final DoubleSummaryStatistics summary = new DoubleSummaryStatistics();
+
+    @Benchmark
+    public void concurrentDoubleStats() {
+        stats.accept(0.1);
+    }
+
+    @Benchmark
+    public void synchronizedSummaryStatistics() {
+        synchronized (summary) {
+            summary.accept(0.1);
+        }
+    }
+}
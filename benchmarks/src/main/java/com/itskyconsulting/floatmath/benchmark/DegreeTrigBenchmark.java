@@ -0,0 +1,193 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Scalar trigonometric functions with degrees and their inverses of FloatMathExt, each on SIZE arguments per invocation.
+ * The math* benchmarks measure the functions of Math they are based on, for comparison, mathSind, mathCosd
+ * and mathTand the conversion to radians that sind, cosd and tand replace. distribution=NORMAL and LARGE show the cost of the reduction
+ * of ordinary and of huge angles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class DegreeTrigBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] degreesPoleAtZero;
+    private double[] degreesPoleAtNinety;
+    private double[] closedUnit;
+    private double[] real;
+    private double[] outsideUnit;
+
+    @Setup
+    public void setup() {
+        degreesPoleAtZero = Inputs.generate(Domain.DEGREES_POLE_AT_ZERO, distribution);
+        degreesPoleAtNinety = Inputs.generate(Domain.DEGREES_POLE_AT_NINETY, distribution);
+        closedUnit = Inputs.generate(Domain.CLOSED_UNIT, distribution);
+        real = Inputs.generate(Domain.REAL, distribution);
+        outsideUnit = Inputs.generate(Domain.OUTSIDE_UNIT, distribution);
+    }
+
+    @Benchmark
+    public void sind(Blackhole bh) {
+        for (double x : degreesPoleAtZero) {
+            bh.consume(FloatMathExt.sind(x));
+        }
+    }
+
+    @Benchmark
+    public void cosd(Blackhole bh) {
+        for (double x : degreesPoleAtNinety) {
+            bh.consume(FloatMathExt.cosd(x));
+        }
+    }
+
+    @Benchmark
+    public void tand(Blackhole bh) {
+        for (double x : degreesPoleAtNinety) {
+            bh.consume(FloatMathExt.tand(x));
+        }
+    }
+
+    @Benchmark
+    public void cotd(Blackhole bh) {
+        for (double x : degreesPoleAtZero) {
+            bh.consume(FloatMathExt.cotd(x));
+        }
+    }
+
+    @Benchmark
+    public void secd(Blackhole bh) {
+        for (double x : degreesPoleAtNinety) {
+            bh.consume(FloatMathExt.secd(x));
+        }
+    }
+
+    @Benchmark
+    public void cscd(Blackhole bh) {
+        for (double x : degreesPoleAtZero) {
+            bh.consume(FloatMathExt.cscd(x));
+        }
+    }
+
+    @Benchmark
+    public void sincosd(Blackhole bh) {
+        double[] result = new double[2];
+        for (double x : degreesPoleAtZero) {
+            FloatMathExt.sincosd(x, result);
+            bh.consume(result[FloatMathExt.SIN]);
+            bh.consume(result[FloatMathExt.COS]);
+        }
+    }
+
+    @Benchmark
+    public void mathSind(Blackhole bh) {
+        for (double x : degreesPoleAtZero) {
+            bh.consume(Math.sin(Math.toRadians(x)));
+        }
+    }
+
+    @Benchmark
+    public void mathCosd(Blackhole bh) {
+        for (double x : degreesPoleAtNinety) {
+            bh.consume(Math.cos(Math.toRadians(x)));
+        }
+    }
+
+    @Benchmark
+    public void mathTand(Blackhole bh) {
+        for (double x : degreesPoleAtNinety) {
+            bh.consume(Math.tan(Math.toRadians(x)));
+        }
+    }
+
+    @Benchmark
+    public void asind(Blackhole bh) {
+        for (double x : closedUnit) {
+            bh.consume(FloatMathExt.asind(x));
+        }
+    }
+
+    @Benchmark
+    public void acosd(Blackhole bh) {
+        for (double x : closedUnit) {
+            bh.consume(FloatMathExt.acosd(x));
+        }
+    }
+
+    @Benchmark
+    public void atand(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(FloatMathExt.atand(x));
+        }
+    }
+
+    @Benchmark
+    public void acotd(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(FloatMathExt.acotd(x));
+        }
+    }
+
+    @Benchmark
+    public void asecd(Blackhole bh) {
+        for (double x : outsideUnit) {
+            bh.consume(FloatMathExt.asecd(x));
+        }
+    }
+
+    @Benchmark
+    public void acscd(Blackhole bh) {
+        for (double x : outsideUnit) {
+            bh.consume(FloatMathExt.acscd(x));
+        }
+    }
+
+    @Benchmark
+    public void mathAsin(Blackhole bh) {
+        for (double x : closedUnit) {
+            bh.consume(Math.asin(x));
+        }
+    }
+
+    @Benchmark
+    public void mathAtan(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(Math.atan(x));
+        }
+    }
+}
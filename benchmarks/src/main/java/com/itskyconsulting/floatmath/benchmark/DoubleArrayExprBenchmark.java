@@ -0,0 +1,110 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.DoubleArrayExpr;
+import com.itskyconsulting.floatmath.FloatCollectionMath;
+import com.itskyconsulting.floatmath.FloatFunction;
+import com.itskyconsulting.floatmath.FloatMathExt;
+
+/**
+ * The mean of sind(x)^2 + cosd(y) and of the cheaper square(x) + cube(y) of two arrays, with temporary arrays
+ * for each step compared with DoubleArrayExpr, which does all steps block by block.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class DoubleArrayExprBenchmark {
+
+    @Param({ "1000", "1000000", "10000000" })
+    public int size;
+
+    private double[] x;
+    private double[] y;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(20);
+        x = new double[size];
+        y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = (random.nextDouble() - 0.5) * 720;
+            y[i] = (random.nextDouble() - 0.5) * 720;
+        }
+    }
+
+    @Benchmark
+    public double temporaryArrays() {
+        double[] a = new double[size];
+        FloatMathExt.sind(x, 0, size, a);
+        FloatMathExt.square(a, 0, size);
+        double[] b = new double[size];
+        FloatMathExt.cosd(y, 0, size, b);
+        double[] c = new double[size];
+        for (int i = 0; i < size; i++) {
+            c[i] = a[i] + b[i];
+        }
+        return FloatCollectionMath.arithmeticMean(c);
+    }
+
+    @Benchmark
+    public double fused() {
+        return DoubleArrayExpr.of(x).map(FloatFunction.SIND).map(FloatFunction.SQUARE)
+            .zip(DoubleArrayExpr.of(y).map(FloatFunction.COSD), Double::sum)
+            .arithmeticMean();
+    }
+
+    @Benchmark
+    public double fusedParallel() {
+        return DoubleArrayExpr.of(x).map(FloatFunction.SIND).map(FloatFunction.SQUARE)
+            .zip(DoubleArrayExpr.of(y).map(FloatFunction.COSD), Double::sum)
+            .parallel()
+            .arithmeticMean();
+    }
+
+    @Benchmark
+    public double cheapTemporaryArrays() {
+        double[] a = new double[size];
+        FloatMathExt.square(x, 0, size, a);
+        double[] b = new double[size];
+        FloatMathExt.cube(y, 0, size, b);
+        double[] c = new double[size];
+        for (int i = 0; i < size; i++) {
+            c[i] = a[i] + b[i];
+        }
+        return FloatCollectionMath.arithmeticMean(c);
+    }
+
+    @Benchmark
+    public double cheapFused() {
+        return DoubleArrayExpr.of(x).map(FloatFunction.SQUARE)
+            .zip(DoubleArrayExpr.of(y).map(FloatFunction.CUBE), Double::sum)
+            .arithmeticMean();
+    }
+}
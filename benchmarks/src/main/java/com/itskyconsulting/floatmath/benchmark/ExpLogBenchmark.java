@@ -0,0 +1,107 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Scalar log2, exp2, exp10, square and cube of FloatMathExt, each on SIZE arguments per invocation.
+ * The math* benchmarks measure the functions of Math they are based on, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class ExpLogBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] positive;
+    private double[] exponent;
+    private double[] power;
+
+    @Setup
+    public void setup() {
+        positive = Inputs.generate(Domain.POSITIVE, distribution);
+        exponent = Inputs.generate(Domain.EXPONENT, distribution);
+        power = Inputs.generate(Domain.POWER, distribution);
+    }
+
+    @Benchmark
+    public void log2(Blackhole bh) {
+        for (double x : positive) {
+            bh.consume(FloatMathExt.log2(x));
+        }
+    }
+
+    @Benchmark
+    public void exp10(Blackhole bh) {
+        for (double x : exponent) {
+            bh.consume(FloatMathExt.exp10(x));
+        }
+    }
+
+    @Benchmark
+    public void exp2(Blackhole bh) {
+        for (double x : exponent) {
+            bh.consume(FloatMathExt.exp2(x));
+        }
+    }
+
+    @Benchmark
+    public void square(Blackhole bh) {
+        for (double x : power) {
+            bh.consume(FloatMathExt.square(x));
+        }
+    }
+
+    @Benchmark
+    public void cube(Blackhole bh) {
+        for (double x : power) {
+            bh.consume(FloatMathExt.cube(x));
+        }
+    }
+
+    @Benchmark
+    public void mathLog(Blackhole bh) {
+        for (double x : positive) {
+            bh.consume(Math.log(x));
+        }
+    }
+
+    @Benchmark
+    public void mathExp(Blackhole bh) {
+        for (double x : exponent) {
+            bh.consume(Math.exp(x));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import static com.itskyconsulting.floatmath.Expression.x;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.CompiledExpression;
+import com.itskyconsulting.floatmath.Expression;
+import com.itskyconsulting.floatmath.FloatFunction;
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * A cheap expression square(x)*3 + 1 and an expensive one acotd(coth(x)*3), each hand-written, composed of
+ * lambdas with andThen, evaluated as tree of Expressions and compiled into one method handle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class ExpressionBenchmark {
+
+    private double[] in;
+    private final double[] out = new double[Inputs.SIZE];
+
+    private final DoubleUnaryOperator cheapLambdas = FloatFunction.SQUARE.andThen(y -> y * 3).andThen(y -> y + 1);
+    private final Expression cheapTree = x().apply(FloatFunction.SQUARE).multiply(3).add(1);
+    private final CompiledExpression cheapCompiled = cheapTree.compile();
+
+    private final DoubleUnaryOperator expensiveLambdas = FloatFunction.COTH.andThen(y -> y * 3).andThen(FloatFunction.ACOTD);
+    private final Expression expensiveTree = x().apply(FloatFunction.COTH).multiply(3).apply(FloatFunction.ACOTD);
+    private final CompiledExpression expensiveCompiled = expensiveTree.compile();
+
+    @Setup
+    public void setup() {
+        in = Inputs.generate(Domain.REAL, Distribution.NORMAL);
+    }
+
+    private static void applyAll(DoubleUnaryOperator f, double[] in, double[] out) {
+        for (int i = 0; i < in.length; i++) {
+            out[i] = f.applyAsDouble(in[i]);
+        }
+    }
+
+    @Benchmark
+    public double[] cheapDirect() {
+        for (int i = 0; i < in.length; i++) {
+            out[i] = FloatMathExt.square(in[i]) * 3 + 1;
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] cheapLambdas() {
+        applyAll(cheapLambdas, in, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] cheapTree() {
+        applyAll(cheapTree, in, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] cheapCompiled() {
+        cheapCompiled.apply(in, 0, in.length, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] expensiveDirect() {
+        for (int i = 0; i < in.length; i++) {
+            out[i] = FloatMathExt.acotd(FloatMathExt.coth(in[i]) * 3);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] expensiveLambdas() {
+        applyAll(expensiveLambdas, in, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] expensiveTree() {
+        applyAll(expensiveTree, in, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] expensiveCompiled() {
+        expensiveCompiled.apply(in, 0, in.length, out);
+        return out;
+    }
+}
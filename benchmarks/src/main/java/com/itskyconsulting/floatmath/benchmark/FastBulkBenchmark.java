@@ -0,0 +1,176 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.FastFloatMath;
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Bulk functions of FastFloatMath compared with the same functions of FloatMathExt, each on an array of SIZE arguments.
+ * Run with -jvmArgsAppend --add-modules=jdk.incubator.vector on JDK 16+ to measure the SIMD kernels of FloatMathExt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class FastBulkBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] radiansPoleAtZero;
+    private double[] radiansPoleAtHalfPi;
+    private double[] real;
+    private double[] atLeastOne;
+    private double[] openUnit;
+    private double[] positive;
+    private double[] exponent;
+
+    private final double[] out = new double[Inputs.SIZE];
+
+    @Setup
+    public void setup() {
+        radiansPoleAtZero = Inputs.generate(Domain.RADIANS_POLE_AT_ZERO, distribution);
+        radiansPoleAtHalfPi = Inputs.generate(Domain.RADIANS_POLE_AT_HALF_PI, distribution);
+        real = Inputs.generate(Domain.REAL, distribution);
+        atLeastOne = Inputs.generate(Domain.AT_LEAST_ONE, distribution);
+        openUnit = Inputs.generate(Domain.OPEN_UNIT, distribution);
+        positive = Inputs.generate(Domain.POSITIVE, distribution);
+        exponent = Inputs.generate(Domain.EXPONENT, distribution);
+    }
+
+    @Benchmark
+    public double[] cot() {
+        FloatMathExt.cot(radiansPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastCot() {
+        FastFloatMath.cot(radiansPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] sec() {
+        FloatMathExt.sec(radiansPoleAtHalfPi, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastSec() {
+        FastFloatMath.sec(radiansPoleAtHalfPi, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] csc() {
+        FloatMathExt.csc(radiansPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastCsc() {
+        FastFloatMath.csc(radiansPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] asinh() {
+        FloatMathExt.asinh(real, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastAsinh() {
+        FastFloatMath.asinh(real, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] acosh() {
+        FloatMathExt.acosh(atLeastOne, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastAcosh() {
+        FastFloatMath.acosh(atLeastOne, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] atanh() {
+        FloatMathExt.atanh(openUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastAtanh() {
+        FastFloatMath.atanh(openUnit, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] log2() {
+        FloatMathExt.log2(positive, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastLog2() {
+        FastFloatMath.log2(positive, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] exp2() {
+        FloatMathExt.exp2(exponent, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastExp2() {
+        FastFloatMath.exp2(exponent, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] exp10() {
+        FloatMathExt.exp10(exponent, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] fastExp10() {
+        FastFloatMath.exp10(exponent, 0, Inputs.SIZE, out);
+        return out;
+    }
+}
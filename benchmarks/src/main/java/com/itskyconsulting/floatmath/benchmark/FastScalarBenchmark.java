@@ -0,0 +1,162 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.itskyconsulting.floatmath.FastFloatMath;
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Scalar functions of FastFloatMath compared with the same functions of FloatMathExt, each on SIZE arguments per invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class FastScalarBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] radiansPoleAtZero;
+    private double[] radiansPoleAtHalfPi;
+    private double[] real;
+    private double[] atLeastOne;
+    private double[] openUnit;
+    private double[] positive;
+
+    @Setup
+    public void setup() {
+        radiansPoleAtZero = Inputs.generate(Domain.RADIANS_POLE_AT_ZERO, distribution);
+        radiansPoleAtHalfPi = Inputs.generate(Domain.RADIANS_POLE_AT_HALF_PI, distribution);
+        real = Inputs.generate(Domain.REAL, distribution);
+        atLeastOne = Inputs.generate(Domain.AT_LEAST_ONE, distribution);
+        openUnit = Inputs.generate(Domain.OPEN_UNIT, distribution);
+        positive = Inputs.generate(Domain.POSITIVE, distribution);
+    }
+
+    @Benchmark
+    public void cot(Blackhole bh) {
+        for (double x : radiansPoleAtZero) {
+            bh.consume(FloatMathExt.cot(x));
+        }
+    }
+
+    @Benchmark
+    public void fastCot(Blackhole bh) {
+        for (double x : radiansPoleAtZero) {
+            bh.consume(FastFloatMath.cot(x));
+        }
+    }
+
+    @Benchmark
+    public void sec(Blackhole bh) {
+        for (double x : radiansPoleAtHalfPi) {
+            bh.consume(FloatMathExt.sec(x));
+        }
+    }
+
+    @Benchmark
+    public void fastSec(Blackhole bh) {
+        for (double x : radiansPoleAtHalfPi) {
+            bh.consume(FastFloatMath.sec(x));
+        }
+    }
+
+    @Benchmark
+    public void csc(Blackhole bh) {
+        for (double x : radiansPoleAtZero) {
+            bh.consume(FloatMathExt.csc(x));
+        }
+    }
+
+    @Benchmark
+    public void fastCsc(Blackhole bh) {
+        for (double x : radiansPoleAtZero) {
+            bh.consume(FastFloatMath.csc(x));
+        }
+    }
+
+    @Benchmark
+    public void asinh(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(FloatMathExt.asinh(x));
+        }
+    }
+
+    @Benchmark
+    public void fastAsinh(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(FastFloatMath.asinh(x));
+        }
+    }
+
+    @Benchmark
+    public void acosh(Blackhole bh) {
+        for (double x : atLeastOne) {
+            bh.consume(FloatMathExt.acosh(x));
+        }
+    }
+
+    @Benchmark
+    public void fastAcosh(Blackhole bh) {
+        for (double x : atLeastOne) {
+            bh.consume(FastFloatMath.acosh(x));
+        }
+    }
+
+    @Benchmark
+    public void atanh(Blackhole bh) {
+        for (double x : openUnit) {
+            bh.consume(FloatMathExt.atanh(x));
+        }
+    }
+
+    @Benchmark
+    public void fastAtanh(Blackhole bh) {
+        for (double x : openUnit) {
+            bh.consume(FastFloatMath.atanh(x));
+        }
+    }
+
+    @Benchmark
+    public void log2(Blackhole bh) {
+        for (double x : positive) {
+            bh.consume(FloatMathExt.log2(x));
+        }
+    }
+
+    @Benchmark
+    public void fastLog2(Blackhole bh) {
+        for (double x : positive) {
+            bh.consume(FastFloatMath.log2(x));
+        }
+    }
+}
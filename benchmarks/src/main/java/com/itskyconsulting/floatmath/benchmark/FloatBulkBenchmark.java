@@ -0,0 +1,129 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * float[] versions of the bulk functions that have SIMD kernels, to compare with the double[] versions in BulkBenchmark.
+ * Run with -jvmArgsAppend --add-modules=jdk.incubator.vector on JDK 16+ to measure the SIMD kernels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class FloatBulkBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private float[] radiansPoleAtZero;
+    private float[] radiansPoleAtHalfPi;
+    private float[] real;
+    private float[] poleAtZero;
+    private float[] positive;
+    private float[] exponent;
+    private float[] power;
+
+    private final float[] out = new float[Inputs.SIZE];
+
+    private static float[] toFloat(double[] arr) {
+        float[] result = new float[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            result[i] = (float) arr[i];
+        }
+        return result;
+    }
+
+    @Setup
+    public void setup() {
+        radiansPoleAtZero = toFloat(Inputs.generate(Domain.RADIANS_POLE_AT_ZERO, distribution));
+        radiansPoleAtHalfPi = toFloat(Inputs.generate(Domain.RADIANS_POLE_AT_HALF_PI, distribution));
+        real = toFloat(Inputs.generate(Domain.REAL, distribution));
+        poleAtZero = toFloat(Inputs.generate(Domain.POLE_AT_ZERO, distribution));
+        positive = toFloat(Inputs.generate(Domain.POSITIVE, distribution));
+        exponent = toFloat(Inputs.generate(Domain.EXPONENT, distribution));
+        power = toFloat(Inputs.generate(Domain.POWER, distribution));
+    }
+
+    @Benchmark
+    public float[] sec() {
+        FloatMathExt.sec(radiansPoleAtHalfPi, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] csc() {
+        FloatMathExt.csc(radiansPoleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] coth() {
+        FloatMathExt.coth(poleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] sech() {
+        FloatMathExt.sech(real, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] csch() {
+        FloatMathExt.csch(poleAtZero, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] log2() {
+        FloatMathExt.log2(positive, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] exp2() {
+        FloatMathExt.exp2(exponent, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] square() {
+        FloatMathExt.square(power, 0, Inputs.SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public float[] cube() {
+        FloatMathExt.cube(power, 0, Inputs.SIZE, out);
+        return out;
+    }
+}
@@ -0,0 +1,78 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.FloatFunction;
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Four functions chosen at runtime, applied to an array: method references in a shared loop, whose call site
+ * becomes megamorphic, compared with FloatFunction.applyAll, which has the loop inside each constant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(4 * Inputs.SIZE)
+public class FloatFunctionBenchmark {
+
+    private double[] in;
+    private final double[] out = new double[Inputs.SIZE];
+
+    private final DoubleUnaryOperator[] references = { FloatMathExt::sech, FloatMathExt::square, FloatMathExt::acotd, FloatMathExt::cube };
+
+    private final FloatFunction[] constants = { FloatFunction.SECH, FloatFunction.SQUARE, FloatFunction.ACOTD, FloatFunction.CUBE };
+
+    @Setup
+    public void setup() {
+        in = Inputs.generate(Domain.REAL, Distribution.NORMAL);
+    }
+
+    private static void applyAll(DoubleUnaryOperator f, double[] in, double[] out) {
+        for (int i = 0; i < in.length; i++) {
+            out[i] = f.applyAsDouble(in[i]);
+        }
+    }
+
+    @Benchmark
+    public double[] methodReferences() {
+        for (DoubleUnaryOperator f : references) {
+            applyAll(f, in, out);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] floatFunction() {
+        for (FloatFunction f : constants) {
+            f.applyAll(in, out);
+        }
+        return out;
+    }
+}
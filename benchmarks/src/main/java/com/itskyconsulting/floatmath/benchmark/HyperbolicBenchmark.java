@@ -0,0 +1,148 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Scalar hyperbolic functions and their inverses of FloatMathExt, each on SIZE arguments per invocation.
+ * The math* benchmarks measure the functions of Math they are based on, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class HyperbolicBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] poleAtZero;
+    private double[] real;
+    private double[] atLeastOne;
+    private double[] openUnit;
+    private double[] outsideUnit;
+    private double[] positiveUnit;
+
+    @Setup
+    public void setup() {
+        poleAtZero = Inputs.generate(Domain.POLE_AT_ZERO, distribution);
+        real = Inputs.generate(Domain.REAL, distribution);
+        atLeastOne = Inputs.generate(Domain.AT_LEAST_ONE, distribution);
+        openUnit = Inputs.generate(Domain.OPEN_UNIT, distribution);
+        outsideUnit = Inputs.generate(Domain.OUTSIDE_UNIT, distribution);
+        positiveUnit = Inputs.generate(Domain.POSITIVE_UNIT, distribution);
+    }
+
+    @Benchmark
+    public void coth(Blackhole bh) {
+        for (double x : poleAtZero) {
+            bh.consume(FloatMathExt.coth(x));
+        }
+    }
+
+    @Benchmark
+    public void sech(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(FloatMathExt.sech(x));
+        }
+    }
+
+    @Benchmark
+    public void csch(Blackhole bh) {
+        for (double x : poleAtZero) {
+            bh.consume(FloatMathExt.csch(x));
+        }
+    }
+
+    @Benchmark
+    public void asinh(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(FloatMathExt.asinh(x));
+        }
+    }
+
+    @Benchmark
+    public void acosh(Blackhole bh) {
+        for (double x : atLeastOne) {
+            bh.consume(FloatMathExt.acosh(x));
+        }
+    }
+
+    @Benchmark
+    public void atanh(Blackhole bh) {
+        for (double x : openUnit) {
+            bh.consume(FloatMathExt.atanh(x));
+        }
+    }
+
+    @Benchmark
+    public void acoth(Blackhole bh) {
+        for (double x : outsideUnit) {
+            bh.consume(FloatMathExt.acoth(x));
+        }
+    }
+
+    @Benchmark
+    public void asech(Blackhole bh) {
+        for (double x : positiveUnit) {
+            bh.consume(FloatMathExt.asech(x));
+        }
+    }
+
+    @Benchmark
+    public void acsch(Blackhole bh) {
+        for (double x : poleAtZero) {
+            bh.consume(FloatMathExt.acsch(x));
+        }
+    }
+
+    @Benchmark
+    public void mathTanh(Blackhole bh) {
+        for (double x : poleAtZero) {
+            bh.consume(Math.tanh(x));
+        }
+    }
+
+    @Benchmark
+    public void mathCosh(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(Math.cosh(x));
+        }
+    }
+
+    @Benchmark
+    public void mathSinh(Blackhole bh) {
+        for (double x : poleAtZero) {
+            bh.consume(Math.sinh(x));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * All six hyperbolic functions of the same argument: separate calls compared with hyperbolic, which uses one exp.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class HyperbolicFamilyBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] in;
+
+    private final double[] result = new double[6];
+    private final double[][] out = new double[6][Inputs.SIZE];
+
+    @Setup
+    public void setup() {
+        in = Inputs.generate(Domain.POLE_AT_ZERO, distribution);
+    }
+
+    @Benchmark
+    public void separate(Blackhole bh) {
+        for (double x : in) {
+            bh.consume(Math.sinh(x));
+            bh.consume(Math.cosh(x));
+            bh.consume(Math.tanh(x));
+            bh.consume(FloatMathExt.coth(x));
+            bh.consume(FloatMathExt.sech(x));
+            bh.consume(FloatMathExt.csch(x));
+        }
+    }
+
+    @Benchmark
+    public void hyperbolic(Blackhole bh) {
+        for (double x : in) {
+            FloatMathExt.hyperbolic(x, result);
+            for (double y : result) {
+                bh.consume(y);
+            }
+        }
+    }
+
+    @Benchmark
+    public double[][] bulkHyperbolic() {
+        FloatMathExt.hyperbolic(in, 0, Inputs.SIZE, out[0], out[1], out[2], out[3], out[4], out[5]);
+        return out;
+    }
+
+    @Benchmark
+    public void mathTanh(Blackhole bh) {
+        for (double x : in) {
+            bh.consume(Math.tanh(x));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.Random;
+
+/**
+ * Input data for the benchmarks.
+ *
+ * Each function belongs to a Domain, which knows where the function is usually evaluated and where its singularities are.
+ * The Distribution selects which kind of arguments are generated.
+ */
+public final class Inputs {
+
+    /** number of arguments per benchmark invocation */
+    public static final int SIZE = 1024;
+
+    /** kind of arguments */
+    public enum Distribution {
+        /** uniformly distributed in the range where the function is typically used */
+        NORMAL,
+        /** close to poles, zeros and borders of the domain, for example cot near k*pi or atanh near +/-1 */
+        NEAR_SINGULARITY,
+        /** large absolute values, for trigonometric functions this includes the expensive argument reduction */
+        LARGE,
+        /** NaN, Infinity and signed zeros */
+        SPECIAL
+    }
+
+    /** where functions are defined and where they become singular */
+    public enum Domain {
+        /** radians with poles at k*pi: cot, csc */
+        RADIANS_POLE_AT_ZERO(-10, 10, 0, Math.PI, true),
+        /** radians with poles at pi/2+k*pi: sec */
+        RADIANS_POLE_AT_HALF_PI(-10, 10, Math.PI/2, Math.PI, true),
+        /** degrees with poles or zeros at k*180: sind, cotd, cscd */
+        DEGREES_POLE_AT_ZERO(-720, 720, 0, 180, true),
+        /** degrees with poles or zeros at 90+k*180: cosd, tand, secd */
+        DEGREES_POLE_AT_NINETY(-720, 720, 90, 180, true),
+        /** [-1, 1], singular at the borders: asind, acosd */
+        CLOSED_UNIT(-1, 1, 1, 0, true),
+        /** (-1, 1), singular at the borders: atanh */
+        OPEN_UNIT(-1, 1, 1, 0, true),
+        /** |x| &gt;= 1, singular at +/-1: asec, acsc, asecd, acscd, acoth */
+        OUTSIDE_UNIT(1, 10, 1, 0, true),
+        /** all real numbers, interesting around 0: acot, atand, acotd, asinh, sech */
+        REAL(-10, 10, 0, 0, true),
+        /** all real numbers except 0: coth, csch, acsch */
+        POLE_AT_ZERO(-10, 10, 0, 0, true),
+        /** x &gt;= 1, singular at 1: acosh */
+        AT_LEAST_ONE(1, 10, 1, 0, false),
+        /** 0 &lt; x &lt;= 1, singular at 0 and 1: asech */
+        POSITIVE_UNIT(0, 1, 1, 0, false),
+        /** x &gt; 0, singular at 0: log2 */
+        POSITIVE(1e-3, 1e3, 0, 0, false),
+        /** exponents, singular where the result overflows or underflows: exp2, exp10 */
+        EXPONENT(-10, 10, 0, 0, true),
+        /** powers, singular where the result overflows or underflows: square, cube */
+        POWER(-10, 10, 0, 0, true);
+
+        private final double lo;
+        private final double hi;
+        private final double singularity;
+        private final double period;
+        private final boolean signed;
+
+        Domain(double lo, double hi, double singularity, double period, boolean signed) {
+            this.lo = lo;
+            this.hi = hi;
+            this.singularity = singularity;
+            this.period = period;
+            this.signed = signed;
+        }
+
+        /** one argument of the given distribution */
+        double next(Distribution distribution, Random random) {
+            switch (distribution) {
+            case NORMAL:
+                return normal(random);
+            case NEAR_SINGULARITY:
+                return nearSingularity(random);
+            case LARGE:
+                return sign(random) * logUniform(random, 1e3, 1e300);
+            default:
+                return SPECIALS[random.nextInt(SPECIALS.length)];
+            }
+        }
+
+        private double normal(Random random) {
+            switch (this) {
+            case OUTSIDE_UNIT:
+                return sign(random) * uniform(random, lo, hi);
+            case POSITIVE:
+                return logUniform(random, lo, hi);
+            default:
+                double x = uniform(random, lo, hi);
+                return x == 0.0 ? hi : x;
+            }
+        }
+
+        private double nearSingularity(Random random) {
+            double offset = logUniform(random, 1e-15, 1e-3);
+            switch (this) {
+            case CLOSED_UNIT:
+            case OPEN_UNIT:
+                return sign(random) * (1 - offset);
+            case OUTSIDE_UNIT:
+                return sign(random) * (1 + offset);
+            case AT_LEAST_ONE:
+                return 1 + offset;
+            case POSITIVE_UNIT:
+                return random.nextBoolean() ? 1 - offset : offset;
+            case POSITIVE:
+                return logUniform(random, Double.MIN_NORMAL, 1e-10);
+            case EXPONENT:
+                // where exp2 and exp10 overflow or become subnormal
+                double[] borders = { 1023, -1022, 308, -307 };
+                return borders[random.nextInt(borders.length)] + sign(random) * offset * 1e3;
+            case POWER:
+                return sign(random) * logUniform(random, 1e-200, 1e-100);
+            default:
+                int k = period == 0 ? 0 : random.nextInt(21) - 10;
+                return singularity + k * period + sign(random) * offset;
+            }
+        }
+
+        private double sign(Random random) {
+            if (! signed) {
+                return 1.0;
+            }
+            return random.nextBoolean() ? 1.0 : -1.0;
+        }
+    }
+
+    /** the special values */
+    private static final double[] SPECIALS = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.0, -0.0 };
+
+    private Inputs() {
+    }
+
+    /** SIZE arguments for a function of the given domain, always the same for the same parameters */
+    public static double[] generate(Domain domain, Distribution distribution) {
+        Random random = new Random(31L * domain.ordinal() + distribution.ordinal());
+        double[] result = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = domain.next(distribution, random);
+        }
+        return result;
+    }
+
+    private static double uniform(Random random, double lo, double hi) {
+        return lo + (hi - lo) * random.nextDouble();
+    }
+
+    private static double logUniform(Random random, double lo, double hi) {
+        return Math.exp(uniform(random, Math.log(lo), Math.log(hi)));
+    }
+}
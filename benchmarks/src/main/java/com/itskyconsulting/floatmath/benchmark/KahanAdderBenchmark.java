@@ -0,0 +1,63 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.KahanAdder;
+
+/**
+ * Four threads adding to one shared sum: DoubleAdder compared with KahanAdder and a synchronized compensated sum.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class KahanAdderBenchmark {
+
+    private final DoubleAdder doubleAdder = new DoubleAdder();
+    private final KahanAdder kahanAdder = new KahanAdder();
+
+    private double sum;
+    private double correction;
+
+    @Benchmark
+    public void doubleAdder() {
+        doubleAdder.add(0.1);
+    }
+
+    @Benchmark
+    public void kahanAdder() {
+        kahanAdder.add(0.1);
+    }
+
+    @Benchmark
+    public synchronized void synchronizedSum() {
+        double y = 0.1 - correction;
+        double t = sum + y;
+        correction = (t - sum) - y;
+        sum = t;
+    }
+}
@@ -0,0 +1,47 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.Random;
+
+/**
+ * Order of the values for the aggregation benchmarks.
+ */
+public enum Order {
+    /** increasing */
+    SORTED,
+    /** random permutation with a fixed seed */
+    SHUFFLED;
+
+    /**
+     * n distinct positive values in increasing order, between 0.5 and 1.5, so all means are defined.
+     */
+    public static double[] values(int n) {
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = 0.5 + (i + 0.5) / n;
+        }
+        return result;
+    }
+
+    /** arrange sorted values in this order, in place */
+    public double[] arrange(double[] sorted) {
+        if (this == SHUFFLED) {
+            Random random = new Random(4711L);
+            for (int i = sorted.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                double t = sorted[i];
+                sorted[i] = sorted[j];
+                sorted[j] = t;
+            }
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,72 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.FloatFunction;
+
+/**
+ * applyAll compared with parallelApplyAll in the common ForkJoinPool, for a cheap and an expensive function.
+ * For small arrays both should take the same time, because parallelApplyAll stays sequential.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ParallelBulkBenchmark {
+
+    @Param({ "1000", "100000", "10000000" })
+    public int size;
+
+    @Param({ "SQUARE", "ACOTD" })
+    public FloatFunction function;
+
+    private double[] in;
+    private double[] out;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(21);
+        in = new double[size];
+        out = new double[size];
+        for (int i = 0; i < size; i++) {
+            in[i] = (random.nextDouble() - 0.5) * 20;
+        }
+    }
+
+    @Benchmark
+    public double[] applyAll() {
+        function.applyAll(in, 0, size, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] parallelApplyAll() {
+        function.parallelApplyAll(in, 0, size, out);
+        return out;
+    }
+}
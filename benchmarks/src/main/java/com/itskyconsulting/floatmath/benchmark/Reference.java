@@ -0,0 +1,256 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Elementary functions with BigDecimal and 60 significant digits, as reference for the accuracy harness.
+ *
+ * The arguments are exact (every double is a BigDecimal), so the results are correct to far more digits than
+ * double has, also near singularities: the reduction of trigonometric arguments uses pi with 420 digits,
+ * which is enough for all doubles, and degrees are reduced exactly modulo 360.
+ * This is slow (about 10-100 microseconds per value), but it is only used to measure errors.
+ */
+final class Reference {
+
+    /** precision of the results */
+    static final MathContext MC = new MathContext(60, RoundingMode.HALF_EVEN);
+
+    /** precision of the intermediate results */
+    private static final MathContext WORK = new MathContext(70, RoundingMode.HALF_EVEN);
+
+    static final BigDecimal ONE = BigDecimal.ONE;
+    static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+    private static final BigDecimal ONE_EIGHTY = BigDecimal.valueOf(180);
+    private static final BigDecimal THREE_SIXTY = BigDecimal.valueOf(360);
+
+    /** pi with 420 digits, enough to reduce 1e308 modulo pi/2 with 70 digits left */
+    static final BigDecimal PI = pi(new MathContext(420));
+    static final BigDecimal HALF_PI = PI.divide(TWO);
+    private static final BigDecimal TWO_OVER_PI = TWO.divide(PI, new MathContext(420));
+
+    static final BigDecimal LN2 = atanhSeries(BigDecimal.ONE.divide(BigDecimal.valueOf(3), WORK)).multiply(TWO, WORK);
+    static final BigDecimal LN10 = log(BigDecimal.TEN);
+
+    /** results with a larger absolute value than this are infinite as double */
+    static final BigDecimal OVERFLOW = new BigDecimal("1e400");
+
+    private Reference() {
+    }
+
+    /** pi = 16 atan(1/5) - 4 atan(1/239) (Machin) */
+    private static BigDecimal pi(MathContext mc) {
+        MathContext m = new MathContext(mc.getPrecision() + 10);
+        BigDecimal a = atanSeries(BigDecimal.ONE.divide(BigDecimal.valueOf(5), m), m).multiply(BigDecimal.valueOf(16));
+        BigDecimal b = atanSeries(BigDecimal.ONE.divide(BigDecimal.valueOf(239), m), m).multiply(BigDecimal.valueOf(4));
+        return a.subtract(b).round(mc);
+    }
+
+    /** x - x^3/3 + x^5/5 - ... for small |x| */
+    private static BigDecimal atanSeries(BigDecimal x, MathContext mc) {
+        BigDecimal x2 = x.multiply(x, mc);
+        BigDecimal power = x;
+        BigDecimal sum = x;
+        BigDecimal eps = BigDecimal.ONE.movePointLeft(mc.getPrecision() + 2);
+        for (int n = 1; power.abs().compareTo(eps) > 0; n++) {
+            power = power.multiply(x2, mc).negate();
+            sum = sum.add(power.divide(BigDecimal.valueOf(2 * n + 1), mc), mc);
+        }
+        return sum;
+    }
+
+    /** x + x^3/3 + x^5/5 + ... = atanh(x) for small |x| */
+    private static BigDecimal atanhSeries(BigDecimal x) {
+        BigDecimal x2 = x.multiply(x, WORK);
+        BigDecimal power = x;
+        BigDecimal sum = x;
+        BigDecimal eps = x.abs().movePointLeft(WORK.getPrecision() + 2);
+        for (int n = 1; power.abs().compareTo(eps) > 0; n++) {
+            power = power.multiply(x2, WORK);
+            sum = sum.add(power.divide(BigDecimal.valueOf(2 * n + 1), WORK), WORK);
+        }
+        return sum;
+    }
+
+    /** sqrt(x) for x &gt;= 0 with Newton's method, starting with the double square root */
+    static BigDecimal sqrt(BigDecimal x) {
+        if (x.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        // x = y * 10^(2e) with y in double range
+        int e = (x.precision() - x.scale()) / 2;
+        BigDecimal y = x.movePointLeft(2 * e);
+        BigDecimal r = new BigDecimal(Math.sqrt(y.doubleValue()));
+        for (int i = 0; i < 4; i++) {
+            r = r.add(y.divide(r, WORK)).multiply(HALF);
+        }
+        return r.movePointRight(e).round(WORK);
+    }
+
+    /** exp(x), with the Taylor series of x/2^s and s squarings */
+    static BigDecimal exp(BigDecimal x) {
+        if (x.compareTo(BigDecimal.valueOf(2000)) > 0) {
+            return OVERFLOW;
+        } else if (x.compareTo(BigDecimal.valueOf(-2000)) < 0) {
+            return BigDecimal.ZERO;
+        }
+        int s = 0;
+        BigDecimal r = x;
+        while (r.abs().compareTo(HALF) > 0) {
+            r = r.multiply(HALF);
+            s++;
+        }
+        MathContext mc = new MathContext(WORK.getPrecision() + s);
+        BigDecimal term = BigDecimal.ONE;
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal eps = BigDecimal.ONE.movePointLeft(mc.getPrecision() + 2);
+        for (int n = 1; term.abs().compareTo(eps) > 0; n++) {
+            term = term.multiply(r, mc).divide(BigDecimal.valueOf(n), mc);
+            sum = sum.add(term, mc);
+        }
+        for (int i = 0; i < s; i++) {
+            sum = sum.multiply(sum, mc);
+        }
+        return sum.round(WORK);
+    }
+
+    /** exp(x) - 1, without cancellation for small x */
+    static BigDecimal expm1(BigDecimal x) {
+        if (x.abs().compareTo(HALF) > 0) {
+            return exp(x).subtract(ONE, WORK);
+        }
+        BigDecimal term = x;
+        BigDecimal sum = x;
+        BigDecimal eps = x.abs().movePointLeft(WORK.getPrecision() + 2);
+        for (int n = 2; term.abs().compareTo(eps) > 0; n++) {
+            term = term.multiply(x, WORK).divide(BigDecimal.valueOf(n), WORK);
+            sum = sum.add(term, WORK);
+        }
+        return sum;
+    }
+
+    /** log(x) for x &gt; 0: x = m * 2^k with m near 1, log(m) = 2 atanh((m-1)/(m+1)) */
+    static BigDecimal log(BigDecimal x) {
+        int k = (int) Math.round(log2Estimate(x));
+        BigDecimal m = (k >= 0) ? x.divide(TWO.pow(k), WORK) : x.multiply(TWO.pow(-k));
+        BigDecimal z = m.subtract(ONE).divide(m.add(ONE), WORK);
+        BigDecimal result = atanhSeries(z).multiply(TWO, WORK);
+        if (k != 0) {
+            result = result.add(LN2.multiply(BigDecimal.valueOf(k), WORK), WORK);
+        }
+        return result;
+    }
+
+    /** log2(x) with the accuracy of a double, also outside the range of double */
+    private static double log2Estimate(BigDecimal x) {
+        BigInteger unscaled = x.unscaledValue();
+        int shift = Math.max(0, unscaled.bitLength() - 60);
+        double mantissa = unscaled.shiftRight(shift).doubleValue();
+        return (Math.log(mantissa) - x.scale() * Math.log(10)) / Math.log(2) + shift;
+    }
+
+    /** x - q*pi/2 with |result| &lt;= pi/4 and the quadrant q mod 4 */
+    private static BigDecimal reduce(BigDecimal x, int[] quadrant) {
+        int digits = Math.max(0, x.precision() - x.scale());
+        MathContext mc = new MathContext(digits + WORK.getPrecision() + 10);
+        BigInteger q = x.multiply(TWO_OVER_PI, mc).setScale(0, RoundingMode.HALF_EVEN).toBigIntegerExact();
+        quadrant[0] = q.intValue() & 3;
+        return x.subtract(HALF_PI.multiply(new BigDecimal(q), mc), mc).round(WORK);
+    }
+
+    /** sin or cos of |r| &lt;= pi/4, power 1 or 0 of the Taylor series */
+    private static BigDecimal sinCosSeries(BigDecimal r, int first) {
+        BigDecimal r2 = r.multiply(r, WORK);
+        BigDecimal term = (first == 1) ? r : ONE;
+        BigDecimal sum = term;
+        if (term.signum() == 0) {
+            return sum;
+        }
+        BigDecimal eps = term.abs().movePointLeft(WORK.getPrecision() + 2);
+        for (int n = first + 1; term.abs().compareTo(eps) > 0; n += 2) {
+            term = term.multiply(r2, WORK).divide(BigDecimal.valueOf((long) n * (n + 1)), WORK).negate();
+            sum = sum.add(term, WORK);
+        }
+        return sum;
+    }
+
+    static BigDecimal sin(BigDecimal x) {
+        int[] quadrant = new int[1];
+        BigDecimal r = reduce(x, quadrant);
+        switch (quadrant[0]) {
+        case 0:
+            return sinCosSeries(r, 1);
+        case 1:
+            return sinCosSeries(r, 0);
+        case 2:
+            return sinCosSeries(r, 1).negate();
+        default:
+            return sinCosSeries(r, 0).negate();
+        }
+    }
+
+    static BigDecimal cos(BigDecimal x) {
+        int[] quadrant = new int[1];
+        BigDecimal r = reduce(x, quadrant);
+        switch (quadrant[0]) {
+        case 0:
+            return sinCosSeries(r, 0);
+        case 1:
+            return sinCosSeries(r, 1).negate();
+        case 2:
+            return sinCosSeries(r, 0).negate();
+        default:
+            return sinCosSeries(r, 1);
+        }
+    }
+
+    /** atan(x): pi/2 - atan(1/x) for |x| &gt; 1, then two halvings atan(x) = 2 atan(x/(1 + sqrt(1 + x^2))) */
+    static BigDecimal atan(BigDecimal x) {
+        if (x.signum() < 0) {
+            return atan(x.negate()).negate();
+        } else if (x.compareTo(ONE) > 0) {
+            return HALF_PI.subtract(atan(ONE.divide(x, WORK)), WORK);
+        }
+        BigDecimal y = x;
+        for (int i = 0; i < 2; i++) {
+            y = y.divide(ONE.add(sqrt(ONE.add(y.multiply(y, WORK)))), WORK);
+        }
+        return atanSeries(y, WORK).multiply(BigDecimal.valueOf(4), WORK);
+    }
+
+    /** asin(x) for |x| &lt;= 1 */
+    static BigDecimal asin(BigDecimal x) {
+        BigDecimal c = ONE.subtract(x.multiply(x));
+        if (c.signum() == 0) {
+            return x.signum() > 0 ? HALF_PI : HALF_PI.negate();
+        }
+        return atan(x.divide(sqrt(c), WORK));
+    }
+
+    /** acos(x) for |x| &lt;= 1 */
+    static BigDecimal acos(BigDecimal x) {
+        return HALF_PI.subtract(asin(x), WORK);
+    }
+
+    /** x degrees in radians, after the exact reduction modulo 360 */
+    static BigDecimal radians(BigDecimal degrees) {
+        return degrees.remainder(THREE_SIXTY).multiply(PI, WORK).divide(ONE_EIGHTY, WORK);
+    }
+
+    /** x radians in degrees */
+    static BigDecimal degrees(BigDecimal radians) {
+        return radians.multiply(ONE_EIGHTY, WORK).divide(PI, WORK);
+    }
+}
@@ -0,0 +1,105 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * sin and cos of the same argument: separate calls compared with sincos and sincosd, which share the argument reduction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class SincosBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] radians;
+    private double[] degrees;
+
+    private final double[] result = new double[2];
+    private final double[] sin = new double[Inputs.SIZE];
+    private final double[] cos = new double[Inputs.SIZE];
+
+    @Setup
+    public void setup() {
+        radians = Inputs.generate(Domain.RADIANS_POLE_AT_ZERO, distribution);
+        degrees = Inputs.generate(Domain.DEGREES_POLE_AT_ZERO, distribution);
+    }
+
+    @Benchmark
+    public void mathSinCos(Blackhole bh) {
+        for (double x : radians) {
+            bh.consume(Math.sin(x));
+            bh.consume(Math.cos(x));
+        }
+    }
+
+    @Benchmark
+    public void sincos(Blackhole bh) {
+        for (double x : radians) {
+            FloatMathExt.sincos(x, result);
+            bh.consume(result[FloatMathExt.SIN]);
+            bh.consume(result[FloatMathExt.COS]);
+        }
+    }
+
+    @Benchmark
+    public void sindCosd(Blackhole bh) {
+        for (double x : degrees) {
+            bh.consume(FloatMathExt.sind(x));
+            bh.consume(FloatMathExt.cosd(x));
+        }
+    }
+
+    @Benchmark
+    public void sincosd(Blackhole bh) {
+        for (double x : degrees) {
+            FloatMathExt.sincosd(x, result);
+            bh.consume(result[FloatMathExt.SIN]);
+            bh.consume(result[FloatMathExt.COS]);
+        }
+    }
+
+    @Benchmark
+    public double[] bulkSincos() {
+        FloatMathExt.sincos(radians, 0, Inputs.SIZE, sin, cos);
+        return cos;
+    }
+
+    @Benchmark
+    public double[] bulkSincosd() {
+        FloatMathExt.sincosd(degrees, 0, Inputs.SIZE, sin, cos);
+        return cos;
+    }
+}
@@ -0,0 +1,77 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.TabulatedFunction;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * acotd in [-10, 10] computed directly compared with linear and cubic tables with an error of at most 1e-6.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class TabulatedFunctionBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] in;
+    private final double[] out = new double[Inputs.SIZE];
+
+    private TabulatedFunction linear;
+    private TabulatedFunction cubic;
+
+    @Setup
+    public void setup() {
+        in = Inputs.generate(Domain.REAL, distribution);
+        linear = TabulatedFunction.builder(FloatMathExt::acotd).domain(-10, 10).maxError(1e-6).linear().build();
+        cubic = TabulatedFunction.builder(FloatMathExt::acotd).domain(-10, 10).maxError(1e-6).cubic().build();
+    }
+
+    @Benchmark
+    public double[] direct() {
+        FloatMathExt.acotd(in, 0, in.length, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] linear() {
+        linear.apply(in, 0, in.length, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] cubic() {
+        cubic.apply(in, 0, in.length, out);
+        return out;
+    }
+}
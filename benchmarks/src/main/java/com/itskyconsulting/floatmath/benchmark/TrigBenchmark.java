@@ -0,0 +1,123 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.itskyconsulting.floatmath.FloatMathExt;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Distribution;
+import com.itskyconsulting.floatmath.benchmark.Inputs.Domain;
+
+/**
+ * Scalar cot, sec, csc and their inverses of FloatMathExt, each on SIZE arguments per invocation.
+ * The math* benchmarks measure the functions of Math they are based on, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(Inputs.SIZE)
+public class TrigBenchmark {
+
+    @Param
+    public Distribution distribution;
+
+    private double[] radiansPoleAtZero;
+    private double[] radiansPoleAtHalfPi;
+    private double[] real;
+    private double[] outsideUnit;
+
+    @Setup
+    public void setup() {
+        radiansPoleAtZero = Inputs.generate(Domain.RADIANS_POLE_AT_ZERO, distribution);
+        radiansPoleAtHalfPi = Inputs.generate(Domain.RADIANS_POLE_AT_HALF_PI, distribution);
+        real = Inputs.generate(Domain.REAL, distribution);
+        outsideUnit = Inputs.generate(Domain.OUTSIDE_UNIT, distribution);
+    }
+
+    @Benchmark
+    public void cot(Blackhole bh) {
+        for (double x : radiansPoleAtZero) {
+            bh.consume(FloatMathExt.cot(x));
+        }
+    }
+
+    @Benchmark
+    public void sec(Blackhole bh) {
+        for (double x : radiansPoleAtHalfPi) {
+            bh.consume(FloatMathExt.sec(x));
+        }
+    }
+
+    @Benchmark
+    public void csc(Blackhole bh) {
+        for (double x : radiansPoleAtZero) {
+            bh.consume(FloatMathExt.csc(x));
+        }
+    }
+
+    @Benchmark
+    public void acot(Blackhole bh) {
+        for (double x : real) {
+            bh.consume(FloatMathExt.acot(x));
+        }
+    }
+
+    @Benchmark
+    public void asec(Blackhole bh) {
+        for (double x : outsideUnit) {
+            bh.consume(FloatMathExt.asec(x));
+        }
+    }
+
+    @Benchmark
+    public void acsc(Blackhole bh) {
+        for (double x : outsideUnit) {
+            bh.consume(FloatMathExt.acsc(x));
+        }
+    }
+
+    @Benchmark
+    public void mathTan(Blackhole bh) {
+        for (double x : radiansPoleAtZero) {
+            bh.consume(Math.tan(x));
+        }
+    }
+
+    @Benchmark
+    public void mathSin(Blackhole bh) {
+        for (double x : radiansPoleAtZero) {
+            bh.consume(Math.sin(x));
+        }
+    }
+
+    @Benchmark
+    public void mathCos(Blackhole bh) {
+        for (double x : radiansPoleAtHalfPi) {
+            bh.consume(Math.cos(x));
+        }
+    }
+}
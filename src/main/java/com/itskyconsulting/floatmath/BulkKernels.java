@@ -0,0 +1,66 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+/**
+ * Array kernels of FloatMathExt and FastFloatMath that can be replaced by a SIMD implementation.
+ *
+ * Each method stores f(in[i]) in out[i] for off &lt;= i &lt; off+len.
+ * The range has already been checked by the caller.
+ * Results may differ from the scalar functions by a few ulps, but special values (NaN, Infinity, 0) have to be the same.
+ */
+interface BulkKernels {
+
+    void sec(double[] in, int off, int len, double[] out);
+
+    void csc(double[] in, int off, int len, double[] out);
+
+    void coth(double[] in, int off, int len, double[] out);
+
+    void sech(double[] in, int off, int len, double[] out);
+
+    void csch(double[] in, int off, int len, double[] out);
+
+    void log2(double[] in, int off, int len, double[] out);
+
+    void exp2(double[] in, int off, int len, double[] out);
+
+    void square(double[] in, int off, int len, double[] out);
+
+    void cube(double[] in, int off, int len, double[] out);
+
+    void sec(float[] in, int off, int len, float[] out);
+
+    void csc(float[] in, int off, int len, float[] out);
+
+    void coth(float[] in, int off, int len, float[] out);
+
+    void sech(float[] in, int off, int len, float[] out);
+
+    void csch(float[] in, int off, int len, float[] out);
+
+    void log2(float[] in, int off, int len, float[] out);
+
+    void exp2(float[] in, int off, int len, float[] out);
+
+    void square(float[] in, int off, int len, float[] out);
+
+    void cube(float[] in, int off, int len, float[] out);
+
+    void fastCot(double[] in, int off, int len, double[] out);
+
+    void fastAsinh(double[] in, int off, int len, double[] out);
+
+    void fastAcosh(double[] in, int off, int len, double[] out);
+
+    void fastAtanh(double[] in, int off, int len, double[] out);
+
+    void fastExp10(double[] in, int off, int len, double[] out);
+}
@@ -0,0 +1,83 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+/**
+ * Mutable running sum with compensation, using the same steps as FloatCollectionMath.sum.
+ *
+ * The exact value of the sum is approximately sum - correction.
+ * Two such sums can be merged without losing the correction of either of them, so partial sums
+ * of parts of an array can be calculated in parallel.
+ */
+final class CompensatedSum {
+
+    /** the sum so far */
+    double sum;
+
+    /** the error of sum, that has to be subtracted */
+    double correction;
+
+    /** add one value */
+    void add(double x) {
+        if (Double.isInfinite(x) || Double.isInfinite(sum)) {
+            sum += x;
+            correction = 0.0;
+            return;
+        }
+        double y = x - correction;
+        double t = sum + y;
+        correction = (t - sum) - y;
+        sum = t;
+    }
+
+    /** add arr[from..to-1] */
+    void add(double[] arr, int from, int to) {
+        double s = sum;
+        double c = correction;
+        for (int i = from; i < to; i++) {
+            double x = arr[i];
+            if (Double.isInfinite(x) || Double.isInfinite(s)) {
+                s += x;
+                c = 0.0;
+                continue;
+            }
+            double y = x - c;
+            double t = s + y;
+            c = (t - s) - y;
+            s = t;
+        }
+        sum = s;
+        correction = c;
+    }
+
+    /**
+     * add another compensated sum
+     *
+     * The two sums are added with TwoSum (Knuth), which gives the rounded sum t and its exact error e.
+     * The error and both corrections are collected in the new correction, which is then moved into the sum
+     * as far as possible, so the result has the accuracy of a compensated sum over all the values.
+     */
+    void add(CompensatedSum other) {
+        double a = sum;
+        double b = other.sum;
+        double t = a + b;
+        if (Double.isInfinite(t) || Double.isNaN(t)) {
+            sum = t;
+            correction = 0.0;
+            return;
+        }
+        double bb = t - a;
+        double e = (a - (t - bb)) + (b - bb);
+        double c = (correction + other.correction) - e;
+        double u = t - c;
+        correction = (u - t) + c;
+        sum = u;
+    }
+}
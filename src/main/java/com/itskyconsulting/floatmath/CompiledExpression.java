@@ -0,0 +1,136 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * An Expression combined into one method handle, created by Expression.compile().
+ *
+ * The method handle of the expression is a tree of method handle combinators over the static methods of
+ * FloatMathExt. When a method handle is called often, the JVM customizes its lambda forms for this instance,
+ * so the functions are inlined into one piece of code. On Java 9+ the loop of the bulk version is a
+ * method handle as well (MethodHandles.countedLoop), so the whole loop is compiled like a hand-written loop
+ * and the JIT can unroll it. On Java 8 the loop calls the method handle of the expression for each element,
+ * which still avoids the virtual calls for each node of the tree.
+ */
+public final class CompiledExpression implements DoubleUnaryOperator {
+
+    /** MethodHandles.countedLoop(start, end, init, body), null before Java 9 */
+    private static final Method COUNTED_LOOP = countedLoop();
+
+    private final Expression expression;
+
+    /** double f(double x) */
+    private final MethodHandle function;
+
+    /** void loop(double[] in, int off, int len, double[] out), null before Java 9 */
+    private final MethodHandle loop;
+
+    CompiledExpression(Expression expression, MethodHandle function) {
+        this.expression = expression;
+        this.function = function;
+        this.loop = loop(function);
+    }
+
+    private static Method countedLoop() {
+        try {
+            return MethodHandles.class.getMethod("countedLoop", MethodHandle.class, MethodHandle.class, MethodHandle.class, MethodHandle.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /** first index of the loop */
+    private static int loopStart(double[] in, int off, int len, double[] out) {
+        return off;
+    }
+
+    /** end of the loop */
+    private static int loopEnd(double[] in, int off, int len, double[] out) {
+        return off + len;
+    }
+
+    /** the loop out[i] = function(in[i]) for off &lt;= i &lt; off + len as method handle, null before Java 9 */
+    private static MethodHandle loop(MethodHandle function) {
+        if (COUNTED_LOOP == null) {
+            return null;
+        }
+        MethodType loopType = MethodType.methodType(void.class, double[].class, int.class, int.class, double[].class);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle start = lookup.findStatic(CompiledExpression.class, "loopStart", MethodType.methodType(int.class, loopType.parameterArray()));
+            MethodHandle end = lookup.findStatic(CompiledExpression.class, "loopEnd", MethodType.methodType(int.class, loopType.parameterArray()));
+            // (double[] out, int i, double[] in, int i) -> out[i] = function(in[i])
+            MethodHandle element = MethodHandles.filterReturnValue(MethodHandles.arrayElementGetter(double[].class), function);
+            MethodHandle store = MethodHandles.collectArguments(MethodHandles.arrayElementSetter(double[].class), 2, element);
+            // body(int i, double[] in, int off, int len, double[] out)
+            MethodHandle body = MethodHandles.permuteArguments(store, loopType.insertParameterTypes(0, int.class), 4, 0, 1, 0);
+            return (MethodHandle) COUNTED_LOOP.invoke(null, start, end, null, body);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("cannot create the loop", e);
+        }
+    }
+
+    /** exceptions of the functions, which can only be unchecked */
+    private static RuntimeException unchecked(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+
+    @Override
+    public double applyAsDouble(double x) {
+        try {
+            return (double) function.invokeExact(x);
+        } catch (Throwable t) {
+            throw unchecked(t);
+        }
+    }
+
+    /** the expression of in[off..off+len-1] into out[off..off+len-1] */
+    public void apply(double[] in, int off, int len, double[] out) {
+        FloatMathExt.checkRange(in, off, len, out);
+        try {
+            if (loop != null) {
+                loop.invokeExact(in, off, len, out);
+            } else {
+                for (int i = off, end = off + len; i < end; i++) {
+                    out[i] = (double) function.invokeExact(in[i]);
+                }
+            }
+        } catch (Throwable t) {
+            throw unchecked(t);
+        }
+    }
+
+    /** the expression of arr[off..off+len-1] in place */
+    public void apply(double[] arr, int off, int len) {
+        apply(arr, off, len, arr);
+    }
+
+    /** the expression that has been compiled */
+    public Expression getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression.toString();
+    }
+}
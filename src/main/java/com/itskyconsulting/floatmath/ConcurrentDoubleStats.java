@@ -0,0 +1,265 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Count, sum, min, max, mean and variance of values that many threads record concurrently, without locks.
+ *
+ * Each thread records into a cell of its own, so recording needs no compare-and-set, only a sequence number
+ * that is odd while the thread is recording. A cell keeps the count, min and max and the sums of x and x^2 together
+ * with their rounding errors, which are calculated exactly (TwoSum and Dekker's product). min and max are the same
+ * as those of FloatCollectionMath, including NaN, which makes them NaN, and -0.0, which is smaller than 0.0.
+ * The variance is calculated from the sums with BigDecimal when a snapshot is taken, so it does not cancel
+ * even if the mean is much larger than the standard deviation.
+ *
+ * Each cell has two halves, one for the current phase and one for the previous one. snapshotAndReset() switches
+ * the phase, waits for the threads that were recording into the old halves at that moment and then collects and
+ * clears the old halves, so each value is counted in exactly one snapshot. Recording never waits.
+ * snapshot() reads the current halves while values are recorded, like DoubleAdder.sum(), so a value can be
+ * partially included.
+ * Cells of threads that have ended are kept, with their values, so the number of cells is the number of threads
+ * that have ever recorded into this object.
+ */
+public final class ConcurrentDoubleStats implements DoubleConsumer {
+
+    /** precision of the sums of the cells */
+    private static final MathContext MC = new MathContext(40);
+
+    /** the cells of all threads that have recorded values */
+    private final Queue<Cell> cells = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<Cell> cell = ThreadLocal.withInitial(this::newCell);
+
+    /** the index of the current halves, 0 or 1 */
+    private volatile int phase;
+
+    private Cell newCell() {
+        Cell c = new Cell();
+        cells.add(c);
+        return c;
+    }
+
+    /** record one value */
+    @Override
+    public void accept(double x) {
+        Cell c = cell.get();
+        long seq = c.seq;
+        c.seq = seq + 1;
+        c.halves[phase].record(x);
+        Cell.SEQ.lazySet(c, seq + 2);
+    }
+
+    /** the statistics of the values recorded so far, which can include values that are recorded at the same time */
+    public Snapshot snapshot() {
+        int p = phase;
+        List<Half> halves = new ArrayList<>();
+        for (Cell c : cells) {
+            halves.add(c.halves[p]);
+        }
+        return new Snapshot(halves);
+    }
+
+    /** the statistics of the values recorded so far, and start again with no values */
+    public synchronized Snapshot snapshotAndReset() {
+        int old = phase;
+        phase = 1 - old;
+        List<Half> halves = new ArrayList<>();
+        for (Cell c : cells) {
+            long seq = c.seq;
+            if ((seq & 1) != 0) {
+                // wait until the value that is being recorded into the old half is complete
+                while (c.seq == seq) {
+                    Thread.yield();
+                }
+            }
+            halves.add(c.halves[old]);
+        }
+        Snapshot result = new Snapshot(halves);
+        for (Half h : halves) {
+            h.reset();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /** the statistics at one point of time, immutable */
+    public static final class Snapshot {
+
+        private final long count;
+        private final double sum;
+        private final double min;
+        private final double max;
+        private final double mean;
+        private final double variance;
+
+        Snapshot(List<Half> halves) {
+            long n = 0;
+            double lo = Double.POSITIVE_INFINITY;
+            double hi = Double.NEGATIVE_INFINITY;
+            double plainSum = 0.0;
+            double plainSquares = 0.0;
+            BigDecimal s1 = BigDecimal.ZERO;
+            BigDecimal s2 = BigDecimal.ZERO;
+            for (Half h : halves) {
+                n += h.count;
+                lo = Math.min(lo, h.min);
+                hi = Math.max(hi, h.max);
+                plainSum += h.sum;
+                plainSquares += h.squares;
+                if (Double.isFinite(plainSum)) {
+                    s1 = s1.add(new BigDecimal(h.sum), MC).add(new BigDecimal(h.sumError), MC);
+                }
+                if (Double.isFinite(plainSquares)) {
+                    s2 = s2.add(new BigDecimal(h.squares), MC).add(new BigDecimal(h.squaresError), MC);
+                }
+            }
+            count = n;
+            min = lo;
+            max = hi;
+            if (!Double.isFinite(plainSum)) {
+                sum = plainSum;
+                mean = n == 0 ? Double.NaN : plainSum;
+                variance = n < 2 ? Double.NaN : (Double.isNaN(plainSum) ? Double.NaN : Double.POSITIVE_INFINITY);
+                return;
+            }
+            sum = s1.doubleValue();
+            if (n == 0) {
+                mean = Double.NaN;
+                variance = Double.NaN;
+                return;
+            }
+            BigDecimal bn = BigDecimal.valueOf(n);
+            mean = s1.divide(bn, MC).doubleValue();
+            if (n < 2) {
+                variance = Double.NaN;
+            } else if (!Double.isFinite(plainSquares)) {
+                variance = plainSquares;
+            } else {
+                // (S2 - S1^2/n)/(n-1), which is not negative apart from values recorded during snapshot()
+                BigDecimal m2 = s2.subtract(s1.multiply(s1, MC).divide(bn, MC), MC);
+                variance = Math.max(0.0, m2.divide(BigDecimal.valueOf(n - 1), MC).doubleValue());
+            }
+        }
+
+        /** number of values */
+        public long getCount() {
+            return count;
+        }
+
+        /** sum of the values, with compensation like KahanAdder */
+        public double getSum() {
+            return sum;
+        }
+
+        /** minimum like FloatCollectionMath.min, positive infinity if there are no values */
+        public double getMin() {
+            return min;
+        }
+
+        /** maximum like FloatCollectionMath.max, negative infinity if there are no values */
+        public double getMax() {
+            return max;
+        }
+
+        /** average (arithmetic mean), NaN if there are no values */
+        public double getMean() {
+            return mean;
+        }
+
+        /** sample variance, NaN for less than two values */
+        public double getVariance() {
+            return variance;
+        }
+
+        /** sample standard deviation, NaN for less than two values */
+        public double getStandardDeviation() {
+            return Math.sqrt(variance);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{count=%d, sum=%f, min=%f, max=%f, mean=%f, standardDeviation=%f}",
+                                 ConcurrentDoubleStats.class.getSimpleName(), count, sum, min, max, mean, getStandardDeviation());
+        }
+    }
+
+    /** the cell of one thread, which is the only one that writes into it */
+    private static final class Cell {
+
+        static final AtomicLongFieldUpdater<Cell> SEQ = AtomicLongFieldUpdater.newUpdater(Cell.class, "seq");
+
+        /** number of started and completed values, odd while a value is recorded */
+        volatile long seq;
+
+        final Half[] halves = { new Half(), new Half() };
+    }
+
+    /** the values of one thread in one phase */
+    private static final class Half {
+
+        /** 2^27 + 1 for splitting a double into two halves of 26 bits (Veltkamp) */
+        private static final double SPLIT = 134217729.0;
+
+        long count;
+        double sum;
+        double sumError;
+        double squares;
+        double squaresError;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void record(double x) {
+            count++;
+            double t = sum + x;
+            if (Double.isFinite(t)) {
+                double bb = t - sum;
+                sumError += (sum - (t - bb)) + (x - bb);
+            }
+            sum = t;
+            double square = x * x;
+            double u = squares + square;
+            if (Double.isFinite(u)) {
+                // x^2 = square + e exactly (Dekker), then the rounding error of squares + square (TwoSum)
+                double c = SPLIT * x;
+                double high = c - (c - x);
+                double low = x - high;
+                double e = ((high * high - square) + 2 * high * low) + low * low;
+                double bb = u - squares;
+                squaresError += ((squares - (u - bb)) + (square - bb)) + (Double.isFinite(e) ? e : 0.0);
+            }
+            squares = u;
+            min = Math.min(min, x);
+            max = Math.max(max, x);
+        }
+
+        void reset() {
+            count = 0;
+            sum = 0.0;
+            sumError = 0.0;
+            squares = 0.0;
+            squaresError = 0.0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+        }
+    }
+}
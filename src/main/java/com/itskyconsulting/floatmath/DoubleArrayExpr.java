@@ -0,0 +1,518 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A lazy expression over an array: map, zip and filter are only recorded and executed by a terminal operation
+ * like sum, min, max or the means, without temporary arrays of the full length.
+ *
+ * Example: the average of the sines of data in degrees, like FloatCollectionMath.arithmeticMean of FloatMathExt.sind
+ * applied to a copy of data, is DoubleArrayExpr.of(data).map(FloatFunction.SIND).arithmeticMean()
+ *
+ * The terminal operation runs through the array in blocks of BLOCK_SIZE elements, which stay in the L1 cache
+ * while all steps are applied to them. FloatFunctions and CompiledExpressions are applied with their bulk versions,
+ * so they use SIMD instructions where FloatMathExt does. Other functions are called for each element.
+ * After parallel() the terminal operations split the array in the common ForkJoinPool like FloatCollectionMath.parallelSum.
+ * Expressions are immutable and can be evaluated more than once, the results reflect the current content of the arrays.
+ */
+public final class DoubleArrayExpr {
+
+    /** number of elements that are processed together, 8 KB per buffer */
+    static final int BLOCK_SIZE = 1 << 10;
+
+    private final Node node;
+    private final boolean parallel;
+
+    private DoubleArrayExpr(Node node, boolean parallel) {
+        this.node = node;
+        this.parallel = parallel;
+    }
+
+    /** the elements arr[off..off+len-1], which are read by the terminal operation */
+    public static DoubleArrayExpr of(double[] arr, int off, int len) {
+        if (off < 0 || len < 0 || off > arr.length - len) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + arr.length);
+        }
+        return new DoubleArrayExpr(new Source(arr, off, len), false);
+    }
+
+    /** all elements of arr */
+    public static DoubleArrayExpr of(double ... arr) {
+        return of(arr, 0, arr.length);
+    }
+
+    /** f applied to each element, usually a FloatFunction or a CompiledExpression */
+    public DoubleArrayExpr map(DoubleUnaryOperator f) {
+        if (f == null) {
+            throw new NullPointerException("f");
+        }
+        return new DoubleArrayExpr(new Map(node, f), parallel);
+    }
+
+    /**
+     * op applied to the elements of this and other with the same index
+     *
+     * Both must have the same length and must not be filtered, because the indices would not match.
+     */
+    public DoubleArrayExpr zip(DoubleArrayExpr other, DoubleBinaryOperator op) {
+        if (op == null) {
+            throw new NullPointerException("op");
+        }
+        if (node.filtered() || other.node.filtered()) {
+            throw new IllegalStateException("zip of filtered expressions");
+        }
+        if (node.length() != other.node.length()) {
+            throw new IllegalArgumentException("different lengths " + node.length() + " and " + other.node.length());
+        }
+        return new DoubleArrayExpr(new Zip(node, other.node, op), parallel);
+    }
+
+    /** op applied to the elements of this and other with the same index, see zip(DoubleArrayExpr, DoubleBinaryOperator) */
+    public DoubleArrayExpr zip(double[] other, DoubleBinaryOperator op) {
+        return zip(of(other), op);
+    }
+
+    /** only the elements for which p is true */
+    public DoubleArrayExpr filter(DoublePredicate p) {
+        if (p == null) {
+            throw new NullPointerException("p");
+        }
+        return new DoubleArrayExpr(new Filter(node, p), parallel);
+    }
+
+    /** the same expression with terminal operations that are calculated in parallel */
+    public DoubleArrayExpr parallel() {
+        return new DoubleArrayExpr(node, true);
+    }
+
+    /** the same expression with terminal operations that are calculated in the calling thread */
+    public DoubleArrayExpr sequential() {
+        return new DoubleArrayExpr(node, false);
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /** sum with compensation, sequentially the same as FloatCollectionMath.sum of the elements */
+    public double sum() {
+        return evaluate(SUM).sum.sum;
+    }
+
+    /** minimum like FloatCollectionMath.min, positive infinity if there are no elements */
+    public double min() {
+        return evaluate(MIN_MAX).min;
+    }
+
+    /** maximum like FloatCollectionMath.max, negative infinity if there are no elements */
+    public double max() {
+        return evaluate(MIN_MAX).max;
+    }
+
+    /** number of elements, after filtering */
+    public long count() {
+        return evaluate(MIN_MAX).count;
+    }
+
+    /** average (arithmetic mean) like FloatCollectionMath.arithmeticMean, NaN if there are no elements */
+    public double arithmeticMean() {
+        Sum s = evaluate(SUM);
+        return s.count == 0 ? Double.NaN : s.sum.sum/s.count;
+    }
+
+    /** all means of the elements */
+    public MeanAccumulator means() {
+        return evaluate(MEANS);
+    }
+
+    /** the elements as new array */
+    public double[] toArray() {
+        Elements e = evaluate(ELEMENTS);
+        return Arrays.copyOf(e.values, e.size);
+    }
+
+    @Override
+    public String toString() {
+        return node.toString() + (parallel ? ".parallel()" : "");
+    }
+
+    /*
+     * The steps of the expression. fill calculates the elements with indices from..to-1 of the source into buf
+     * and returns their number, which is smaller than to-from if they have been filtered.
+     * Buffers for zip come from the Buffers of the thread that runs the terminal operation.
+     */
+
+    private abstract static class Node {
+
+        /** number of elements before filtering */
+        abstract int length();
+
+        abstract boolean filtered();
+
+        abstract int fill(int from, int to, double[] buf, Buffers buffers);
+    }
+
+    private static final class Source extends Node {
+
+        private final double[] arr;
+        private final int off;
+        private final int len;
+
+        Source(double[] arr, int off, int len) {
+            this.arr = arr;
+            this.off = off;
+            this.len = len;
+        }
+
+        @Override
+        int length() {
+            return len;
+        }
+
+        @Override
+        boolean filtered() {
+            return false;
+        }
+
+        @Override
+        int fill(int from, int to, double[] buf, Buffers buffers) {
+            System.arraycopy(arr, off + from, buf, 0, to - from);
+            return to - from;
+        }
+
+        @Override
+        public String toString() {
+            return "DoubleArrayExpr.of(double[" + len + "])";
+        }
+    }
+
+    private static final class Map extends Node {
+
+        private final Node parent;
+        private final DoubleUnaryOperator f;
+
+        Map(Node parent, DoubleUnaryOperator f) {
+            this.parent = parent;
+            this.f = f;
+        }
+
+        @Override
+        int length() {
+            return parent.length();
+        }
+
+        @Override
+        boolean filtered() {
+            return parent.filtered();
+        }
+
+        @Override
+        int fill(int from, int to, double[] buf, Buffers buffers) {
+            int n = parent.fill(from, to, buf, buffers);
+            if (f instanceof FloatFunction) {
+                ((FloatFunction) f).applyAll(buf, 0, n);
+            } else if (f instanceof CompiledExpression) {
+                ((CompiledExpression) f).apply(buf, 0, n);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    buf[i] = f.applyAsDouble(buf[i]);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public String toString() {
+            return parent + ".map(" + f + ")";
+        }
+    }
+
+    private static final class Zip extends Node {
+
+        private final Node parent;
+        private final Node other;
+        private final DoubleBinaryOperator op;
+
+        Zip(Node parent, Node other, DoubleBinaryOperator op) {
+            this.parent = parent;
+            this.other = other;
+            this.op = op;
+        }
+
+        @Override
+        int length() {
+            return parent.length();
+        }
+
+        @Override
+        boolean filtered() {
+            return false;
+        }
+
+        @Override
+        int fill(int from, int to, double[] buf, Buffers buffers) {
+            int n = parent.fill(from, to, buf, buffers);
+            double[] second = buffers.take();
+            other.fill(from, to, second, buffers);
+            for (int i = 0; i < n; i++) {
+                buf[i] = op.applyAsDouble(buf[i], second[i]);
+            }
+            buffers.release();
+            return n;
+        }
+
+        @Override
+        public String toString() {
+            return parent + ".zip(" + other + ", " + op + ")";
+        }
+    }
+
+    private static final class Filter extends Node {
+
+        private final Node parent;
+        private final DoublePredicate p;
+
+        Filter(Node parent, DoublePredicate p) {
+            this.parent = parent;
+            this.p = p;
+        }
+
+        @Override
+        int length() {
+            return parent.length();
+        }
+
+        @Override
+        boolean filtered() {
+            return true;
+        }
+
+        @Override
+        int fill(int from, int to, double[] buf, Buffers buffers) {
+            int n = parent.fill(from, to, buf, buffers);
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                double x = buf[i];
+                if (p.test(x)) {
+                    buf[m++] = x;
+                }
+            }
+            return m;
+        }
+
+        @Override
+        public String toString() {
+            return parent + ".filter(" + p + ")";
+        }
+    }
+
+    /** a stack of blocks for one thread, the first one is for the result */
+    private static final class Buffers {
+
+        private double[][] blocks = new double[2][];
+        private int used;
+
+        double[] take() {
+            if (used == blocks.length) {
+                blocks = Arrays.copyOf(blocks, 2 * used);
+            }
+            if (blocks[used] == null) {
+                blocks[used] = new double[BLOCK_SIZE];
+            }
+            return blocks[used++];
+        }
+
+        void release() {
+            used--;
+        }
+    }
+
+    /*
+     * Terminal operations, each as accumulator for parts of the elements, which are added in blocks
+     * and combined in the order of the parts.
+     */
+
+    private interface Terminal<A> {
+
+        A create();
+
+        void accept(A acc, double[] buf, int n);
+
+        void combine(A acc, A other);
+    }
+
+    private static final class Sum {
+        final CompensatedSum sum = new CompensatedSum();
+        long count;
+    }
+
+    private static final class MinMax {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        long count;
+    }
+
+    private static final class Elements {
+        double[] values = new double[BLOCK_SIZE];
+        int size;
+
+        void add(double[] buf, int n) {
+            if (size + n > values.length) {
+                values = Arrays.copyOf(values, Math.max(2 * values.length, size + n));
+            }
+            System.arraycopy(buf, 0, values, size, n);
+            size += n;
+        }
+    }
+
+    private static final Terminal<Sum> SUM = new Terminal<Sum>() {
+
+        @Override
+        public Sum create() {
+            return new Sum();
+        }
+
+        @Override
+        public void accept(Sum acc, double[] buf, int n) {
+            acc.sum.add(buf, 0, n);
+            acc.count += n;
+        }
+
+        @Override
+        public void combine(Sum acc, Sum other) {
+            acc.sum.add(other.sum);
+            acc.count += other.count;
+        }
+    };
+
+    private static final Terminal<MinMax> MIN_MAX = new Terminal<MinMax>() {
+
+        @Override
+        public MinMax create() {
+            return new MinMax();
+        }
+
+        @Override
+        public void accept(MinMax acc, double[] buf, int n) {
+            double min = acc.min;
+            double max = acc.max;
+            for (int i = 0; i < n; i++) {
+                min = Math.min(min, buf[i]);
+                max = Math.max(max, buf[i]);
+            }
+            acc.min = min;
+            acc.max = max;
+            acc.count += n;
+        }
+
+        @Override
+        public void combine(MinMax acc, MinMax other) {
+            acc.min = Math.min(acc.min, other.min);
+            acc.max = Math.max(acc.max, other.max);
+            acc.count += other.count;
+        }
+    };
+
+    private static final Terminal<MeanAccumulator> MEANS = new Terminal<MeanAccumulator>() {
+
+        @Override
+        public MeanAccumulator create() {
+            return new MeanAccumulator();
+        }
+
+        @Override
+        public void accept(MeanAccumulator acc, double[] buf, int n) {
+            acc.acceptAll(buf, 0, n);
+        }
+
+        @Override
+        public void combine(MeanAccumulator acc, MeanAccumulator other) {
+            acc.combine(other);
+        }
+    };
+
+    private static final Terminal<Elements> ELEMENTS = new Terminal<Elements>() {
+
+        @Override
+        public Elements create() {
+            return new Elements();
+        }
+
+        @Override
+        public void accept(Elements acc, double[] buf, int n) {
+            acc.add(buf, n);
+        }
+
+        @Override
+        public void combine(Elements acc, Elements other) {
+            acc.add(other.values, other.size);
+        }
+    };
+
+    private <A> A evaluate(Terminal<A> terminal) {
+        int len = node.length();
+        if (parallel && len > FloatCollectionMath.PARALLEL_SUM_THRESHOLD) {
+            return ForkJoinPool.commonPool().invoke(new EvaluateTask<>(node, terminal, 0, len));
+        }
+        return evaluate(node, terminal, 0, len);
+    }
+
+    /** the terminal operation over the elements with indices from..to-1, block by block */
+    private static <A> A evaluate(Node node, Terminal<A> terminal, int from, int to) {
+        A acc = terminal.create();
+        Buffers buffers = new Buffers();
+        double[] buf = buffers.take();
+        for (int start = from; start < to; start += BLOCK_SIZE) {
+            int n = node.fill(start, Math.min(start + BLOCK_SIZE, to), buf, buffers);
+            terminal.accept(acc, buf, n);
+        }
+        return acc;
+    }
+
+    /** the terminal operation over from..to-1, split in halves until the parts are small enough */
+    private static final class EvaluateTask<A> extends RecursiveTask<A> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Node node;
+        private final transient Terminal<A> terminal;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(Node node, Terminal<A> terminal, int from, int to) {
+            this.node = node;
+            this.terminal = terminal;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= FloatCollectionMath.PARALLEL_SUM_THRESHOLD) {
+                return evaluate(node, terminal, from, to);
+            }
+            // split at a multiple of BLOCK_SIZE, so the blocks are the same as sequentially
+            int mid = from + ((to - from) / 2 / BLOCK_SIZE) * BLOCK_SIZE;
+            EvaluateTask<A> left = new EvaluateTask<>(node, terminal, from, mid);
+            left.fork();
+            A right = new EvaluateTask<>(node, terminal, mid, to).compute();
+            A result = left.join();
+            terminal.combine(result, right);
+            return result;
+        }
+    }
+}
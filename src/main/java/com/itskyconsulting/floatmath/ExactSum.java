@@ -0,0 +1,186 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Exact sum of doubles: sum() is the correctly rounded (round half to even) value of the exact sum,
+ * however much of it cancels out, for example 1e100 + 1 - 1e100 is 1.
+ * Because the sum is exact it does not depend on the order of the values either, like ReproducibleSum.
+ *
+ * This is a small superaccumulator as described by Neal ("Fast exact summation using small and large
+ * superaccumulators", 2015): every finite double is an integer multiple of 2^-1074 with less than 2098 bits.
+ * This fixed point number is kept in chunks of 32 bits, each in a long, and each value is added to the three chunks
+ * that its mantissa overlaps, without rounding. The longs have room for the carries of 2^29 additions, after which
+ * the carries are propagated. sum() propagates the carries and rounds the top 64 bits once.
+ * Adding a value takes a few integer operations and no branches apart from those for NaN, infinity and zero,
+ * about 2.5 times as long as an addition in FloatCollectionMath.sum. FloatCollectionMath.exactSum, which only uses
+ * this class when a compensated sum is too close to the middle between two doubles, is about as fast as sum.
+ *
+ * Usage with a stream:
+ * double s = doubleStream.collect(ExactSum::new, ExactSum::accept, ExactSum::combine).sum();
+ */
+public final class ExactSum implements DoubleConsumer {
+
+    private static final int CHUNK_BITS = 32;
+
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    /** chunks for the bits 0..2097 in units of 2^-1074 of all doubles, and two more for the carries */
+    private static final int CHUNKS = 68;
+
+    /** number of additions after which the carries are propagated, each adds less than 2^32 to a chunk */
+    static final int NORMALIZE_INTERVAL = 1 << 29;
+
+    /** the exact sum of the finite values in units of 2^-1074, chunk i with the weight 2^(32i) */
+    private final long[] chunks = new long[CHUNKS];
+
+    /** additions since the last propagation of the carries */
+    private int additions;
+
+    /** sum of NaN and infinite values */
+    private double special;
+
+    /** add one value */
+    @Override
+    public void accept(double x) {
+        long bits = Double.doubleToRawLongBits(x);
+        int e = (int) (bits >>> 52) & 0x7FF;
+        long m = bits & 0xFFFFFFFFFFFFFL;
+        if (e == 0x7FF) {
+            special += x;
+            return;
+        } else if (e == 0) {
+            if (m == 0) {
+                return;
+            }
+            // subnormal, the same unit as the smallest normal exponent
+            e = 1;
+        } else {
+            m |= 1L << 52;
+        }
+        // x = +/- m * 2^(e-1-1074), so the lowest bit of m is bit e-1 of the fixed point number
+        int pos = e - 1;
+        int c = pos >>> 5;
+        int s = pos & (CHUNK_BITS - 1);
+        // -1 for negative values: (v ^ sign) - sign is -v
+        long sign = bits >> 63;
+        long low = (m << s) & CHUNK_MASK;
+        long mid = (m >>> (CHUNK_BITS - s)) & CHUNK_MASK;
+        long high = (m >>> 1) >>> (63 - s);
+        chunks[c] += (low ^ sign) - sign;
+        chunks[c + 1] += (mid ^ sign) - sign;
+        chunks[c + 2] += (high ^ sign) - sign;
+        if (++additions >= NORMALIZE_INTERVAL) {
+            normalize(chunks);
+            additions = 0;
+        }
+    }
+
+    /** add arr[off..off+len-1] */
+    public void acceptAll(double[] arr, int off, int len) {
+        if (off < 0 || len < 0 || off > arr.length - len) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + arr.length);
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            accept(arr[i]);
+        }
+    }
+
+    /** add all elements of arr */
+    public void acceptAll(double ... arr) {
+        acceptAll(arr, 0, arr.length);
+    }
+
+    /** add the values of another exact sum, which is not changed */
+    public void combine(ExactSum other) {
+        special += other.special;
+        normalize(chunks);
+        for (int i = 0; i < CHUNKS; i++) {
+            chunks[i] += other.chunks[i];
+        }
+        normalize(chunks);
+        additions = 0;
+    }
+
+    /** the correctly rounded sum of all values added so far, NaN or infinite if such values have been added */
+    public double sum() {
+        if (special != 0.0 || Double.isNaN(special)) {
+            return special;
+        }
+        normalize(chunks);
+        additions = 0;
+        long[] a = chunks;
+        boolean negative = a[CHUNKS - 1] < 0;
+        if (negative) {
+            a = a.clone();
+            for (int i = 0; i < CHUNKS; i++) {
+                a[i] = -a[i];
+            }
+            normalize(a);
+        }
+        double result = round(a);
+        return negative ? -result : result;
+    }
+
+    /** propagate the carries, so all chunks but the top one are in [0, 2^32) and the top one has the sign */
+    private static void normalize(long[] a) {
+        long carry = 0;
+        for (int i = 0; i < CHUNKS - 1; i++) {
+            long v = a[i] + carry;
+            a[i] = v & CHUNK_MASK;
+            carry = v >> CHUNK_BITS;
+        }
+        a[CHUNKS - 1] += carry;
+    }
+
+    /** the non-negative normalized fixed point number a, rounded to double */
+    private static double round(long[] a) {
+        int t = CHUNKS - 1;
+        while (t >= 0 && a[t] == 0) {
+            t--;
+        }
+        if (t < 0) {
+            return 0.0;
+        }
+        // the top 64 bits, starting with the highest bit of a[t], and whether there are more bits below them
+        int b = 64 - Long.numberOfLeadingZeros(a[t]);
+        int length = CHUNK_BITS * t + b;
+        long next = (t >= 1) ? a[t - 1] : 0;
+        long last = (t >= 2) ? a[t - 2] : 0;
+        long window = (a[t] << (64 - b)) | (next << (CHUNK_BITS - b)) | (last >>> b);
+        if (length <= 53) {
+            // exact, also if it is subnormal
+            return Math.scalb((double) (window >>> (64 - length)), -1074);
+        }
+        boolean sticky = (last & ((1L << b) - 1)) != 0;
+        for (int i = t - 3; i >= 0 && !sticky; i--) {
+            sticky = a[i] != 0;
+        }
+        long m = window >>> 11;
+        long rest = window & 0x7FF;
+        if (rest > 0x400 || (rest == 0x400 && (sticky || (m & 1) != 0))) {
+            m++;
+        }
+        // the lowest bit of m is bit length-53, which is at least 2^-1021, so this is exact or overflows
+        return Math.scalb((double) m, length - 53 - 1074);
+    }
+
+    /** a collector for streams of Double */
+    public static Collector<Double, ExactSum, Double> collector() {
+        return Collector.of(ExactSum::new,
+                            ExactSum::accept,
+                            (a, b) -> { a.combine(b); return a; },
+                            ExactSum::sum,
+                            Collector.Characteristics.UNORDERED);
+    }
+}
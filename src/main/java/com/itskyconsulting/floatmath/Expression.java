@@ -0,0 +1,272 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * An expression of one variable x, composed of the functions of FloatMathExt, other functions, constants and
+ * the four basic arithmetic operations. Expressions are immutable.
+ *
+ * Example: acotd(coth(x)*3) is Expression.x().apply(FloatFunction.COTH).multiply(3).apply(FloatFunction.ACOTD)
+ *
+ * applyAsDouble evaluates the tree of the expression, with a virtual call for each node and argument.
+ * compile() combines the expression into one method handle, which is compiled into one piece of code like
+ * a hand-written method, see CompiledExpression.
+ */
+public abstract class Expression implements DoubleUnaryOperator {
+
+    /** type of the method handles of all expressions: double f(double x) */
+    static final MethodType TYPE = MethodType.methodType(double.class, double.class);
+
+    private static final MethodType BINARY_TYPE = MethodType.methodType(double.class, double.class, double.class);
+
+    private static final Expression X = new Argument();
+
+    /** only the nested classes are expressions */
+    Expression() {
+    }
+
+    /** the variable x */
+    public static Expression x() {
+        return X;
+    }
+
+    /** the constant c */
+    public static Expression constant(double c) {
+        return new Constant(c);
+    }
+
+    /** f(this), where f is usually a FloatFunction */
+    public Expression apply(DoubleUnaryOperator f) {
+        if (f == null) {
+            throw new NullPointerException("f");
+        }
+        return new Function(f, this);
+    }
+
+    public Expression add(Expression e) {
+        return new Binary(Operator.ADD, this, e);
+    }
+
+    public Expression add(double c) {
+        return add(constant(c));
+    }
+
+    public Expression subtract(Expression e) {
+        return new Binary(Operator.SUBTRACT, this, e);
+    }
+
+    public Expression subtract(double c) {
+        return subtract(constant(c));
+    }
+
+    public Expression multiply(Expression e) {
+        return new Binary(Operator.MULTIPLY, this, e);
+    }
+
+    public Expression multiply(double c) {
+        return multiply(constant(c));
+    }
+
+    public Expression divide(Expression e) {
+        return new Binary(Operator.DIVIDE, this, e);
+    }
+
+    public Expression divide(double c) {
+        return divide(constant(c));
+    }
+
+    /** -this, as -0.0 - this, which is -x also for x = +0.0 and -0.0, unlike 0.0 - x */
+    public Expression negate() {
+        return constant(-0.0).subtract(this);
+    }
+
+    /** the expression as one method handle of type double f(double x) and a loop over arrays */
+    public CompiledExpression compile() {
+        return new CompiledExpression(this, handle());
+    }
+
+    /** a method handle of type TYPE that calculates the expression */
+    abstract MethodHandle handle();
+
+    /** the variable x */
+    private static final class Argument extends Expression {
+
+        @Override
+        public double applyAsDouble(double x) {
+            return x;
+        }
+
+        @Override
+        MethodHandle handle() {
+            return MethodHandles.identity(double.class);
+        }
+
+        @Override
+        public String toString() {
+            return "x";
+        }
+    }
+
+    private static final class Constant extends Expression {
+
+        private final double c;
+
+        Constant(double c) {
+            this.c = c;
+        }
+
+        @Override
+        public double applyAsDouble(double x) {
+            return c;
+        }
+
+        @Override
+        MethodHandle handle() {
+            return MethodHandles.dropArguments(MethodHandles.constant(double.class, c), 0, double.class);
+        }
+
+        @Override
+        public String toString() {
+            return Double.toString(c);
+        }
+    }
+
+    /** f(argument) */
+    private static final class Function extends Expression {
+
+        private final DoubleUnaryOperator f;
+        private final Expression argument;
+
+        Function(DoubleUnaryOperator f, Expression argument) {
+            this.f = f;
+            this.argument = argument;
+        }
+
+        @Override
+        public double applyAsDouble(double x) {
+            return f.applyAsDouble(argument.applyAsDouble(x));
+        }
+
+        /** FloatFunctions call their static method of FloatMathExt, other functions their bound applyAsDouble */
+        @Override
+        MethodHandle handle() {
+            MethodHandle function;
+            try {
+                if (f instanceof FloatFunction) {
+                    String name = ((FloatFunction) f).name().toLowerCase(Locale.ROOT);
+                    function = MethodHandles.publicLookup().findStatic(FloatMathExt.class, name, TYPE);
+                } else {
+                    function = MethodHandles.publicLookup().findVirtual(DoubleUnaryOperator.class, "applyAsDouble", TYPE).bindTo(f);
+                }
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalStateException("no method handle for " + f, e);
+            }
+            return MethodHandles.filterReturnValue(argument.handle(), function);
+        }
+
+        @Override
+        public String toString() {
+            String name = (f instanceof FloatFunction) ? ((FloatFunction) f).name().toLowerCase(Locale.ROOT) : f.toString();
+            return (argument instanceof Binary) ? name + argument : name + "(" + argument + ")";
+        }
+    }
+
+    private enum Operator {
+        ADD("+"), SUBTRACT("-"), MULTIPLY("*"), DIVIDE("/");
+
+        final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        double apply(double a, double b) {
+            switch (this) {
+            case ADD:
+                return a + b;
+            case SUBTRACT:
+                return a - b;
+            case MULTIPLY:
+                return a * b;
+            default:
+                return a / b;
+            }
+        }
+    }
+
+    private static double add(double a, double b) {
+        return a + b;
+    }
+
+    private static double subtract(double a, double b) {
+        return a - b;
+    }
+
+    private static double multiply(double a, double b) {
+        return a * b;
+    }
+
+    private static double divide(double a, double b) {
+        return a / b;
+    }
+
+    /** the method handle of one of the methods above, found with the lookup of Expression, which can see them */
+    private static MethodHandle operation(Operator op) {
+        try {
+            return MethodHandles.lookup().findStatic(Expression.class, op.name().toLowerCase(Locale.ROOT), BINARY_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("no method handle for " + op, e);
+        }
+    }
+
+    /** a op b */
+    private static final class Binary extends Expression {
+
+        private final Operator op;
+        private final Expression a;
+        private final Expression b;
+
+        Binary(Operator op, Expression a, Expression b) {
+            if (b == null) {
+                throw new NullPointerException("b");
+            }
+            this.op = op;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public double applyAsDouble(double x) {
+            return op.apply(a.applyAsDouble(x), b.applyAsDouble(x));
+        }
+
+        /** op(a(x), b(x)), with a constant b bound to op */
+        @Override
+        MethodHandle handle() {
+            MethodHandle operation = operation(op);
+            if (b instanceof Constant) {
+                return MethodHandles.filterReturnValue(a.handle(), MethodHandles.insertArguments(operation, 1, ((Constant) b).c));
+            }
+            MethodHandle both = MethodHandles.filterArguments(operation, 0, a.handle(), b.handle());
+            return MethodHandles.permuteArguments(both, TYPE, 0, 0);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + a + " " + op.symbol + " " + b + ")";
+        }
+    }
+}
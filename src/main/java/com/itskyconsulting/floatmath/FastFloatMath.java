@@ -0,0 +1,410 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static com.itskyconsulting.floatmath.FloatMathExt.VECTOR_KERNELS;
+import static com.itskyconsulting.floatmath.FloatMathExt.checkRange;
+
+/**
+ * Versions of some functions of FloatMathExt with a bounded error, whose bulk versions are faster.
+ *
+ * The maximum errors are given for each function, in ulps of the exact result.
+ * The bulk versions use SIMD instructions if the Vector API is available, see below; that is where the speed is,
+ * but their error is only bounded by 4 ulps, like that of the kernels of FloatMathExt.
+ * Of the scalar functions only exp2 and exp10 are faster than those of FloatMathExt:
+ * sec, csc and log2 are those of FloatMathExt, which are as accurate and faster than anything here,
+ * cot is 1/tan(x), which is infinite at 0 and large for tiny x, where FloatMathExt.cot gives tan(pi/2) = 1.6E16,
+ * and asinh, acosh and atanh take about 10 ns more than those of FloatMathExt, but keep their error bounds
+ * near 0 and 1, where FloatMathExt loses digits by cancellation.
+ * Special arguments (0, infinity, NaN, subnormal values, arguments out of the domain) give the same
+ * results as FloatMathExt, usually by calling it.
+ *
+ * log uses a table of c = 0.75 + j/128 with log(c), so the polynomial for log(x/c) only needs
+ * to be accurate for |x/c - 1| &lt;= 1/192. exp2 and exp10 use a table of 2^(j/64), so the polynomial
+ * for exp(r) only needs to be accurate for |r| &lt;= log(2)/128. On these intervals the Taylor polynomials
+ * of degree 7 and 6 are accurate to less than 0.1 ulp, so there is nothing to gain from minimax coefficients.
+ */
+public class FastFloatMath {
+
+    /** number of entries of the log table */
+    private static final int LOG_TABLE_SIZE = 97;
+
+    /** bits of 0.75, the lower end of the interval of the mantissa for log */
+    private static final long BITS_0_75 = 0x3FE8000000000000L;
+
+    /** 1/c and log(c) for c = 0.75 + j/128 */
+    private static final double[] INV_C = new double[LOG_TABLE_SIZE];
+    private static final double[] LOG_C = new double[LOG_TABLE_SIZE];
+
+    /** 2^(j/64) for 0 &lt;= j &lt; 64 */
+    private static final double[] EXP2_TABLE = new double[64];
+
+    static {
+        for (int j = 0; j < LOG_TABLE_SIZE; j++) {
+            double c = 0.75 + j / 128.0;
+            INV_C[j] = 1 / c;
+            LOG_C[j] = Math.log(c);
+        }
+        for (int j = 0; j < 64; j++) {
+            EXP2_TABLE[j] = Math.pow(2, j / 64.0);
+        }
+    }
+
+    /** log(2) with 32 bits, so that k*LN2_HI is exact, and log(2) - LN2_HI */
+    private static final double LN2_HI = 6.93147180369123816490e-01;
+    private static final double LN2_LO = 1.90821492927058770002e-10;
+
+    /** log(10) with 26 bits, so that products with 27 bits are exact, and log(10) - LN10_HI */
+    private static final double LN10_HI = 2.3025850653648376;
+    private static final double LN10_LO = 2.7629208037533617e-08;
+
+    /** 64*log2(10) */
+    private static final double LOG2_10_64 = 64 * 3.321928094887362;
+
+    /** mask for the upper 26 bits of the mantissa */
+    private static final long SPLIT_MASK = 0xFFFFFFFFF8000000L;
+
+    /** exp2 and exp10 are calculated with the tables up to this |log2| of the result, beyond it the result is not normal */
+    private static final double EXP2_FAST_MAX = 1020;
+    private static final double EXP10_FAST_MAX = 307;
+
+    /**
+     * cot(x) = 1/tan(x) with an error of at most 2 ulps
+     */
+    public static double cot(double x) {
+        return 1 / Math.tan(x);
+    }
+
+    /**
+     * sec(x) with an error of at most 2 ulps, FloatMathExt.sec
+     */
+    public static double sec(double x) {
+        return FloatMathExt.sec(x);
+    }
+
+    /**
+     * csc(x) with an error of at most 2 ulps, FloatMathExt.csc
+     */
+    public static double csc(double x) {
+        return FloatMathExt.csc(x);
+    }
+
+    /**
+     * asinh(x) with an error of at most 2 ulps
+     *
+     * asinh(x) = log(|x| + sqrt(x^2 + 1)), which is calculated as log1p(|x| + x^2/(1 + sqrt(1 + x^2)))
+     * for |x| &lt;= 2 to avoid the cancellation of FloatMathExt.asinh near 0.
+     */
+    public static double asinh(double x) {
+        double a = Math.abs(x);
+        double r;
+        if (a > 0x1p28) {
+            r = log(a) + FloatMathExt.LOG_2;
+        } else if (a > 2) {
+            r = log(2 * a + 1 / (Math.sqrt(a * a + 1) + a));
+        } else {
+            double t = a * a;
+            r = log1p(a + t / (1 + Math.sqrt(1 + t)));
+        }
+        return Math.copySign(r, x);
+    }
+
+    /**
+     * acosh(x) with an error of at most 3 ulps, NaN for x &lt; 1
+     */
+    public static double acosh(double x) {
+        if (!(x >= 1)) {
+            return Double.NaN;
+        } else if (x > 0x1p28) {
+            return log(x) + FloatMathExt.LOG_2;
+        } else if (x > 2) {
+            return log(2 * x - 1 / (x + Math.sqrt(x * x - 1)));
+        } else {
+            double t = x - 1;
+            return log1p(t + Math.sqrt(2 * t + t * t));
+        }
+    }
+
+    /**
+     * atanh(x) with an error of at most 2 ulps, NaN for |x| &gt;= 1 like FloatMathExt.atanh
+     *
+     * atanh(x) = log1p(2x/(1-x))/2, where 1 - |x| and the quotient are calculated with their exact rounding errors,
+     * which are added to the reduced argument of log like the rounding error of 1 + u in log1p.
+     */
+    public static double atanh(double x) {
+        double a = Math.abs(x);
+        if (!(a < 1)) {
+            return Double.NaN;
+        }
+        double t = a + a;
+        // 1 - a = dh + dl exactly, and t - u*dh is exact by Sterbenz' lemma, so u + eu = t/(1 - a) to about 2^-104
+        double dh = 1 - a;
+        double dl = (1 - dh) - a;
+        double u = t / dh;
+        double p = u * dh;
+        double eu = (((t - p) - productError(u, dh, p)) - u * dl) / dh;
+        double v = 1 + u;
+        double e = ((u > 1) ? (u - v) + 1 : (1 - v) + u) + eu;
+        return Math.copySign(0.5 * log(v, e), x);
+    }
+
+    /**
+     * log2(x) with an error of at most 2 ulps, exact for powers of 2, FloatMathExt.log2
+     */
+    public static double log2(double x) {
+        return FloatMathExt.log2(x);
+    }
+
+    /**
+     * 2^x with an error of at most 2 ulps, exact for integers
+     */
+    public static double exp2(double x) {
+        if (!(Math.abs(x) <= EXP2_FAST_MAX)) {
+            return FloatMathExt.exp2(x);
+        }
+        // x = k/64 + f with |f| <= 1/128, all exact
+        double fk = Math.rint(x * 64);
+        double f = x - fk / 64;
+        return scaledExp((long) fk, f * FloatMathExt.LOG_2);
+    }
+
+    /**
+     * 10^x with an error of at most 2 ulps
+     *
+     * x*log(10) is split into the integer multiple k of log(2)/64 and the remainder r with about 80 bits,
+     * so that the result is 2^(k/64) * exp(r).
+     */
+    public static double exp10(double x) {
+        if (!(Math.abs(x) <= EXP10_FAST_MAX)) {
+            return FloatMathExt.exp10(x);
+        }
+        double fk = Math.rint(x * LOG2_10_64);
+        // xh*LN10_HI, xl*LN10_HI and fk*LN2_HI/64 are exact, their difference by Sterbenz' lemma
+        double xh = Double.longBitsToDouble(Double.doubleToRawLongBits(x) & SPLIT_MASK);
+        double xl = x - xh;
+        double r = ((xh * LN10_HI - fk * (LN2_HI / 64)) + xl * LN10_HI) + (x * LN10_LO - fk * (LN2_LO / 64));
+        return scaledExp((long) fk, r);
+    }
+
+    /** log(x) with a table of c and the polynomial for log(x/c) */
+    private static double log(double x) {
+        return log(x, 0.0);
+    }
+
+    /** log(x + e) for |e| &lt;= ulp(x)/2, with e added to the reduced argument x/c - 1, where it is not lost */
+    private static double log(double x, double e) {
+        if (!(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) {
+            return Math.log(x);
+        }
+        long bits = Double.doubleToRawLongBits(x);
+        // x = m * 2^k with 0.75 <= m < 1.5
+        long t = bits - BITS_0_75;
+        long k = t >> 52;
+        double m = Double.longBitsToDouble(bits - (k << 52));
+        int j = (int) ((m - 0.75) * 128 + 0.5);
+        // m - c is exact by Sterbenz' lemma, e * 2^-k as well
+        double r = ((m - (0.75 + j / 128.0)) + Math.scalb(e, (int) -k)) * INV_C[j];
+        double p = log1pPolynomial(r);
+        return (k * LN2_HI + LOG_C[j]) + (p + k * LN2_LO);
+    }
+
+    /** log(1 + u) for u &gt;= 0, with the exact rounding error of 1 + u (Fast2Sum) added to the reduced argument */
+    private static double log1p(double u) {
+        double v = 1 + u;
+        double e = (u > 1) ? (u - v) + 1 : (1 - v) + u;
+        return log(v, e);
+    }
+
+    /** x*y - p for p = x*y rounded (Dekker), with an error below 2^-104 of p unless x*y is tiny */
+    private static double productError(double x, double y, double p) {
+        double xh = Double.longBitsToDouble(Double.doubleToRawLongBits(x) & SPLIT_MASK);
+        double xl = x - xh;
+        double yh = Double.longBitsToDouble(Double.doubleToRawLongBits(y) & SPLIT_MASK);
+        double yl = y - yh;
+        return ((xh * yh - p) + xh * yl + xl * yh) + xl * yl;
+    }
+
+    /** log(1 + r) for |r| &lt;= 1/192, Taylor polynomial of degree 7 */
+    private static double log1pPolynomial(double r) {
+        double r2 = r * r;
+        return r + r2 * (-0.5 + r * (1.0 / 3 + r * (-0.25 + r * (0.2 + r * (-1.0 / 6 + r * (1.0 / 7))))));
+    }
+
+    /** 2^(k/64) * exp(r) for |r| &lt;= log(2)/128 and k/64 in [-1021, 1021] */
+    private static double scaledExp(long k, double r) {
+        double p = r + r * r * (0.5 + r * (1.0 / 6 + r * (1.0 / 24 + r * (1.0 / 120 + r * (1.0 / 720)))));
+        double t = EXP2_TABLE[(int) (k & 63)];
+        double scale = Double.longBitsToDouble(((k >> 6) + 1023) << 52);
+        return (t + t * p) * scale;
+    }
+
+    /*
+     * Bulk versions, f(in, off, len, out) and f(arr, off, len) in place like in FloatMathExt.
+     *
+     * If the Vector API is available, they use SIMD instructions: sec, csc, log2 and exp2 the kernels of FloatMathExt,
+     * cot as 1/tan, asinh, acosh and atanh with the same formulas as the scalar functions but with the log1p of the
+     * Vector API, and exp10 as pow(10, x). Each of these adds a rounding or two to a lane operation within 1 ulp
+     * (SVML), so like the kernels of FloatMathExt they are within 4 ulps, not within the bounds of the scalar
+     * functions. Without the Vector API they give the results of the scalar functions.
+     */
+
+    /** cot of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cot(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.fastCot(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cot(in[i]);
+        }
+    }
+
+    /** cot of arr[off..off+len-1] in place */
+    public static void cot(double[] arr, int off, int len) {
+        cot(arr, off, len, arr);
+    }
+
+    /** sec of in[off..off+len-1] into out[off..off+len-1] */
+    public static void sec(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.sec(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = sec(in[i]);
+        }
+    }
+
+    /** sec of arr[off..off+len-1] in place */
+    public static void sec(double[] arr, int off, int len) {
+        sec(arr, off, len, arr);
+    }
+
+    /** csc of in[off..off+len-1] into out[off..off+len-1] */
+    public static void csc(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.csc(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = csc(in[i]);
+        }
+    }
+
+    /** csc of arr[off..off+len-1] in place */
+    public static void csc(double[] arr, int off, int len) {
+        csc(arr, off, len, arr);
+    }
+
+    /** asinh of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asinh(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.fastAsinh(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asinh(in[i]);
+        }
+    }
+
+    /** asinh of arr[off..off+len-1] in place */
+    public static void asinh(double[] arr, int off, int len) {
+        asinh(arr, off, len, arr);
+    }
+
+    /** acosh of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acosh(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.fastAcosh(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acosh(in[i]);
+        }
+    }
+
+    /** acosh of arr[off..off+len-1] in place */
+    public static void acosh(double[] arr, int off, int len) {
+        acosh(arr, off, len, arr);
+    }
+
+    /** atanh of in[off..off+len-1] into out[off..off+len-1] */
+    public static void atanh(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.fastAtanh(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = atanh(in[i]);
+        }
+    }
+
+    /** atanh of arr[off..off+len-1] in place */
+    public static void atanh(double[] arr, int off, int len) {
+        atanh(arr, off, len, arr);
+    }
+
+    /** log2 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void log2(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.log2(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = log2(in[i]);
+        }
+    }
+
+    /** log2 of arr[off..off+len-1] in place */
+    public static void log2(double[] arr, int off, int len) {
+        log2(arr, off, len, arr);
+    }
+
+    /** exp2 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void exp2(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.exp2(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = exp2(in[i]);
+        }
+    }
+
+    /** exp2 of arr[off..off+len-1] in place */
+    public static void exp2(double[] arr, int off, int len) {
+        exp2(arr, off, len, arr);
+    }
+
+    /** exp10 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void exp10(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.fastExp10(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = exp10(in[i]);
+        }
+    }
+
+    /** exp10 of arr[off..off+len-1] in place */
+    public static void exp10(double[] arr, int off, int len) {
+        exp10(arr, off, len, arr);
+    }
+}
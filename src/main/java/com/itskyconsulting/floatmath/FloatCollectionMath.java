@@ -11,6 +11,8 @@ package com.itskyconsulting.floatmath;
 
 import java.util.Collection;
 import java.util.SortedSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Floating point functions that work on collections or arrays
@@ -157,17 +159,20 @@ public class FloatCollectionMath {
         }
     }
 
+    /**
+     * sum with compensation (Kahan summation)
+     *
+     * Once the sum is infinite it stays infinite (or becomes NaN for Infinity-Infinity) without compensation,
+     * because the correction would become NaN.
+     */
     public static double sum(double ... arr) {
         double sum = 0.0;
         double correction = 0.0;
         for (double x : arr) {
-            if (Double.isInfinite(x)) {
-                if (x == -sum) {
-                    return Double.NaN;
-                } else {
-                    sum = x;
-                    continue;
-                }
+            if (Double.isInfinite(x) || Double.isInfinite(sum)) {
+                sum += x;
+                correction = 0.0;
+                continue;
             }
 
             double y = x - correction;
@@ -179,6 +184,194 @@ public class FloatCollectionMath {
     }
 
 
+    /** arrays with at most this many elements are summed sequentially by parallelSum */
+    static final int PARALLEL_SUM_THRESHOLD = 1 << 16;
+
+    /**
+     * sum with compensation, calculated in parallel in the common ForkJoinPool
+     *
+     * Each part of the array is summed like in sum, the partial sums are merged without losing their corrections.
+     * The accuracy is the same as for sum, but the result is not necessarily bit-identical, because the order of
+     * the additions is different. Small arrays are summed sequentially and give exactly the result of sum.
+     */
+    public static double parallelSum(double ... arr) {
+        if (arr.length <= PARALLEL_SUM_THRESHOLD) {
+            return sum(arr);
+        }
+        return ForkJoinPool.commonPool().invoke(new SumTask(arr, 0, arr.length)).sum;
+    }
+
+    /** compensated sum of arr[from..to-1], split in halves until the parts are small enough */
+    private static final class SumTask extends RecursiveTask<CompensatedSum> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] arr;
+        private final int from;
+        private final int to;
+
+        SumTask(double[] arr, int from, int to) {
+            this.arr = arr;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CompensatedSum compute() {
+            if (to - from <= PARALLEL_SUM_THRESHOLD) {
+                CompensatedSum result = new CompensatedSum();
+                result.add(arr, from, to);
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(arr, from, mid);
+            left.fork();
+            CompensatedSum result = new SumTask(arr, mid, to).compute();
+            CompensatedSum leftResult = left.join();
+            leftResult.add(result);
+            return leftResult;
+        }
+    }
+
+    /**
+     * sum that is bitwise reproducible, see ReproducibleSum
+     *
+     * The result does not depend on the order of the elements and is the same as for parallelReproducibleSum.
+     */
+    public static double reproducibleSum(double ... arr) {
+        ReproducibleSum result = new ReproducibleSum();
+        result.acceptAll(arr);
+        return result.sum();
+    }
+
+    /**
+     * sum that is bitwise reproducible, calculated in parallel in the common ForkJoinPool
+     *
+     * The result is identical to reproducibleSum, whatever the number of threads and the way the work is split.
+     */
+    public static double parallelReproducibleSum(double ... arr) {
+        if (arr.length <= PARALLEL_SUM_THRESHOLD) {
+            return reproducibleSum(arr);
+        }
+        return ForkJoinPool.commonPool().invoke(new ReproducibleSumTask(arr, 0, arr.length)).sum();
+    }
+
+    /** reproducible sum of arr[from..to-1], split in halves until the parts are small enough */
+    private static final class ReproducibleSumTask extends RecursiveTask<ReproducibleSum> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] arr;
+        private final int from;
+        private final int to;
+
+        ReproducibleSumTask(double[] arr, int from, int to) {
+            this.arr = arr;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReproducibleSum compute() {
+            if (to - from <= PARALLEL_SUM_THRESHOLD) {
+                ReproducibleSum result = new ReproducibleSum();
+                result.acceptAll(arr, from, to - from);
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            ReproducibleSumTask left = new ReproducibleSumTask(arr, from, mid);
+            left.fork();
+            ReproducibleSum result = new ReproducibleSumTask(arr, mid, to).compute();
+            ReproducibleSum leftResult = left.join();
+            leftResult.combine(result);
+            return leftResult;
+        }
+    }
+
+    /**
+     * exact sum rounded once to the nearest double, see ExactSum
+     *
+     * The result does not depend on the order of the elements and is the same as for parallelExactSum.
+     *
+     * Most sums are not ill-conditioned, so they are first calculated like in sum, but with the exact rounding errors
+     * of the additions (TwoSum), which are summed separately (Sum2 of Ogita, Rump and Oishi), and the sum of the
+     * absolute values. This differs from the exact sum by at most ((n-1)u)^2 times the sum of the absolute values
+     * (u = 2^-53), so if the result is further than that from the middle between two doubles, it is the correctly
+     * rounded sum. Only otherwise, and for infinite or NaN values, the array is summed again with ExactSum.
+     */
+    public static double exactSum(double ... arr) {
+        double sum = 0.0;
+        double errors = 0.0;
+        double absSum = 0.0;
+        for (double x : arr) {
+            double t = sum + x;
+            double bb = t - sum;
+            errors += (sum - (t - bb)) + (x - bb);
+            sum = t;
+            absSum += Math.abs(x);
+        }
+        double result = sum + errors;
+        if (Double.isFinite(absSum) && Double.isFinite(result) && result != 0.0) {
+            double bb = result - sum;
+            double residual = (sum - (result - bb)) + (errors - bb);
+            double n = arr.length;
+            // twice the bound, which also covers the rounding of absSum and of this calculation
+            double bound = 2 * (n * 0x1p-53) * (n * 0x1p-53) * absSum + Double.MIN_NORMAL;
+            double abs = Math.abs(result);
+            double halfGap = (abs - Math.nextDown(abs)) / 2;
+            if (Math.abs(residual) + bound < halfGap) {
+                return result;
+            }
+        }
+        ExactSum exact = new ExactSum();
+        exact.acceptAll(arr);
+        return exact.sum();
+    }
+
+    /**
+     * exact sum rounded once to the nearest double, calculated in parallel in the common ForkJoinPool
+     *
+     * The result is identical to exactSum, whatever the number of threads and the way the work is split.
+     */
+    public static double parallelExactSum(double ... arr) {
+        if (arr.length <= PARALLEL_SUM_THRESHOLD) {
+            return exactSum(arr);
+        }
+        return ForkJoinPool.commonPool().invoke(new ExactSumTask(arr, 0, arr.length)).sum();
+    }
+
+    /** exact sum of arr[from..to-1], split in halves until the parts are small enough */
+    private static final class ExactSumTask extends RecursiveTask<ExactSum> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] arr;
+        private final int from;
+        private final int to;
+
+        ExactSumTask(double[] arr, int from, int to) {
+            this.arr = arr;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ExactSum compute() {
+            if (to - from <= PARALLEL_SUM_THRESHOLD) {
+                ExactSum result = new ExactSum();
+                result.acceptAll(arr, from, to - from);
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            ExactSumTask left = new ExactSumTask(arr, from, mid);
+            left.fork();
+            ExactSum result = new ExactSumTask(arr, mid, to).compute();
+            ExactSum leftResult = left.join();
+            leftResult.combine(result);
+            return leftResult;
+        }
+    }
+
     /** average (arithmetic mean) */
     public static double arithmeticMean(double ... arr) {
         int n = arr.length;
@@ -189,85 +382,210 @@ public class FloatCollectionMath {
         }
     }
 
+    /**
+     * product
+     *
+     * The exponent is tracked separately, see ProductAccumulator, so the result is only infinite or zero
+     * if the product itself is out of range, not if a partial product is.
+     * A subnormal result is rounded twice, so it can be an ulp away from the result of multiplying one by one.
+     */
     public static double prod(double ... arr) {
-        double prod = 1.0;
-        for (double x : arr) {
-            prod *= x;
-        }
-        return prod;
+        ProductAccumulator prod = new ProductAccumulator();
+        prod.acceptAll(arr);
+        return prod.getProduct();
     }
 
-    /** geometric mean */
+    /**
+     * geometric mean
+     *
+     * calculated with ProductAccumulator, so it does not overflow or underflow for many values.
+     * A negative product gives NaN, except for three values, where the result is negative like cbrt.
+     * This is also the case if the product is -infinity, where Math.pow(prod, 1.0/n) would give +infinity.
+     */
     public static double geometricMean(double ... arr) {
+        ProductAccumulator prod = new ProductAccumulator();
+        prod.acceptAll(arr);
+        return prod.getGeometricMean();
+    }
+
+    /**
+     * harmonic mean
+     *
+     * calculated in one pass with CompensatedSum like sum, without a temporary array
+     */
+    public static double harmonicMean(double ... arr) {
         int n = arr.length;
         if (n == 0) {
             return Double.NaN;
         } else if (n == 1) {
             return arr[0];
         } else {
-            double prod = prod(arr);
-            if (n == 2) {
-                return Math.sqrt(prod);
-            } else if (n == 3) {
-                return Math.cbrt(prod);
-            } else {
-                return Math.pow(prod, 1.0/n);
+            CompensatedSum sum = new CompensatedSum();
+            for (double x : arr) {
+                sum.add(1/x);
             }
+            return 1/(sum.sum/n);
         }
     }
 
-    /** harmonic mean */
-    public static double harmonicMean(double ... arr) {
+    /**
+     * quadratic mean
+     *
+     * calculated in one pass with CompensatedSum like sum, without a temporary array
+     */
+    public static double quadraticMean(double ... arr) {
         int n = arr.length;
         if (n == 0) {
             return Double.NaN;
         } else if (n == 1) {
             return arr[0];
         } else {
-            double[] recarr = new double[n];
-            for (int i = 0; i < n; i++) {
-                recarr[i] = 1/arr[i];
+            CompensatedSum sum = new CompensatedSum();
+            for (double x : arr) {
+                sum.add(FloatMathExt.square(x));
             }
-            double recmean = arithmeticMean(recarr);
-            return 1/recmean;
+            return Math.sqrt(sum.sum/n);
         }
     }
 
-    /** quadratic mean */
-    public static double quadraticMean(double ... arr) {
+    /**
+     * cubic mean
+     *
+     * calculated in one pass with CompensatedSum like sum, without a temporary array
+     */
+    public static double cubicMean(double ... arr) {
         int n = arr.length;
         if (n == 0) {
             return Double.NaN;
         } else if (n == 1) {
             return arr[0];
         } else {
-            double[] sqrarr = new double[n];
-            for (int i = 0; i < n; i++) {
-                sqrarr[i] = FloatMathExt.square(arr[i]);
+            CompensatedSum sum = new CompensatedSum();
+            for (double x : arr) {
+                sum.add(FloatMathExt.cube(x));
             }
-            double sqrmean = arithmeticMean(sqrarr);
-            return Math.sqrt(sqrmean);
+            return Math.cbrt(sum.sum/n);
         }
     }
 
-    /** cubic mean */
-    public static double cubicMean(double ... arr) {
+    /**
+     * sample variance, NaN for less than two values
+     *
+     * calculated in one pass with MomentsAccumulator, which does not cancel for a large mean
+     */
+    public static double variance(double ... arr) {
+        MomentsAccumulator moments = new MomentsAccumulator();
+        moments.acceptAll(arr);
+        return moments.getVariance();
+    }
+
+    /** sample standard deviation, NaN for less than two values */
+    public static double standardDeviation(double ... arr) {
+        return Math.sqrt(variance(arr));
+    }
+
+    /*
+     * float[] versions, for data that is stored as float.
+     *
+     * The sums and products are accumulated in double and returned as double, so they are as accurate as
+     * the double versions for the same values. There are no varargs versions, because calls with float
+     * arguments already work with the double versions.
+     */
+
+    /** min of a float array */
+    public static float min(float[] arr) {
+        float result = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < arr.length; i++) {
+            result = Math.min(result, arr[i]);
+        }
+        return result;
+    }
+
+    /** max of a float array */
+    public static float max(float[] arr) {
+        if (arr.length == 0) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        float result = arr[0];
+        for (int i = 1; i < arr.length; i++) {
+            result = Math.max(result, arr[i]);
+        }
+        return result;
+    }
+
+    /** sum of a float array with compensation in double */
+    public static double sum(float[] arr) {
+        CompensatedSum sum = new CompensatedSum();
+        for (float x : arr) {
+            sum.add(x);
+        }
+        return sum.sum;
+    }
+
+    /** average (arithmetic mean) of a float array */
+    public static double arithmeticMean(float[] arr) {
+        int n = arr.length;
+        if (n == 0) {
+            return Double.NaN;
+        } else {
+            return sum(arr)/n;
+        }
+    }
+
+    /** geometric mean of a float array */
+    public static double geometricMean(float[] arr) {
+        ProductAccumulator prod = new ProductAccumulator();
+        for (float x : arr) {
+            prod.accept(x);
+        }
+        return prod.getGeometricMean();
+    }
+
+    /** harmonic mean of a float array */
+    public static double harmonicMean(float[] arr) {
         int n = arr.length;
         if (n == 0) {
             return Double.NaN;
         } else if (n == 1) {
             return arr[0];
         } else {
-            double[] cubarr = new double[n];
-            for (int i = 0; i < n; i++) {
-                cubarr[i] = FloatMathExt.cube(arr[i]);
+            CompensatedSum sum = new CompensatedSum();
+            for (float x : arr) {
+                sum.add(1/(double) x);
             }
-            double cubmean = arithmeticMean(cubarr);
-            return Math.cbrt(cubmean);
+            return 1/(sum.sum/n);
         }
     }
 
+    /** quadratic mean of a float array */
+    public static double quadraticMean(float[] arr) {
+        int n = arr.length;
+        if (n == 0) {
+            return Double.NaN;
+        } else if (n == 1) {
+            return arr[0];
+        } else {
+            CompensatedSum sum = new CompensatedSum();
+            for (float x : arr) {
+                sum.add(FloatMathExt.square((double) x));
+            }
+            return Math.sqrt(sum.sum/n);
+        }
+    }
 
-
-
+    /** cubic mean of a float array */
+    public static double cubicMean(float[] arr) {
+        int n = arr.length;
+        if (n == 0) {
+            return Double.NaN;
+        } else if (n == 1) {
+            return arr[0];
+        } else {
+            CompensatedSum sum = new CompensatedSum();
+            for (float x : arr) {
+                sum.add(FloatMathExt.cube((double) x));
+            }
+            return Math.cbrt(sum.sum/n);
+        }
+    }
 }
@@ -0,0 +1,542 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * The functions of FloatMathExt with one argument as constants, for choosing a function at runtime,
+ * for example FloatFunction.valueOf("SECH") from a configuration.
+ *
+ * Each constant is a class of its own, which calls its FloatMathExt function directly, also in its bulk
+ * version applyAll, so the loop over the array is inside the constant and its call of the function is
+ * monomorphic and inlined, however many different functions are used. Passing method references like
+ * FloatMathExt::sech instead makes the call site in a shared loop megamorphic, so it is not inlined.
+ *
+ * parallelApplyAll distributes the bulk version over the threads of a ForkJoinPool for huge arrays.
+ */
+public enum FloatFunction implements DoubleUnaryOperator {
+
+    /** FloatMathExt.cot */
+    COT {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.cot(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.cot(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.sec */
+    SEC {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.sec(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.sec(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.csc */
+    CSC {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.csc(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.csc(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.acot */
+    ACOT {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.acot(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.acot(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.asec */
+    ASEC {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.asec(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.asec(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.acsc */
+    ACSC {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.acsc(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.acsc(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.sind */
+    SIND {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.sind(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.sind(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.cosd */
+    COSD {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.cosd(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.cosd(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.tand */
+    TAND {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.tand(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.tand(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.cotd */
+    COTD {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.cotd(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.cotd(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.secd */
+    SECD {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.secd(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.secd(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.cscd */
+    CSCD {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.cscd(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.cscd(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.asind */
+    ASIND {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.asind(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.asind(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.acosd */
+    ACOSD {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.acosd(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.acosd(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.atand */
+    ATAND {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.atand(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.atand(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.acotd */
+    ACOTD {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.acotd(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.acotd(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.asecd */
+    ASECD {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.asecd(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.asecd(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.acscd */
+    ACSCD {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.acscd(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.acscd(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.coth */
+    COTH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.coth(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.coth(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.sech */
+    SECH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.sech(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.sech(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.csch */
+    CSCH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.csch(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.csch(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.asinh */
+    ASINH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.asinh(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.asinh(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.acosh */
+    ACOSH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.acosh(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.acosh(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.atanh */
+    ATANH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.atanh(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.atanh(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.acoth */
+    ACOTH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.acoth(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.acoth(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.asech */
+    ASECH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.asech(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.asech(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.acsch */
+    ACSCH {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.acsch(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.acsch(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.log2 */
+    LOG2 {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.log2(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.log2(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.exp10 */
+    EXP10 {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.exp10(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.exp10(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.exp2 */
+    EXP2 {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.exp2(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.exp2(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.square */
+    SQUARE {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.square(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.square(in, off, len, out);
+        }
+    },
+
+    /** FloatMathExt.cube */
+    CUBE {
+        @Override
+        public double applyAsDouble(double x) {
+            return FloatMathExt.cube(x);
+        }
+
+        @Override
+        public void applyAll(double[] in, int off, int len, double[] out) {
+            FloatMathExt.cube(in, off, len, out);
+        }
+    };
+
+    /**
+     * the function of in[off..off+len-1] into out[off..off+len-1], like the bulk versions of FloatMathExt
+     * @throws IndexOutOfBoundsException if the range does not fit into in or out
+     */
+    public abstract void applyAll(double[] in, int off, int len, double[] out);
+
+    /**
+     * the function of all elements of in into out
+     * @throws IndexOutOfBoundsException if out is shorter than in
+     */
+    public void applyAll(double[] in, double[] out) {
+        applyAll(in, 0, in.length, out);
+    }
+
+    /** the function of arr[off..off+len-1] in place */
+    public void applyAll(double[] arr, int off, int len) {
+        applyAll(arr, off, len, arr);
+    }
+
+    /** elements per block of parallelApplyAll, 64 KB of arguments and 64 KB of results fit into the L2 cache */
+    static final int PARALLEL_BLOCK = 1 << 13;
+
+    /** parallelApplyAll works sequentially if the estimated time is shorter than this, about 20 task submissions */
+    static final long PARALLEL_MIN_NANOS = 100_000;
+
+    /**
+     * the function of in[off..off+len-1] into out[off..off+len-1], in parallel in the common ForkJoinPool
+     * @see #parallelApplyAll(double[], int, int, double[], ForkJoinPool)
+     */
+    public void parallelApplyAll(double[] in, int off, int len, double[] out) {
+        parallelApplyAll(in, off, len, out, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * the function of in[off..off+len-1] into out[off..off+len-1], in parallel in pool
+     *
+     * The results are the same as those of applyAll, unless the SIMD kernels are used, which can differ between
+     * interpreted and compiled code: then they are within 4 ulps of the scalar function, the bound of the kernels,
+     * like those of applyAll. in and out may be the same array.
+     * The first block of PARALLEL_BLOCK elements is calculated in the calling thread and timed. If the rest would take
+     * less than PARALLEL_MIN_NANOS, it is calculated sequentially as well, so the threshold adapts to the cost of the
+     * function and of the machine: it is the minimum of 2 blocks for acotd and about a million elements for square.
+     * Otherwise the rest is split into parts of whole blocks, about four per thread of the pool.
+     * @throws IndexOutOfBoundsException if the range does not fit into in or out
+     */
+    public void parallelApplyAll(double[] in, int off, int len, double[] out, ForkJoinPool pool) {
+        FloatMathExt.checkRange(in, off, len, out);
+        int parallelism = pool.getParallelism();
+        if (parallelism <= 1 || len <= 2 * PARALLEL_BLOCK) {
+            applyAll(in, off, len, out);
+            return;
+        }
+        long start = System.nanoTime();
+        applyAll(in, off, PARALLEL_BLOCK, out);
+        long nanos = System.nanoTime() - start;
+        int from = off + PARALLEL_BLOCK;
+        int rest = len - PARALLEL_BLOCK;
+        if (nanos * (rest / PARALLEL_BLOCK) < PARALLEL_MIN_NANOS) {
+            applyAll(in, from, rest, out);
+            return;
+        }
+        int blocks = (rest + PARALLEL_BLOCK - 1) / PARALLEL_BLOCK;
+        int leafBlocks = Math.max(1, blocks / (4 * parallelism));
+        pool.invoke(new ApplyTask(this, in, from, from + rest, out, leafBlocks * PARALLEL_BLOCK));
+    }
+
+    /** f of in[from..to-1] into out[from..to-1], split at block boundaries until the parts are small enough */
+    private static final class ApplyTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FloatFunction f;
+        private final double[] in;
+        private final int from;
+        private final int to;
+        private final double[] out;
+        private final int leafSize;
+
+        ApplyTask(FloatFunction f, double[] in, int from, int to, double[] out, int leafSize) {
+            this.f = f;
+            this.in = in;
+            this.from = from;
+            this.to = to;
+            this.out = out;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                f.applyAll(in, from, to - from, out);
+                return;
+            }
+            int mid = from + Math.max(1, (to - from) / 2 / PARALLEL_BLOCK) * PARALLEL_BLOCK;
+            invokeAll(new ApplyTask(f, in, from, mid, out, leafSize), new ApplyTask(f, in, mid, to, out, leafSize));
+        }
+    }
+}
@@ -69,40 +69,438 @@ public class FloatMathExt {
     }
 
 
+    /*
+     * The trigonometric functions with degrees reduce the argument exactly in degrees, instead of converting
+     * it to radians first, which is not exact.
+     * For |x| < 2^52 the angle is x = 90*n + r with n = rint(x/90) and |r| <= 45, where 90*n and r are exact,
+     * because 90 has only 7 significant bits. Larger doubles are integers, which are reduced modulo 360 with long
+     * arithmetic on the mantissa first (reduceDegrees). Both take a few operations, unlike x % 360, which loops over
+     * the exponent, and the reduction in radians of Math.sin. So multiples of 90 give exact results like cosd(90) == 0.
+     * Only |r| in [0, 45] is converted to radians, where the polynomials of sincos (kernelSin and kernelCos) need
+     * no further reduction, so they are used instead of Math.sin and Math.cos. tand and cotd divide them.
+     * The table values for 0, 30 and 45 degrees are returned directly, so for example sind(30) == 0.5.
+     */
+
+    /** sqrt(3)/2 = sin(60 degrees) = cos(30 degrees) */
+    private static final double SQRT_3_HALF = Math.sqrt(3)/2;
+
+    /** sqrt(1/2) = sin(45 degrees) = cos(45 degrees) */
+    private static final double SQRT_HALF = Math.sqrt(0.5);
+
+    /** sqrt(3)/3 = tan(30 degrees) */
+    private static final double SQRT_3_THIRD = Math.sqrt(3)/3;
+
+    /** sqrt(3) = tan(60 degrees) */
+    private static final double SQRT_3 = Math.sqrt(3);
+
+    /** sin of t degrees for 0 <= t <= 45 */
+    private static double sindOctant(double t) {
+        if (t == 0) {
+            return 0.0;
+        } else if (t == 30) {
+            return 0.5;
+        } else if (t == 45) {
+            return SQRT_HALF;
+        }
+        return kernelSin(toRadians(t), 0.0, false);
+    }
+
+    /** cos of t degrees for 0 <= t <= 45 */
+    private static double cosdOctant(double t) {
+        if (t == 0) {
+            return 1.0;
+        } else if (t == 30) {
+            return SQRT_3_HALF;
+        } else if (t == 45) {
+            return SQRT_HALF;
+        }
+        return kernelCos(toRadians(t), 0.0);
+    }
+
+    /** tan of t degrees for 0 <= t <= 45, or cot if cot is true */
+    private static double tandOctant(double t, boolean cot) {
+        if (t == 30) {
+            return cot ? SQRT_3 : SQRT_3_THIRD;
+        } else if (t == 45) {
+            return 1.0;
+        }
+        double x = toRadians(t);
+        double sin = kernelSin(x, 0.0, false);
+        double cos = kernelCos(x, 0.0);
+        return cot ? cos / sin : sin / cos;
+    }
+
+    /** 2^k mod 45 for k = 0..11, 2^12 mod 45 is 1 again */
+    private static final int[] POW2_MOD_45 = { 1, 2, 4, 8, 16, 32, 19, 38, 31, 17, 34, 23 };
+
+    /** 1/90, multiplying with it is faster than dividing by 90 */
+    private static final double INV_90 = 1.0 / 90;
+
+    /**
+     * a >= 0 modulo 360 if it is at least 2^52, otherwise a itself, NaN for infinity and NaN
+     *
+     * Doubles from 2^52 on are integers m*2^e with e >= 0, and 2^e mod 360 = 8*(2^(e-3) mod 45) for e >= 3.
+     */
+    private static double reduceDegrees(double a) {
+        if (a < 0x1p52) {
+            return a;
+        } else if (!(a < Double.POSITIVE_INFINITY)) {
+            return Double.NaN;
+        }
+        long bits = Double.doubleToRawLongBits(a);
+        long m = (bits & 0xFFFFFFFFFFFFFL) | (1L << 52);
+        int e = (int) (bits >>> 52) - 1075;
+        long pow2 = (e < 3) ? (1L << e) : 8 * POW2_MOD_45[(e - 3) % 12];
+        return (double) ((m % 360) * pow2 % 360);
+    }
+
+    /** n with a - 90*n in [-45, 45], for a from reduceDegrees */
+    private static double quadrant(double a) {
+        double n = Math.rint(a * INV_90);
+        // a * INV_90 can be on the other side of k + 1/2 than a/90
+        double r = a - 90 * n;
+        if (r > 45) {
+            n++;
+        } else if (r < -45) {
+            n--;
+        }
+        return n;
+    }
+
+    /*
+     * sind, cosd, tand and cotd fold x = 90*n + r into t = |r| in [0, 45] and set the sign bit of the result
+     * from the signs of x and r and from n with xor, which is faster than branches that are hard to predict.
+     */
+
+    private static final long SIGN_BIT = Long.MIN_VALUE;
+
+    /** result with the sign bit flipped if sign has it */
+    private static double flipSign(double result, long sign) {
+        return Double.longBitsToDouble(Double.doubleToRawLongBits(result) ^ (sign & SIGN_BIT));
+    }
+
     /** sin with degrees */
     public static double sind(double x) {
-        return Math.sin(toRadians(x));
+        if (x == 0) {
+            return x;
+        }
+        double a = reduceDegrees(Math.abs(x));
+        double n = quadrant(a);
+        double r = a - 90 * n;
+        long q = (long) n;
+        double t = Math.abs(r);
+        double result = ((q & 1) == 0) ? sindOctant(t) : cosdOctant(t);
+        // sin(-x) = -sin(x), sin(r + 180) = -sin(r), sin(-r) = -sin(r), cos(-r) = cos(r)
+        long sign = Double.doubleToRawLongBits(x) ^ (q << 62) ^ (Double.doubleToRawLongBits(r) & ~(q << 63));
+        // + 0.0 turns -0.0 for multiples of 180 into 0.0
+        return flipSign(result, sign) + 0.0;
     }
 
     /** cos with degrees */
     public static double cosd(double x) {
-        return Math.cos(toRadians(x));
+        double a = reduceDegrees(Math.abs(x));
+        double n = quadrant(a);
+        double r = a - 90 * n;
+        long q = (long) n;
+        double t = Math.abs(r);
+        double result = ((q & 1) == 0) ? cosdOctant(t) : sindOctant(t);
+        // cos(r + 180) = -cos(r), cos(r + 90) = -sin(r)
+        long sign = (q << 62) ^ (~Double.doubleToRawLongBits(r) & (q << 63));
+        return flipSign(result, sign) + 0.0;
     }
 
-    /** tan with degrees */
+    /** tan with degrees, tand(90) is Infinity */
     public static double tand(double x) {
-        return Math.tan(toRadians(x));
+        if (x == 0) {
+            return x;
+        }
+        double a = reduceDegrees(Math.abs(x));
+        double n = quadrant(a);
+        double r = a - 90 * n;
+        boolean odd = ((long) n & 1) != 0;
+        double t = Math.abs(r);
+        double result = tandOctant(t, odd);
+        // tan(-r) = -tan(r), tan(r + 90) = -cot(r), 0.0 - r is 0.0 for r = 0, so tand(90) is Infinity
+        long sign = Double.doubleToRawLongBits(x) ^ Double.doubleToRawLongBits(odd ? 0.0 - r : r);
+        return flipSign(result, sign) + 0.0;
     }
 
-    /** cot with degrees */
+    /** cot with degrees, cotd(0) is Infinity */
     public static double cotd(double x) {
-        if (x < 0) {
-            return tand(-90 - x);
-        } else {
-            return tand(90 - x);
+        if (x == 0) {
+            return 1/x;
         }
+        double a = reduceDegrees(Math.abs(x));
+        double n = quadrant(a);
+        double r = a - 90 * n;
+        boolean odd = ((long) n & 1) != 0;
+        double t = Math.abs(r);
+        double result = tandOctant(t, !odd);
+        // cot(-r) = -cot(r), cot(r + 90) = -tan(r), cotd(180) is Infinity
+        long sign = Double.doubleToRawLongBits(x) ^ Double.doubleToRawLongBits(odd ? 0.0 - r : r);
+        return flipSign(result, sign) + 0.0;
     }
 
     /** sec with degrees */
     public static double secd(double x) {
-        return sec(toRadians(x));
+        return 1/cosd(x);
     }
 
     /** csc with degrees */
     public static double cscd(double x) {
-        return csc(toRadians(x));
+        return 1/sind(x);
+    }
+
+    /*
+     * sin and cos together, with one argument reduction.
+     *
+     * sincos reduces x to r = x - n*pi/2 with |r| <= pi/4 like fdlibm (Cody-Waite with pi/2 split into parts
+     * of 33 bits), keeping r as hi + lo, and evaluates the polynomials of fdlibm's __kernel_sin and __kernel_cos
+     * on it, so the results are those of StrictMath.sin and StrictMath.cos. Like fdlibm it compares only the high
+     * word of |x| with pi/4 (and 0.3 and 0.78125 in kernelCos), so it does not reduce up to 0x3FE921FBFFFFFFFF.
+     * For |x| > 2^19*pi/2 StrictMath.sin and StrictMath.cos are used directly, so the results are those of StrictMath
+     * for all x.
+     * sincosd folds the angle exactly like sind and cosd and gives the same results.
+     *
+     * trig and trigd return all six functions; tan, cot, sec and csc are calculated from sin and cos,
+     * so they can differ from tan, cot, tand and cotd by an ulp and in the sign of Infinity at the poles.
+     */
+
+    /** index of sin in the results of sincos, sincosd, trig and trigd */
+    public static final int SIN = 0;
+
+    /** index of cos in the results of sincos, sincosd, trig and trigd */
+    public static final int COS = 1;
+
+    /** index of tan in the results of trig and trigd */
+    public static final int TAN = 2;
+
+    /** index of cot in the results of trig and trigd */
+    public static final int COT = 3;
+
+    /** index of sec in the results of trig and trigd */
+    public static final int SEC = 4;
+
+    /** index of csc in the results of trig and trigd */
+    public static final int CSC = 5;
+
+    /** 2/pi */
+    static final double INV_PIO2 = 6.36619772367581382433e-01;
+
+    /** first 33 bits of pi/2, and pi/2 - PIO2_1 */
+    static final double PIO2_1 = 1.57079632673412561417e+00;
+    static final double PIO2_1T = 6.07710050650619224932e-11;
+
+    /** second 33 bits of pi/2, and pi/2 - (PIO2_1 + PIO2_2) */
+    static final double PIO2_2 = 6.07710050630396597660e-11;
+    static final double PIO2_2T = 2.02226624879595063154e-21;
+
+    /** third 33 bits of pi/2, and pi/2 - (PIO2_1 + PIO2_2 + PIO2_3) */
+    static final double PIO2_3 = 2.02226624871116645580e-21;
+    static final double PIO2_3T = 8.47842766036889956997e-32;
+
+    /** high word of pi/4, up to which fdlibm evaluates the kernels without reduction */
+    private static final long PIO4_HIGH_WORD = 0x3FE921FBL;
+
+    /** up to this |x| the reduction with PIO2_1, PIO2_2, PIO2_3 is exact enough */
+    static final double MEDIUM = 0x1p19 * HALF_PI;
+
+    /** coefficients of __kernel_sin */
+    private static final double S1 = -1.66666666666666324348e-01;
+    private static final double S2 = 8.33333333332248946124e-03;
+    private static final double S3 = -1.98412698298579493134e-04;
+    private static final double S4 = 2.75573137070700676789e-06;
+    private static final double S5 = -2.50507602534068634195e-08;
+    private static final double S6 = 1.58969099521155010221e-10;
+
+    /** coefficients of __kernel_cos */
+    private static final double C1 = 4.16666666666666019037e-02;
+    private static final double C2 = -1.38888888888741095749e-03;
+    private static final double C3 = 2.48015872894767294178e-05;
+    private static final double C4 = -2.75573143513906633035e-07;
+    private static final double C5 = 2.08757232129817482790e-09;
+    private static final double C6 = -1.13596475577881948265e-11;
+
+    /** sin(x + y) for |x| <= pi/4 and |y| much smaller than ulp(x), like fdlibm's __kernel_sin, hasTail false means y = 0 */
+    static double kernelSin(double x, double y, boolean hasTail) {
+        if (Math.abs(x) < 0x1p-27) {
+            return x;
+        }
+        double z = x * x;
+        double v = z * x;
+        double r = S2 + z * (S3 + z * (S4 + z * (S5 + z * S6)));
+        if (!hasTail) {
+            return x + v * (S1 + z * r);
+        }
+        return x - ((z * (0.5 * y - v * r) - y) - v * S1);
+    }
+
+    /**
+     * cos(x + y) for |x| <= pi/4 and |y| much smaller than ulp(x), like fdlibm's __kernel_cos
+     *
+     * The thresholds compare the high word of |x| like fdlibm, so the results are those of StrictMath.cos also
+     * just above 0.3 and 0.78125.
+     */
+    static double kernelCos(double x, double y) {
+        double a = Math.abs(x);
+        if (a < 0x1p-27) {
+            return 1.0;
+        }
+        double z = x * x;
+        double r = z * (C1 + z * (C2 + z * (C3 + z * (C4 + z * (C5 + z * C6)))));
+        long ix = Double.doubleToRawLongBits(a) >>> 32;
+        if (ix < 0x3FD33333L) {
+            // |x| < 0.3
+            return 1.0 - (0.5 * z - (z * r - x * y));
+        }
+        // qx = x/4 rounded down to 21 bits, so that 1 - qx is exact
+        double qx = (ix > 0x3FE90000L) ? 0.28125 : Double.longBitsToDouble((ix - 0x00200000L) << 32);
+        double hz = 0.5 * z - qx;
+        return (1.0 - qx) - (hz - (z * r - x * y));
+    }
+
+    /** store sin(x) in result[off + SIN] and cos(x) in result[off + COS] */
+    private static void sincosInto(double x, double[] result, int off) {
+        double a = Math.abs(x);
+        if ((Double.doubleToRawLongBits(a) >>> 32) <= PIO4_HIGH_WORD) {
+            // |x| <= pi/4 in the high word like fdlibm, which does not reduce up to 0x3FE921FBFFFFFFFF
+            result[off + SIN] = kernelSin(x, 0.0, false);
+            result[off + COS] = kernelCos(x, 0.0);
+            return;
+        }
+        if (!(a <= MEDIUM)) {
+            // large, infinite or NaN
+            result[off + SIN] = StrictMath.sin(x);
+            result[off + COS] = StrictMath.cos(x);
+            return;
+        }
+        int n = (int) (a * INV_PIO2 + 0.5);
+        double fn = n;
+        double r = a - fn * PIO2_1;
+        double w = fn * PIO2_1T;
+        double hi = r - w;
+        int j = Math.getExponent(a);
+        if (j - Math.getExponent(hi) > 16) {
+            // cancellation, second iteration
+            double t = r;
+            w = fn * PIO2_2;
+            r = t - w;
+            w = fn * PIO2_2T - ((t - r) - w);
+            hi = r - w;
+            if (j - Math.getExponent(hi) > 49) {
+                // third iteration
+                t = r;
+                w = fn * PIO2_3;
+                r = t - w;
+                w = fn * PIO2_3T - ((t - r) - w);
+                hi = r - w;
+            }
+        }
+        double lo = (r - hi) - w;
+        double sr = kernelSin(hi, lo, true);
+        double cr = kernelCos(hi, lo);
+        double sin;
+        double cos;
+        switch (n & 3) {
+        case 0:
+            sin = sr;
+            cos = cr;
+            break;
+        case 1:
+            sin = cr;
+            cos = -sr;
+            break;
+        case 2:
+            sin = -sr;
+            cos = -cr;
+            break;
+        default:
+            sin = -cr;
+            cos = sr;
+            break;
+        }
+        result[off + SIN] = x < 0 ? -sin : sin;
+        result[off + COS] = cos;
+    }
+
+    /** store sind(x) in result[off + SIN] and cosd(x) in result[off + COS] */
+    private static void sincosdInto(double x, double[] result, int off) {
+        if (x == 0) {
+            result[off + SIN] = x;
+            result[off + COS] = 1.0;
+            return;
+        }
+        double a = reduceDegrees(Math.abs(x));
+        double n = quadrant(a);
+        double r = a - 90 * n;
+        int q = (int) ((long) n & 3);
+        double t = Math.abs(r);
+        double sb = sindOctant(t);
+        double cb = cosdOctant(t);
+        if (r < 0) {
+            sb = -sb;
+        }
+        double sin;
+        double cos;
+        switch (q) {
+        case 0:
+            sin = sb;
+            cos = cb;
+            break;
+        case 1:
+            sin = cb;
+            cos = -sb;
+            break;
+        case 2:
+            sin = -sb;
+            cos = -cb;
+            break;
+        default:
+            sin = -cb;
+            cos = sb;
+            break;
+        }
+        result[off + SIN] = (x < 0 ? -sin : sin) + 0.0;
+        result[off + COS] = cos + 0.0;
+    }
+
+    /** store tan, cot, sec and csc calculated from sin and cos in result[off + TAN..off + CSC] */
+    private static void reciprocalsInto(double[] result, int off) {
+        double sin = result[off + SIN];
+        double cos = result[off + COS];
+        result[off + TAN] = sin / cos;
+        result[off + COT] = cos / sin;
+        result[off + SEC] = 1 / cos;
+        result[off + CSC] = 1 / sin;
+    }
+
+    /** sin(x) and cos(x) into result[SIN] and result[COS], result needs at least 2 elements */
+    public static void sincos(double x, double[] result) {
+        sincosInto(x, result, 0);
+    }
+
+    /** sind(x) and cosd(x) into result[SIN] and result[COS], result needs at least 2 elements */
+    public static void sincosd(double x, double[] result) {
+        sincosdInto(x, result, 0);
+    }
+
+    /** sin, cos, tan, cot, sec and csc of x into result[SIN..CSC], result needs at least 6 elements */
+    public static void trig(double x, double[] result) {
+        if (result.length < 6) {
+            throw new IndexOutOfBoundsException("result needs 6 elements, length=" + result.length);
+        }
+        sincosInto(x, result, 0);
+        reciprocalsInto(result, 0);
     }
 
+    /** sin, cos, tan, cot, sec and csc of x degrees into result[SIN..CSC], result needs at least 6 elements */
+    public static void trigd(double x, double[] result) {
+        if (result.length < 6) {
+            throw new IndexOutOfBoundsException("result needs 6 elements, length=" + result.length);
+        }
+        sincosdInto(x, result, 0);
+        reciprocalsInto(result, 0);
+    }
 
     /** asin with degrees */
     public static double asind(double x) {
@@ -163,6 +561,94 @@ public class FloatMathExt {
         return 1/Math.sinh(x);
     }
 
+    /*
+     * sinh, cosh, tanh, coth, sech and csch together, from one exp or expm1.
+     *
+     * For |x| < 22 t = expm1(|x|) is calculated and sinh and tanh use the formulas of fdlibm with it:
+     * sinh = (t + t/(t+1))/2, cosh = 1 + t^2/(2*(t+1)) near 0 and ((t+1) + 1/(t+1))/2 otherwise,
+     * tanh = u/(u+2) with u = t*(t+2) = expm1(2|x|), so sinh and tanh keep full precision for small x.
+     * For |x| >= 22 tanh and coth are 1 and sinh and cosh are exp(|x|)/2, which is calculated as
+     * exp(|x|/2)^2/2 beyond the overflow of exp, so sech and csch are subnormal instead of 0 where they should be.
+     * coth, sech and csch are the reciprocals of tanh, cosh and sinh.
+     * sinh, cosh and tanh are within 4 ulps of Math.sinh, Math.cosh and Math.tanh.
+     */
+
+    /** index of sinh in the results of hyperbolic */
+    public static final int SINH = 0;
+
+    /** index of cosh in the results of hyperbolic */
+    public static final int COSH = 1;
+
+    /** index of tanh in the results of hyperbolic */
+    public static final int TANH = 2;
+
+    /** index of coth in the results of hyperbolic */
+    public static final int COTH = 3;
+
+    /** index of sech in the results of hyperbolic */
+    public static final int SECH = 4;
+
+    /** index of csch in the results of hyperbolic */
+    public static final int CSCH = 5;
+
+    /** largest argument of exp that does not overflow */
+    private static final double EXP_MAX = 7.09782712893383973096e+02;
+
+    /** store sinh, cosh, tanh, coth, sech and csch of x in result[off + SINH..off + CSCH] */
+    private static void hyperbolicInto(double x, double[] result, int off) {
+        double a = Math.abs(x);
+        double h = Math.copySign(0.5, x);
+        double sinh;
+        double cosh;
+        double tanh;
+        double sech;
+        if (a < 22) {
+            double t = Math.expm1(a);
+            double e = t + 1;
+            if (a < 1) {
+                sinh = h * (2 * t - t * t / e);
+            } else {
+                sinh = h * (t + t / e);
+            }
+            if (a < 0.5 * LOG_2) {
+                cosh = 1 + t * t / (e + e);
+            } else {
+                cosh = 0.5 * e + 0.5 / e;
+            }
+            double u = t * (t + 2);
+            tanh = (a < 1) ? u / (u + 2) : 1 - 2 / (u + 2);
+            tanh = Math.copySign(tanh, x);
+            sech = 1 / cosh;
+        } else if (a <= EXP_MAX) {
+            double e = Math.exp(a);
+            cosh = 0.5 * e;
+            sech = 2 / e;
+            sinh = (x < 0) ? -cosh : cosh;
+            tanh = (x < 0) ? -1.0 : 1.0;
+        } else {
+            // NaN stays NaN in all results
+            double w = Math.exp(0.5 * a);
+            cosh = (0.5 * w) * w;
+            sech = (2 / w) / w;
+            sinh = (x < 0) ? -cosh : cosh;
+            tanh = (x < 0) ? -1.0 : (x > 0) ? 1.0 : x;
+        }
+        result[off + SINH] = sinh;
+        result[off + COSH] = cosh;
+        result[off + TANH] = tanh;
+        result[off + COTH] = 1 / tanh;
+        result[off + SECH] = sech;
+        result[off + CSCH] = (a < 22) ? 1 / sinh : (x < 0) ? -sech : sech;
+    }
+
+    /** sinh, cosh, tanh, coth, sech and csch of x into result[SINH..CSCH], result needs at least 6 elements */
+    public static void hyperbolic(double x, double[] result) {
+        if (result.length < 6) {
+            throw new IndexOutOfBoundsException("result needs 6 elements, length=" + result.length);
+        }
+        hyperbolicInto(x, result, 0);
+    }
+
     /**
      * calculate area sine (inverse of sinh)
      * defined for all x
@@ -331,19 +817,100 @@ public class FloatMathExt {
         return asinh(1/s);
     }
 
-    /** log_2=ld(x) */
+    /*
+     * log2, exp2 and exp10 use the binary exponent and tables instead of Math.log(x)/LOG_2 and Math.pow:
+     * log2 of a power of 2 is its exponent, otherwise it is Math.log(x) multiplied with 1/log(2).
+     * 2^x = 2^n * exp((x - n)*log(2)) with the integer n nearest to x, where x - n and the scaling are exact,
+     * so the result is exact for integers. 10^k for integer k is taken from a table of the correctly rounded values.
+     */
+
+    /** the bits of the mantissa of a double, which are 0 for powers of 2 */
+    private static final long MANTISSA_BITS = 0x000FFFFFFFFFFFFFL;
+
+    /** 1/log(2) */
+    static final double INV_LOG_2 = 1.4426950408889634;
+
+    /** 10^k for EXP10_MIN_EXPONENT &lt;= k &lt;= EXP10_MAX_EXPONENT, correctly rounded by the parser */
+    private static final int EXP10_MIN_EXPONENT = -323;
+    private static final int EXP10_MAX_EXPONENT = 308;
+    private static final double[] POWERS_OF_TEN = new double[EXP10_MAX_EXPONENT - EXP10_MIN_EXPONENT + 1];
+
+    static {
+        for (int k = EXP10_MIN_EXPONENT; k <= EXP10_MAX_EXPONENT; k++) {
+            POWERS_OF_TEN[k - EXP10_MIN_EXPONENT] = Double.parseDouble("1e" + k);
+        }
+    }
+
+    /** log_2=ld(x), exact for powers of 2 */
     public static double log2(double x) {
-        return Math.log(x) / LOG_2;
+        if (!(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) {
+            return log2Special(x);
+        } else if ((Double.doubleToRawLongBits(x) & MANTISSA_BITS) == 0) {
+            return Math.getExponent(x);
+        }
+        return Math.log(x) * INV_LOG_2;
+    }
+
+    /** log2 of 0, negative, subnormal, infinite and NaN x */
+    private static double log2Special(double x) {
+        if (x > 0 && x < Double.MIN_NORMAL) {
+            return log2(x * 0x1p54) - 54;
+        }
+        return Math.log(x);
     }
 
-    /** 10**x */
+    /** 10**x, the correctly rounded value for integers */
     public static double exp10(double x) {
+        if (x == Math.rint(x) && Math.abs(x) <= 400) {
+            return exp10((int) x);
+        }
         return Math.pow(10, x);
     }
 
-    /** 2**x */
+    /** 2**x, exact for integers */
     public static double exp2(double x) {
-        return Math.pow(2, x);
+        if (!(Math.abs(x) <= 1100)) {
+            return Math.pow(2, x);
+        }
+        double n = Math.rint(x);
+        return Math.scalb(Math.exp((x - n) * LOG_2), (int) n);
+    }
+
+    /** 10**k, correctly rounded, 0 or infinity if it is out of the range of double */
+    public static double exp10(int k) {
+        if (k < EXP10_MIN_EXPONENT) {
+            return 0;
+        } else if (k > EXP10_MAX_EXPONENT) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return POWERS_OF_TEN[k - EXP10_MIN_EXPONENT];
+    }
+
+    /** 2**k, exact, 0 or infinity if it is out of the range of double */
+    public static double exp2(int k) {
+        return Math.scalb(1.0, k);
+    }
+
+    /**
+     * the largest k with 2^k &lt;= n, for example the index of the bucket of n among buckets [2^k, 2^(k+1))
+     * @throws IllegalArgumentException if n &lt;= 0
+     */
+    public static int floorLog2(long n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n=" + n + " must be positive");
+        }
+        return 63 - Long.numberOfLeadingZeros(n);
+    }
+
+    /**
+     * the smallest k with 2^k &gt;= n, for example the size of a power-of-2 table with room for n entries is 2^ceilLog2(n)
+     * @throws IllegalArgumentException if n &lt;= 0
+     */
+    public static int ceilLog2(long n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n=" + n + " must be positive");
+        }
+        return 64 - Long.numberOfLeadingZeros(n - 1);
     }
 
     /** x**2 */
@@ -355,4 +922,1274 @@ public class FloatMathExt {
     public static double cube(double x) {
         return x*x*x;
     }
+
+    /*
+     * float versions of the functions above.
+     *
+     * They have the suffix f like in C, because float overloads would also be chosen for int arguments like sind(30).
+     * They are calculated in double and rounded to float once, so they are correctly rounded in almost all cases.
+     */
+
+    /** cot for float */
+    public static float cotf(float x) {
+        return (float) cot(x);
+    }
+
+    /** sec for float */
+    public static float secf(float x) {
+        return (float) sec(x);
+    }
+
+    /** csc for float */
+    public static float cscf(float x) {
+        return (float) csc(x);
+    }
+
+    /** acot for float */
+    public static float acotf(float x) {
+        return (float) acot(x);
+    }
+
+    /** asec for float */
+    public static float asecf(float x) {
+        return (float) asec(x);
+    }
+
+    /** acsc for float */
+    public static float acscf(float x) {
+        return (float) acsc(x);
+    }
+
+    /** sind for float */
+    public static float sindf(float x) {
+        return (float) sind(x);
+    }
+
+    /** cosd for float */
+    public static float cosdf(float x) {
+        return (float) cosd(x);
+    }
+
+    /** tand for float */
+    public static float tandf(float x) {
+        return (float) tand(x);
+    }
+
+    /** cotd for float */
+    public static float cotdf(float x) {
+        return (float) cotd(x);
+    }
+
+    /** secd for float */
+    public static float secdf(float x) {
+        return (float) secd(x);
+    }
+
+    /** cscd for float */
+    public static float cscdf(float x) {
+        return (float) cscd(x);
+    }
+
+    /** asind for float */
+    public static float asindf(float x) {
+        return (float) asind(x);
+    }
+
+    /** acosd for float */
+    public static float acosdf(float x) {
+        return (float) acosd(x);
+    }
+
+    /** atand for float */
+    public static float atandf(float x) {
+        return (float) atand(x);
+    }
+
+    /** acotd for float */
+    public static float acotdf(float x) {
+        return (float) acotd(x);
+    }
+
+    /** asecd for float */
+    public static float asecdf(float x) {
+        return (float) asecd(x);
+    }
+
+    /** acscd for float */
+    public static float acscdf(float x) {
+        return (float) acscd(x);
+    }
+
+    /** coth for float */
+    public static float cothf(float x) {
+        return (float) coth(x);
+    }
+
+    /** sech for float */
+    public static float sechf(float x) {
+        return (float) sech(x);
+    }
+
+    /** csch for float */
+    public static float cschf(float x) {
+        return (float) csch(x);
+    }
+
+    /** asinh for float */
+    public static float asinhf(float x) {
+        return (float) asinh(x);
+    }
+
+    /** acosh for float */
+    public static float acoshf(float x) {
+        return (float) acosh(x);
+    }
+
+    /** atanh for float */
+    public static float atanhf(float x) {
+        return (float) atanh(x);
+    }
+
+    /** acoth for float */
+    public static float acothf(float x) {
+        return (float) acoth(x);
+    }
+
+    /** asech for float */
+    public static float asechf(float x) {
+        return (float) asech(x);
+    }
+
+    /** acsch for float */
+    public static float acschf(float x) {
+        return (float) acsch(x);
+    }
+
+    /** log2 for float */
+    public static float log2f(float x) {
+        return (float) log2(x);
+    }
+
+    /** exp10 for float */
+    public static float exp10f(float x) {
+        return (float) exp10(x);
+    }
+
+    /** exp2 for float */
+    public static float exp2f(float x) {
+        return (float) exp2(x);
+    }
+
+    /** square for float */
+    public static float squaref(float x) {
+        return (float) square(x);
+    }
+
+    /** cube for float */
+    public static float cubef(float x) {
+        return (float) cube(x);
+    }
+
+    /*
+     * Bulk versions of the functions above.
+     *
+     * Each function f has two array versions:
+     * f(in, off, len, out) stores f(in[i]) in out[i] for off <= i < off+len
+     * f(arr, off, len) does the same in place.
+     * in and out may be the same array. The results are identical to calling the scalar function for each element,
+     * but the bounds are checked only once and the special case handling is done without branches where possible,
+     * so the JIT can unroll the loop.
+     *
+     * sec, csc, coth, sech, csch, log2, exp2, square and cube use SIMD instructions if the Vector API is available,
+     * which requires a JDK 16+ and --add-modules jdk.incubator.vector. In that case their results can differ
+     * from the scalar functions by a few ulps.
+     */
+
+    /** system property which can be set to false to disable the SIMD implementation of the bulk functions */
+    public static final String VECTOR_PROPERTY = "com.itskyconsulting.floatmath.vector";
+
+    /** SIMD implementation of some bulk functions, null if the Vector API is not available */
+    static final BulkKernels VECTOR_KERNELS = loadVectorKernels();
+
+    /** load the SIMD kernels, which are only compiled on JDK 16+ and only work with the module jdk.incubator.vector */
+    private static BulkKernels loadVectorKernels() {
+        if ("false".equals(System.getProperty(VECTOR_PROPERTY))) {
+            return null;
+        }
+        try {
+            Class<?> c = Class.forName("com.itskyconsulting.floatmath.VectorBulkKernels");
+            return (BulkKernels) c.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+            // class not compiled, class version too new or module jdk.incubator.vector missing
+            return null;
+        }
+    }
+
+    /** make sure that off..off+len-1 is a valid range of arr */
+    static void checkRange(double[] arr, int off, int len) {
+        if (off < 0 || len < 0 || off > arr.length - len) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + arr.length);
+        }
+    }
+
+    /** make sure that off..off+len-1 is a valid range of in and out */
+    static void checkRange(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len);
+        checkRange(out, off, len);
+    }
+
+    /** cot of in[off..off+len-1] into out[off..off+len-1]
+     * the sign dependent choice of +/-pi/2 is done without a branch
+     */
+    public static void cot(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.tan((x < 0 ? -HALF_PI : HALF_PI) - x);
+        }
+    }
+
+    /** cot of arr[off..off+len-1] in place */
+    public static void cot(double[] arr, int off, int len) {
+        cot(arr, off, len, arr);
+    }
+
+    /** sec of in[off..off+len-1] into out[off..off+len-1] */
+    public static void sec(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.sec(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = sec(in[i]);
+        }
+    }
+
+    /** sec of arr[off..off+len-1] in place */
+    public static void sec(double[] arr, int off, int len) {
+        sec(arr, off, len, arr);
+    }
+
+    /** csc of in[off..off+len-1] into out[off..off+len-1] */
+    public static void csc(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.csc(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = csc(in[i]);
+        }
+    }
+
+    /** csc of arr[off..off+len-1] in place */
+    public static void csc(double[] arr, int off, int len) {
+        csc(arr, off, len, arr);
+    }
+
+    /** acot of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acot(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acot(in[i]);
+        }
+    }
+
+    /** acot of arr[off..off+len-1] in place */
+    public static void acot(double[] arr, int off, int len) {
+        acot(arr, off, len, arr);
+    }
+
+    /** asec of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asec(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asec(in[i]);
+        }
+    }
+
+    /** asec of arr[off..off+len-1] in place */
+    public static void asec(double[] arr, int off, int len) {
+        asec(arr, off, len, arr);
+    }
+
+    /** acsc of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acsc(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acsc(in[i]);
+        }
+    }
+
+    /** acsc of arr[off..off+len-1] in place */
+    public static void acsc(double[] arr, int off, int len) {
+        acsc(arr, off, len, arr);
+    }
+
+    /** sind of in[off..off+len-1] into out[off..off+len-1] */
+    public static void sind(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = sind(in[i]);
+        }
+    }
+
+    /** sind of arr[off..off+len-1] in place */
+    public static void sind(double[] arr, int off, int len) {
+        sind(arr, off, len, arr);
+    }
+
+    /** cosd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cosd(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cosd(in[i]);
+        }
+    }
+
+    /** cosd of arr[off..off+len-1] in place */
+    public static void cosd(double[] arr, int off, int len) {
+        cosd(arr, off, len, arr);
+    }
+
+    /** tand of in[off..off+len-1] into out[off..off+len-1] */
+    public static void tand(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = tand(in[i]);
+        }
+    }
+
+    /** tand of arr[off..off+len-1] in place */
+    public static void tand(double[] arr, int off, int len) {
+        tand(arr, off, len, arr);
+    }
+
+    /** cotd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cotd(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cotd(in[i]);
+        }
+    }
+
+    /** cotd of arr[off..off+len-1] in place */
+    public static void cotd(double[] arr, int off, int len) {
+        cotd(arr, off, len, arr);
+    }
+
+    /** secd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void secd(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = secd(in[i]);
+        }
+    }
+
+    /** secd of arr[off..off+len-1] in place */
+    public static void secd(double[] arr, int off, int len) {
+        secd(arr, off, len, arr);
+    }
+
+    /** cscd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cscd(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cscd(in[i]);
+        }
+    }
+
+    /** cscd of arr[off..off+len-1] in place */
+    public static void cscd(double[] arr, int off, int len) {
+        cscd(arr, off, len, arr);
+    }
+
+    /** asind of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asind(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asind(in[i]);
+        }
+    }
+
+    /** asind of arr[off..off+len-1] in place */
+    public static void asind(double[] arr, int off, int len) {
+        asind(arr, off, len, arr);
+    }
+
+    /** acosd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acosd(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acosd(in[i]);
+        }
+    }
+
+    /** acosd of arr[off..off+len-1] in place */
+    public static void acosd(double[] arr, int off, int len) {
+        acosd(arr, off, len, arr);
+    }
+
+    /** atand of in[off..off+len-1] into out[off..off+len-1] */
+    public static void atand(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = atand(in[i]);
+        }
+    }
+
+    /** atand of arr[off..off+len-1] in place */
+    public static void atand(double[] arr, int off, int len) {
+        atand(arr, off, len, arr);
+    }
+
+    /** acotd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acotd(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acotd(in[i]);
+        }
+    }
+
+    /** acotd of arr[off..off+len-1] in place */
+    public static void acotd(double[] arr, int off, int len) {
+        acotd(arr, off, len, arr);
+    }
+
+    /** asecd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asecd(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asecd(in[i]);
+        }
+    }
+
+    /** asecd of arr[off..off+len-1] in place */
+    public static void asecd(double[] arr, int off, int len) {
+        asecd(arr, off, len, arr);
+    }
+
+    /** acscd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acscd(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acscd(in[i]);
+        }
+    }
+
+    /** acscd of arr[off..off+len-1] in place */
+    public static void acscd(double[] arr, int off, int len) {
+        acscd(arr, off, len, arr);
+    }
+
+    /** coth of in[off..off+len-1] into out[off..off+len-1] */
+    public static void coth(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.coth(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = coth(in[i]);
+        }
+    }
+
+    /** coth of arr[off..off+len-1] in place */
+    public static void coth(double[] arr, int off, int len) {
+        coth(arr, off, len, arr);
+    }
+
+    /** sech of in[off..off+len-1] into out[off..off+len-1] */
+    public static void sech(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.sech(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = sech(in[i]);
+        }
+    }
+
+    /** sech of arr[off..off+len-1] in place */
+    public static void sech(double[] arr, int off, int len) {
+        sech(arr, off, len, arr);
+    }
+
+    /** csch of in[off..off+len-1] into out[off..off+len-1] */
+    public static void csch(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.csch(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = csch(in[i]);
+        }
+    }
+
+    /** csch of arr[off..off+len-1] in place */
+    public static void csch(double[] arr, int off, int len) {
+        csch(arr, off, len, arr);
+    }
+
+    /** asinh of in[off..off+len-1] into out[off..off+len-1]
+     * the sign is handled by multiplying with +/-1, which is exact, instead of branching. Infinity needs no special case here
+     */
+    public static void asinh(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            double s = in[i];
+            double sign = s < 0 ? -1.0 : 1.0;
+            out[i] = sign * asinhInternal(sign * s);
+        }
+    }
+
+    /** asinh of arr[off..off+len-1] in place */
+    public static void asinh(double[] arr, int off, int len) {
+        asinh(arr, off, len, arr);
+    }
+
+    /** acosh of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acosh(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acosh(in[i]);
+        }
+    }
+
+    /** acosh of arr[off..off+len-1] in place */
+    public static void acosh(double[] arr, int off, int len) {
+        acosh(arr, off, len, arr);
+    }
+
+    /** atanh of in[off..off+len-1] into out[off..off+len-1]
+     * the sign is handled by multiplying with +/-1, which is exact, instead of branching
+     */
+    public static void atanh(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            double t = in[i];
+            double sign = t < 0 ? 1.0 : -1.0;
+            out[i] = (t <= -1.0 || t >= 1.0) ? Double.NaN : sign * atanhIternal(sign * t);
+        }
+    }
+
+    /** atanh of arr[off..off+len-1] in place */
+    public static void atanh(double[] arr, int off, int len) {
+        atanh(arr, off, len, arr);
+    }
+
+    /** acoth of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acoth(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acoth(in[i]);
+        }
+    }
+
+    /** acoth of arr[off..off+len-1] in place */
+    public static void acoth(double[] arr, int off, int len) {
+        acoth(arr, off, len, arr);
+    }
+
+    /** asech of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asech(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asech(in[i]);
+        }
+    }
+
+    /** asech of arr[off..off+len-1] in place */
+    public static void asech(double[] arr, int off, int len) {
+        asech(arr, off, len, arr);
+    }
+
+    /** acsch of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acsch(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acsch(in[i]);
+        }
+    }
+
+    /** acsch of arr[off..off+len-1] in place */
+    public static void acsch(double[] arr, int off, int len) {
+        acsch(arr, off, len, arr);
+    }
+
+    /** log2 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void log2(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.log2(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = log2(in[i]);
+        }
+    }
+
+    /** log2 of arr[off..off+len-1] in place */
+    public static void log2(double[] arr, int off, int len) {
+        log2(arr, off, len, arr);
+    }
+
+    /** exp10 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void exp10(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = exp10(in[i]);
+        }
+    }
+
+    /** exp10 of arr[off..off+len-1] in place */
+    public static void exp10(double[] arr, int off, int len) {
+        exp10(arr, off, len, arr);
+    }
+
+    /** exp2 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void exp2(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.exp2(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = exp2(in[i]);
+        }
+    }
+
+    /** exp2 of arr[off..off+len-1] in place */
+    public static void exp2(double[] arr, int off, int len) {
+        exp2(arr, off, len, arr);
+    }
+
+    /** square of in[off..off+len-1] into out[off..off+len-1] */
+    public static void square(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.square(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = x*x;
+        }
+    }
+
+    /** square of arr[off..off+len-1] in place */
+    public static void square(double[] arr, int off, int len) {
+        square(arr, off, len, arr);
+    }
+
+    /** cube of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cube(double[] in, int off, int len, double[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.cube(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = x*x*x;
+        }
+    }
+
+    /** cube of arr[off..off+len-1] in place */
+    public static void cube(double[] arr, int off, int len) {
+        cube(arr, off, len, arr);
+    }
+
+    /** make sure that off..off+len-1 is a valid range of out, if it is not null */
+    private static void checkOptionalRange(double[] out, int off, int len) {
+        if (out != null) {
+            checkRange(out, off, len);
+        }
+    }
+
+    /**
+     * sin and cos of in[off..off+len-1] into sin[off..off+len-1] and cos[off..off+len-1] with one argument reduction
+     * sin or cos may be null if only the other one is needed.
+     */
+    public static void sincos(double[] in, int off, int len, double[] sin, double[] cos) {
+        trig(in, off, len, sin, cos, null, null, null, null);
+    }
+
+    /**
+     * sind and cosd of in[off..off+len-1] into sin[off..off+len-1] and cos[off..off+len-1] with one argument reduction
+     * sin or cos may be null if only the other one is needed.
+     */
+    public static void sincosd(double[] in, int off, int len, double[] sin, double[] cos) {
+        trigd(in, off, len, sin, cos, null, null, null, null);
+    }
+
+    /**
+     * sin, cos, tan, cot, sec and csc of in[off..off+len-1] into the corresponding ranges of the output arrays
+     * Output arrays that are null are skipped, all others may be the same array as in, but not the same as each other.
+     */
+    public static void trig(double[] in, int off, int len, double[] sin, double[] cos, double[] tan, double[] cot, double[] sec, double[] csc) {
+        trigBulk(in, off, len, sin, cos, tan, cot, sec, csc, false);
+    }
+
+    /**
+     * sind, cosd, tand, cotd, secd and cscd of in[off..off+len-1] into the corresponding ranges of the output arrays
+     * Output arrays that are null are skipped, all others may be the same array as in, but not the same as each other.
+     */
+    public static void trigd(double[] in, int off, int len, double[] sin, double[] cos, double[] tan, double[] cot, double[] sec, double[] csc) {
+        trigBulk(in, off, len, sin, cos, tan, cot, sec, csc, true);
+    }
+
+    private static void trigBulk(double[] in, int off, int len, double[] sin, double[] cos, double[] tan, double[] cot, double[] sec, double[] csc, boolean degrees) {
+        checkRange(in, off, len);
+        checkOptionalRange(sin, off, len);
+        checkOptionalRange(cos, off, len);
+        checkOptionalRange(tan, off, len);
+        checkOptionalRange(cot, off, len);
+        checkOptionalRange(sec, off, len);
+        checkOptionalRange(csc, off, len);
+        boolean reciprocals = tan != null || cot != null || sec != null || csc != null;
+        double[] r = new double[6];
+        for (int i = off, end = off + len; i < end; i++) {
+            if (degrees) {
+                sincosdInto(in[i], r, 0);
+            } else {
+                sincosInto(in[i], r, 0);
+            }
+            if (reciprocals) {
+                reciprocalsInto(r, 0);
+            }
+            if (sin != null) {
+                sin[i] = r[SIN];
+            }
+            if (cos != null) {
+                cos[i] = r[COS];
+            }
+            if (tan != null) {
+                tan[i] = r[TAN];
+            }
+            if (cot != null) {
+                cot[i] = r[COT];
+            }
+            if (sec != null) {
+                sec[i] = r[SEC];
+            }
+            if (csc != null) {
+                csc[i] = r[CSC];
+            }
+        }
+    }
+
+    /**
+     * sinh, cosh, tanh, coth, sech and csch of in[off..off+len-1] into the corresponding ranges of the output arrays
+     * with one exp or expm1 per element.
+     * Output arrays that are null are skipped, all others may be the same array as in, but not the same as each other.
+     */
+    public static void hyperbolic(double[] in, int off, int len, double[] sinh, double[] cosh, double[] tanh, double[] coth, double[] sech, double[] csch) {
+        checkRange(in, off, len);
+        checkOptionalRange(sinh, off, len);
+        checkOptionalRange(cosh, off, len);
+        checkOptionalRange(tanh, off, len);
+        checkOptionalRange(coth, off, len);
+        checkOptionalRange(sech, off, len);
+        checkOptionalRange(csch, off, len);
+        double[] r = new double[6];
+        for (int i = off, end = off + len; i < end; i++) {
+            hyperbolicInto(in[i], r, 0);
+            if (sinh != null) {
+                sinh[i] = r[SINH];
+            }
+            if (cosh != null) {
+                cosh[i] = r[COSH];
+            }
+            if (tanh != null) {
+                tanh[i] = r[TANH];
+            }
+            if (coth != null) {
+                coth[i] = r[COTH];
+            }
+            if (sech != null) {
+                sech[i] = r[SECH];
+            }
+            if (csch != null) {
+                csch[i] = r[CSCH];
+            }
+        }
+    }
+
+    /*
+     * float[] versions of the bulk functions.
+     *
+     * They store the float version of f, for example cotf(in[i]), in out[i] for off <= i < off+len.
+     * sec, csc, coth, sech, csch, log2, exp2, square and cube use SIMD instructions like their double versions,
+     * with twice as many lanes. These are calculated in float, so their results can differ from the scalar
+     * functions by a few ulps of float.
+     */
+
+    /** make sure that off..off+len-1 is a valid range of arr */
+    private static void checkRange(float[] arr, int off, int len) {
+        if (off < 0 || len < 0 || off > arr.length - len) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + arr.length);
+        }
+    }
+
+    /** make sure that off..off+len-1 is a valid range of in and out */
+    private static void checkRange(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len);
+        checkRange(out, off, len);
+    }
+
+    /** cot of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cot(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cotf(in[i]);
+        }
+    }
+
+    /** cot of arr[off..off+len-1] in place */
+    public static void cot(float[] arr, int off, int len) {
+        cot(arr, off, len, arr);
+    }
+
+    /** sec of in[off..off+len-1] into out[off..off+len-1] */
+    public static void sec(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.sec(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = secf(in[i]);
+        }
+    }
+
+    /** sec of arr[off..off+len-1] in place */
+    public static void sec(float[] arr, int off, int len) {
+        sec(arr, off, len, arr);
+    }
+
+    /** csc of in[off..off+len-1] into out[off..off+len-1] */
+    public static void csc(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.csc(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cscf(in[i]);
+        }
+    }
+
+    /** csc of arr[off..off+len-1] in place */
+    public static void csc(float[] arr, int off, int len) {
+        csc(arr, off, len, arr);
+    }
+
+    /** acot of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acot(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acotf(in[i]);
+        }
+    }
+
+    /** acot of arr[off..off+len-1] in place */
+    public static void acot(float[] arr, int off, int len) {
+        acot(arr, off, len, arr);
+    }
+
+    /** asec of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asec(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asecf(in[i]);
+        }
+    }
+
+    /** asec of arr[off..off+len-1] in place */
+    public static void asec(float[] arr, int off, int len) {
+        asec(arr, off, len, arr);
+    }
+
+    /** acsc of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acsc(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acscf(in[i]);
+        }
+    }
+
+    /** acsc of arr[off..off+len-1] in place */
+    public static void acsc(float[] arr, int off, int len) {
+        acsc(arr, off, len, arr);
+    }
+
+    /** sind of in[off..off+len-1] into out[off..off+len-1] */
+    public static void sind(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = sindf(in[i]);
+        }
+    }
+
+    /** sind of arr[off..off+len-1] in place */
+    public static void sind(float[] arr, int off, int len) {
+        sind(arr, off, len, arr);
+    }
+
+    /** cosd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cosd(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cosdf(in[i]);
+        }
+    }
+
+    /** cosd of arr[off..off+len-1] in place */
+    public static void cosd(float[] arr, int off, int len) {
+        cosd(arr, off, len, arr);
+    }
+
+    /** tand of in[off..off+len-1] into out[off..off+len-1] */
+    public static void tand(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = tandf(in[i]);
+        }
+    }
+
+    /** tand of arr[off..off+len-1] in place */
+    public static void tand(float[] arr, int off, int len) {
+        tand(arr, off, len, arr);
+    }
+
+    /** cotd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cotd(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cotdf(in[i]);
+        }
+    }
+
+    /** cotd of arr[off..off+len-1] in place */
+    public static void cotd(float[] arr, int off, int len) {
+        cotd(arr, off, len, arr);
+    }
+
+    /** secd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void secd(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = secdf(in[i]);
+        }
+    }
+
+    /** secd of arr[off..off+len-1] in place */
+    public static void secd(float[] arr, int off, int len) {
+        secd(arr, off, len, arr);
+    }
+
+    /** cscd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cscd(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cscdf(in[i]);
+        }
+    }
+
+    /** cscd of arr[off..off+len-1] in place */
+    public static void cscd(float[] arr, int off, int len) {
+        cscd(arr, off, len, arr);
+    }
+
+    /** asind of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asind(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asindf(in[i]);
+        }
+    }
+
+    /** asind of arr[off..off+len-1] in place */
+    public static void asind(float[] arr, int off, int len) {
+        asind(arr, off, len, arr);
+    }
+
+    /** acosd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acosd(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acosdf(in[i]);
+        }
+    }
+
+    /** acosd of arr[off..off+len-1] in place */
+    public static void acosd(float[] arr, int off, int len) {
+        acosd(arr, off, len, arr);
+    }
+
+    /** atand of in[off..off+len-1] into out[off..off+len-1] */
+    public static void atand(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = atandf(in[i]);
+        }
+    }
+
+    /** atand of arr[off..off+len-1] in place */
+    public static void atand(float[] arr, int off, int len) {
+        atand(arr, off, len, arr);
+    }
+
+    /** acotd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acotd(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acotdf(in[i]);
+        }
+    }
+
+    /** acotd of arr[off..off+len-1] in place */
+    public static void acotd(float[] arr, int off, int len) {
+        acotd(arr, off, len, arr);
+    }
+
+    /** asecd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asecd(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asecdf(in[i]);
+        }
+    }
+
+    /** asecd of arr[off..off+len-1] in place */
+    public static void asecd(float[] arr, int off, int len) {
+        asecd(arr, off, len, arr);
+    }
+
+    /** acscd of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acscd(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acscdf(in[i]);
+        }
+    }
+
+    /** acscd of arr[off..off+len-1] in place */
+    public static void acscd(float[] arr, int off, int len) {
+        acscd(arr, off, len, arr);
+    }
+
+    /** coth of in[off..off+len-1] into out[off..off+len-1] */
+    public static void coth(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.coth(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cothf(in[i]);
+        }
+    }
+
+    /** coth of arr[off..off+len-1] in place */
+    public static void coth(float[] arr, int off, int len) {
+        coth(arr, off, len, arr);
+    }
+
+    /** sech of in[off..off+len-1] into out[off..off+len-1] */
+    public static void sech(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.sech(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = sechf(in[i]);
+        }
+    }
+
+    /** sech of arr[off..off+len-1] in place */
+    public static void sech(float[] arr, int off, int len) {
+        sech(arr, off, len, arr);
+    }
+
+    /** csch of in[off..off+len-1] into out[off..off+len-1] */
+    public static void csch(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.csch(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cschf(in[i]);
+        }
+    }
+
+    /** csch of arr[off..off+len-1] in place */
+    public static void csch(float[] arr, int off, int len) {
+        csch(arr, off, len, arr);
+    }
+
+    /** asinh of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asinh(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asinhf(in[i]);
+        }
+    }
+
+    /** asinh of arr[off..off+len-1] in place */
+    public static void asinh(float[] arr, int off, int len) {
+        asinh(arr, off, len, arr);
+    }
+
+    /** acosh of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acosh(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acoshf(in[i]);
+        }
+    }
+
+    /** acosh of arr[off..off+len-1] in place */
+    public static void acosh(float[] arr, int off, int len) {
+        acosh(arr, off, len, arr);
+    }
+
+    /** atanh of in[off..off+len-1] into out[off..off+len-1] */
+    public static void atanh(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = atanhf(in[i]);
+        }
+    }
+
+    /** atanh of arr[off..off+len-1] in place */
+    public static void atanh(float[] arr, int off, int len) {
+        atanh(arr, off, len, arr);
+    }
+
+    /** acoth of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acoth(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acothf(in[i]);
+        }
+    }
+
+    /** acoth of arr[off..off+len-1] in place */
+    public static void acoth(float[] arr, int off, int len) {
+        acoth(arr, off, len, arr);
+    }
+
+    /** asech of in[off..off+len-1] into out[off..off+len-1] */
+    public static void asech(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = asechf(in[i]);
+        }
+    }
+
+    /** asech of arr[off..off+len-1] in place */
+    public static void asech(float[] arr, int off, int len) {
+        asech(arr, off, len, arr);
+    }
+
+    /** acsch of in[off..off+len-1] into out[off..off+len-1] */
+    public static void acsch(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = acschf(in[i]);
+        }
+    }
+
+    /** acsch of arr[off..off+len-1] in place */
+    public static void acsch(float[] arr, int off, int len) {
+        acsch(arr, off, len, arr);
+    }
+
+    /** log2 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void log2(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.log2(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = log2f(in[i]);
+        }
+    }
+
+    /** log2 of arr[off..off+len-1] in place */
+    public static void log2(float[] arr, int off, int len) {
+        log2(arr, off, len, arr);
+    }
+
+    /** exp10 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void exp10(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = exp10f(in[i]);
+        }
+    }
+
+    /** exp10 of arr[off..off+len-1] in place */
+    public static void exp10(float[] arr, int off, int len) {
+        exp10(arr, off, len, arr);
+    }
+
+    /** exp2 of in[off..off+len-1] into out[off..off+len-1] */
+    public static void exp2(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.exp2(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = exp2f(in[i]);
+        }
+    }
+
+    /** exp2 of arr[off..off+len-1] in place */
+    public static void exp2(float[] arr, int off, int len) {
+        exp2(arr, off, len, arr);
+    }
+
+    /** square of in[off..off+len-1] into out[off..off+len-1] */
+    public static void square(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.square(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = squaref(in[i]);
+        }
+    }
+
+    /** square of arr[off..off+len-1] in place */
+    public static void square(float[] arr, int off, int len) {
+        square(arr, off, len, arr);
+    }
+
+    /** cube of in[off..off+len-1] into out[off..off+len-1] */
+    public static void cube(float[] in, int off, int len, float[] out) {
+        checkRange(in, off, len, out);
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.cube(in, off, len, out);
+            return;
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = cubef(in[i]);
+        }
+    }
+
+    /** cube of arr[off..off+len-1] in place */
+    public static void cube(float[] arr, int off, int len) {
+        cube(arr, off, len, arr);
+    }
 }
@@ -0,0 +1,256 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A sum with compensation that many threads can add to concurrently, like java.util.concurrent.atomic.DoubleAdder,
+ * but with the accuracy of FloatCollectionMath.sum.
+ *
+ * The values are added to one of several cells, chosen by the thread, so threads rarely update the same cell.
+ * As long as there is no contention only the first cell is used. Each cell holds a sum and the sum of the rounding
+ * errors of its additions, both as bits of a double that are updated with compare-and-set, without locks.
+ * The rounding error of each addition is calculated exactly with TwoSum (Knuth). Because the sum and the errors
+ * are only added up, the pair does not have to be updated atomically.
+ * sum() adds the sums and then the errors of all cells with compensation. Like DoubleAdder, sum() is not a snapshot:
+ * additions that happen at the same time may or may not be included.
+ * The cells are padded, so cells of different threads are not in the same cache line.
+ */
+public final class KahanAdder extends Number implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** number of cells once there is contention, a power of two and at least the number of processors */
+    static final int CELLS;
+
+    static {
+        int n = 2;
+        while (n < Runtime.getRuntime().availableProcessors()) {
+            n <<= 1;
+        }
+        CELLS = n;
+    }
+
+    /** the cell of each thread, a hash that is changed when the cell is contended */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[] { probe(Thread.currentThread().getId()) });
+
+    private static final AtomicReferenceFieldUpdater<KahanAdder, Cell[]> CELLS_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(KahanAdder.class, Cell[].class, "cells");
+
+    /** the cell for additions without contention */
+    private final transient Cell base = new Cell();
+
+    /** the cells after the first contention, null before */
+    private transient volatile Cell[] cells;
+
+    /** a sum of 0 */
+    public KahanAdder() {
+    }
+
+    /** a hash that is never 0, from the thread id */
+    private static int probe(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        int p = (int) (h ^ (h >>> 32));
+        return p == 0 ? 1 : p;
+    }
+
+    /** add x */
+    public void add(double x) {
+        Cell[] cs = cells;
+        if (cs == null) {
+            if (base.tryAdd(x)) {
+                return;
+            }
+            cs = createCells();
+        }
+        int[] probe = PROBE.get();
+        int h = probe[0];
+        while (!cs[h & (cs.length - 1)].tryAdd(x)) {
+            // xorshift to another cell
+            h ^= h << 13;
+            h ^= h >>> 17;
+            h ^= h << 5;
+            probe[0] = h;
+        }
+    }
+
+    private Cell[] createCells() {
+        Cell[] cs = new Cell[CELLS];
+        for (int i = 0; i < cs.length; i++) {
+            cs[i] = new Cell();
+        }
+        CELLS_UPDATER.compareAndSet(this, null, cs);
+        return cells;
+    }
+
+    /**
+     * the sum of all values added so far
+     *
+     * The sums of the cells and then their errors are added like in FloatCollectionMath.sum.
+     */
+    public double sum() {
+        CompensatedSum result = new CompensatedSum();
+        result.add(base.sum());
+        Cell[] cs = cells;
+        if (cs != null) {
+            for (Cell c : cs) {
+                result.add(c.sum());
+            }
+        }
+        result.add(base.error());
+        if (cs != null) {
+            for (Cell c : cs) {
+                result.add(c.error());
+            }
+        }
+        return result.sum;
+    }
+
+    /** set the sum to 0, which is only exact if no thread adds at the same time */
+    public void reset() {
+        base.reset();
+        Cell[] cs = cells;
+        if (cs != null) {
+            for (Cell c : cs) {
+                c.reset();
+            }
+        }
+    }
+
+    /** sum() followed by reset(), also only exact if no thread adds at the same time */
+    public double sumThenReset() {
+        double result = sum();
+        reset();
+        return result;
+    }
+
+    @Override
+    public double doubleValue() {
+        return sum();
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) sum();
+    }
+
+    @Override
+    public long longValue() {
+        return (long) sum();
+    }
+
+    @Override
+    public int intValue() {
+        return (int) sum();
+    }
+
+    @Override
+    public String toString() {
+        return Double.toString(sum());
+    }
+
+    /** only the sum is serialized */
+    private Object writeReplace() {
+        return new SerializedForm(sum());
+    }
+
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("proxy required");
+    }
+
+    private static final class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double sum;
+
+        SerializedForm(double sum) {
+            this.sum = sum;
+        }
+
+        private Object readResolve() {
+            KahanAdder result = new KahanAdder();
+            result.add(sum);
+            return result;
+        }
+    }
+
+    /*
+     * A cell is padded with 7 longs on both sides, so its values have a cache line of 64 bytes for themselves.
+     * The padding is in super and sub classes, because the JVM can reorder the fields of a class.
+     */
+
+    @SuppressWarnings("unused")
+    private static class CellPaddingBefore {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private static class CellValues extends CellPaddingBefore {
+
+        /** bits of the sum */
+        volatile long sumBits;
+
+        /** bits of the sum of the rounding errors of the additions to the sum */
+        volatile long errorBits;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Cell extends CellValues {
+
+        private static final AtomicLongFieldUpdater<CellValues> SUM = AtomicLongFieldUpdater.newUpdater(CellValues.class, "sumBits");
+        private static final AtomicLongFieldUpdater<CellValues> ERROR = AtomicLongFieldUpdater.newUpdater(CellValues.class, "errorBits");
+
+        long q1, q2, q3, q4, q5, q6, q7;
+
+        double sum() {
+            return Double.longBitsToDouble(sumBits);
+        }
+
+        double error() {
+            return Double.longBitsToDouble(errorBits);
+        }
+
+        /**
+         * add x to the sum and its rounding error to the error, false if another thread changed the sum
+         *
+         * Once the sum is infinite or NaN the errors are not added, like in FloatCollectionMath.sum.
+         */
+        boolean tryAdd(double x) {
+            long bits = sumBits;
+            double a = Double.longBitsToDouble(bits);
+            double t = a + x;
+            if (!SUM.compareAndSet(this, bits, Double.doubleToRawLongBits(t))) {
+                return false;
+            }
+            if (Double.isInfinite(t) || Double.isNaN(t)) {
+                return true;
+            }
+            double bb = t - a;
+            double e = (a - (t - bb)) + (x - bb);
+            if (e != 0.0) {
+                long errBits;
+                do {
+                    errBits = errorBits;
+                } while (!ERROR.compareAndSet(this, errBits, Double.doubleToRawLongBits(Double.longBitsToDouble(errBits) + e)));
+            }
+            return true;
+        }
+
+        void reset() {
+            sumBits = 0L;
+            errorBits = 0L;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Accumulator for the arithmetic, geometric, harmonic, quadratic and cubic mean in one pass.
+ *
+ * Values can be added one at a time or in chunks, and accumulators for parts of the data can be combined,
+ * so it can be used like DoubleSummaryStatistics:
+ * MeanAccumulator m = doubleStream.collect(MeanAccumulator::new, MeanAccumulator::accept, MeanAccumulator::combine);
+ *
+ * The sums of x, 1/x, x^2 and x^3 are compensated like FloatCollectionMath.sum. The product for the geometric mean
+ * is kept in a ProductAccumulator, so it does not overflow or underflow.
+ * The results are the same as those of the functions in FloatCollectionMath, apart from rounding.
+ */
+public final class MeanAccumulator implements DoubleConsumer {
+
+    private long count;
+
+    /** the only value if count is 1 */
+    private double first;
+
+    private final CompensatedSum sum = new CompensatedSum();
+    private final CompensatedSum reciprocalSum = new CompensatedSum();
+    private final CompensatedSum squareSum = new CompensatedSum();
+    private final CompensatedSum cubeSum = new CompensatedSum();
+
+    private final ProductAccumulator product = new ProductAccumulator();
+
+    /** add one value */
+    @Override
+    public void accept(double x) {
+        if (count == 0) {
+            first = x;
+        }
+        count++;
+        sum.add(x);
+        reciprocalSum.add(1/x);
+        squareSum.add(FloatMathExt.square(x));
+        cubeSum.add(FloatMathExt.cube(x));
+        product.accept(x);
+    }
+
+    /** add arr[off..off+len-1] */
+    public void acceptAll(double[] arr, int off, int len) {
+        if (off < 0 || len < 0 || off > arr.length - len) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + arr.length);
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            accept(arr[i]);
+        }
+    }
+
+    /** add all elements of arr */
+    public void acceptAll(double ... arr) {
+        acceptAll(arr, 0, arr.length);
+    }
+
+    /** add the values of another accumulator, which is not changed */
+    public void combine(MeanAccumulator other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            first = other.first;
+        }
+        count += other.count;
+        sum.add(other.sum);
+        reciprocalSum.add(other.reciprocalSum);
+        squareSum.add(other.squareSum);
+        cubeSum.add(other.cubeSum);
+        product.combine(other.product);
+    }
+
+    /** number of values */
+    public long getCount() {
+        return count;
+    }
+
+    /** average (arithmetic mean), NaN if there are no values */
+    public double getArithmeticMean() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return sum.sum/count;
+    }
+
+    /**
+     * geometric mean, NaN if there are no values
+     *
+     * Like FloatCollectionMath.geometricMean a negative product gives a negative result for three values and NaN otherwise.
+     */
+    public double getGeometricMean() {
+        return product.getGeometricMean();
+    }
+
+    /** harmonic mean, NaN if there are no values */
+    public double getHarmonicMean() {
+        if (count <= 1) {
+            return count == 0 ? Double.NaN : first;
+        }
+        return 1/(reciprocalSum.sum/count);
+    }
+
+    /** quadratic mean, NaN if there are no values */
+    public double getQuadraticMean() {
+        if (count <= 1) {
+            return count == 0 ? Double.NaN : first;
+        }
+        return Math.sqrt(squareSum.sum/count);
+    }
+
+    /** cubic mean, NaN if there are no values */
+    public double getCubicMean() {
+        if (count <= 1) {
+            return count == 0 ? Double.NaN : first;
+        }
+        return Math.cbrt(cubeSum.sum/count);
+    }
+
+    /** a collector for streams of Double */
+    public static Collector<Double, MeanAccumulator, MeanAccumulator> collector() {
+        return Collector.of(MeanAccumulator::new,
+                            MeanAccumulator::accept,
+                            (a, b) -> { a.combine(b); return a; },
+                            Collector.Characteristics.IDENTITY_FINISH,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, arithmeticMean=%f, geometricMean=%f, harmonicMean=%f, quadraticMean=%f, cubicMean=%f}",
+                             getClass().getSimpleName(), count, getArithmeticMean(), getGeometricMean(),
+                             getHarmonicMean(), getQuadraticMean(), getCubicMean());
+    }
+}
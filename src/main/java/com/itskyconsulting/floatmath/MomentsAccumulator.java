@@ -0,0 +1,161 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Accumulator for the mean, variance, standard deviation, skewness and kurtosis in one pass.
+ *
+ * It keeps the count, the mean and the sums of the second, third and fourth powers of the deviations from the mean
+ * (M2, M3, M4), which are updated for each value with Welford's method as generalized by Terriberry.
+ * Unlike the sums of x, x^2, ... this does not cancel if the mean is large compared to the standard deviation.
+ * Accumulators for parts of the data are combined with the pairwise formulas of Chan and Pébay, so it can be used
+ * like MeanAccumulator:
+ * MomentsAccumulator m = doubleStream.collect(MomentsAccumulator::new, MomentsAccumulator::accept, MomentsAccumulator::combine);
+ *
+ * Adding values does not allocate anything.
+ */
+public final class MomentsAccumulator implements DoubleConsumer {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double m3;
+    private double m4;
+
+    /** add one value */
+    @Override
+    public void accept(double x) {
+        long n1 = count;
+        count++;
+        double n = count;
+        double delta = x - mean;
+        double deltaN = delta / n;
+        double deltaN2 = deltaN * deltaN;
+        double term = delta * deltaN * n1;
+        mean += deltaN;
+        m4 += term * deltaN2 * (n * n - 3 * n + 3) + 6 * deltaN2 * m2 - 4 * deltaN * m3;
+        m3 += term * deltaN * (n - 2) - 3 * deltaN * m2;
+        m2 += term;
+    }
+
+    /** add arr[off..off+len-1] */
+    public void acceptAll(double[] arr, int off, int len) {
+        if (off < 0 || len < 0 || off > arr.length - len) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + arr.length);
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            accept(arr[i]);
+        }
+    }
+
+    /** add all elements of arr */
+    public void acceptAll(double ... arr) {
+        acceptAll(arr, 0, arr.length);
+    }
+
+    /** add the values of another accumulator, which is not changed */
+    public void combine(MomentsAccumulator other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            m3 = other.m3;
+            m4 = other.m4;
+            return;
+        }
+        double na = count;
+        double nb = other.count;
+        double n = na + nb;
+        double delta = other.mean - mean;
+        double deltaN = delta / n;
+        double deltaN2 = deltaN * deltaN;
+        double term = delta * deltaN * na * nb;
+        double newM4 = m4 + other.m4 + term * deltaN2 * (na * na - na * nb + nb * nb)
+            + 6 * deltaN2 * (na * na * other.m2 + nb * nb * m2) + 4 * deltaN * (na * other.m3 - nb * m3);
+        double newM3 = m3 + other.m3 + term * deltaN * (na - nb) + 3 * deltaN * (na * other.m2 - nb * m2);
+        m2 += other.m2 + term;
+        m3 = newM3;
+        m4 = newM4;
+        mean += deltaN * nb;
+        count += other.count;
+    }
+
+    /** number of values */
+    public long getCount() {
+        return count;
+    }
+
+    /** average (arithmetic mean), NaN if there are no values */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /** sample variance M2/(n-1), NaN for less than two values */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /** population variance M2/n, NaN if there are no values */
+    public double getPopulationVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /** sample standard deviation, the square root of the sample variance */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /** population standard deviation, the square root of the population variance */
+    public double getPopulationStandardDeviation() {
+        return Math.sqrt(getPopulationVariance());
+    }
+
+    /** skewness sqrt(n) M3 / M2^(3/2), NaN if there are no values or all are equal */
+    public double getSkewness() {
+        if (count == 0 || m2 == 0) {
+            return Double.NaN;
+        }
+        return Math.sqrt((double) count) * m3 / (m2 * Math.sqrt(m2));
+    }
+
+    /** kurtosis n M4 / M2^2, which is 3 for the normal distribution, NaN if there are no values or all are equal */
+    public double getKurtosis() {
+        if (count == 0 || m2 == 0) {
+            return Double.NaN;
+        }
+        return count * m4 / (m2 * m2);
+    }
+
+    /** excess kurtosis, kurtosis - 3, which is 0 for the normal distribution */
+    public double getExcessKurtosis() {
+        return getKurtosis() - 3;
+    }
+
+    /** a collector for streams of Double */
+    public static Collector<Double, MomentsAccumulator, MomentsAccumulator> collector() {
+        return Collector.of(MomentsAccumulator::new,
+                            MomentsAccumulator::accept,
+                            (a, b) -> { a.combine(b); return a; },
+                            Collector.Characteristics.IDENTITY_FINISH,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, mean=%f, variance=%f, skewness=%f, kurtosis=%f}",
+                             getClass().getSimpleName(), count, getMean(), getVariance(), getSkewness(), getKurtosis());
+    }
+}
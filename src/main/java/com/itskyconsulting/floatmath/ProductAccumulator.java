@@ -0,0 +1,183 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Product of many values and their geometric mean, without overflow or underflow.
+ *
+ * The product is kept as mantissa * 2^exponent with a long exponent, so it stays correct for millions of factors.
+ * Factors between 2^-60 and 2^60 are just multiplied into the mantissa, which cannot leave the range of normal
+ * doubles within RENORMALIZE_INTERVAL such multiplications, so the exponent is only moved out of the mantissa
+ * every RENORMALIZE_INTERVAL values. Other factors are split into mantissa and exponent first.
+ * Zeros, infinities and NaN are counted separately.
+ */
+public final class ProductAccumulator implements DoubleConsumer {
+
+    /** number of values after which the exponent of the mantissa is moved to exponent */
+    private static final int RENORMALIZE_INTERVAL = 16;
+
+    /** factors in [FAST_MIN, FAST_MAX] are multiplied directly */
+    private static final double FAST_MIN = 0x1p-60;
+    private static final double FAST_MAX = 0x1p60;
+
+    /** 2^54, to make subnormal values normal */
+    private static final double TWO_POW_54 = 0x1p54;
+
+    private long count;
+
+    /** product of the finite non-zero values is mantissa * 2^exponent, mantissa carries the sign of all values */
+    private double mantissa = 1.0;
+    private long exponent;
+
+    private boolean hasZero;
+    private boolean hasInfinity;
+    private boolean hasNaN;
+
+    /** multiply with x */
+    @Override
+    public void accept(double x) {
+        double a = Math.abs(x);
+        if (a >= FAST_MIN && a <= FAST_MAX) {
+            mantissa *= x;
+        } else {
+            multiplySlow(x);
+        }
+        if ((++count & (RENORMALIZE_INTERVAL - 1)) == 0) {
+            renormalize();
+        }
+    }
+
+    /** multiply with arr[off..off+len-1] */
+    public void acceptAll(double[] arr, int off, int len) {
+        if (off < 0 || len < 0 || off > arr.length - len) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + arr.length);
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            accept(arr[i]);
+        }
+    }
+
+    /** multiply with all elements of arr */
+    public void acceptAll(double ... arr) {
+        acceptAll(arr, 0, arr.length);
+    }
+
+    /** multiply with the values of another accumulator, which is not changed */
+    public void combine(ProductAccumulator other) {
+        renormalize();
+        int k = Math.getExponent(other.mantissa);
+        mantissa *= Math.scalb(other.mantissa, -k);
+        exponent += other.exponent + k;
+        count += other.count;
+        hasZero |= other.hasZero;
+        hasInfinity |= other.hasInfinity;
+        hasNaN |= other.hasNaN;
+        renormalize();
+    }
+
+    /** number of values */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * the product, which is 1 if there are no values
+     *
+     * A subnormal product is rounded twice, the mantissa to 53 bits and then to the precision of the subnormal
+     * result, so it can be an ulp away from the correctly rounded product, even for two factors, where x*y is exact.
+     * For example the product of (1 + 2^-20)*2^-600 and (1 - 2^-20 + 2^-40)*2^-475 is 0 instead of Double.MIN_VALUE.
+     */
+    public double getProduct() {
+        if (hasNaN || hasZero && hasInfinity) {
+            return Double.NaN;
+        } else if (hasZero) {
+            return Math.copySign(0.0, mantissa);
+        } else if (hasInfinity) {
+            return Math.copySign(Double.POSITIVE_INFINITY, mantissa);
+        }
+        int k = Math.getExponent(mantissa);
+        return Math.scalb(Math.scalb(mantissa, -k), clamp(exponent + k));
+    }
+
+    /**
+     * the geometric mean, the product to the power 1/n, NaN if there are no values
+     *
+     * For 2 and 3 values it is calculated with sqrt and cbrt, so it is exact when all values are the same.
+     * A negative product gives a negative result for three values, like cbrt, and NaN otherwise.
+     * That includes a product of -infinity, for which Math.pow(prod, 1.0/n) would give +infinity for n &gt;= 4.
+     */
+    public double getGeometricMean() {
+        if (count <= 1) {
+            return count == 0 ? Double.NaN : getProduct();
+        }
+        boolean negative = mantissa < 0;
+        if (hasNaN || hasZero && hasInfinity) {
+            return Double.NaN;
+        } else if (hasZero) {
+            return negative && count <= 3 ? -0.0 : 0.0;
+        } else if (negative && count != 3) {
+            return Double.NaN;
+        } else if (hasInfinity) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        int k = Math.getExponent(mantissa);
+        double m = Math.abs(Math.scalb(mantissa, -k));
+        long e = exponent + k;
+        // (m * 2^e)^(1/n) = (m * 2^r)^(1/n) * 2^q with e = q*n + r, 0 <= r < n
+        long q = Math.floorDiv(e, count);
+        long r = e - q * count;
+        double result;
+        if (count == 2) {
+            result = Math.sqrt(Math.scalb(m, (int) r));
+        } else if (count == 3) {
+            result = Math.cbrt(Math.scalb(m, (int) r));
+        } else {
+            result = Math.pow(m, 1.0/count) * Math.pow(2.0, (double) r / count);
+        }
+        result = Math.scalb(result, clamp(q));
+        return negative ? -result : result;
+    }
+
+    /** multiply with a value that is not in [FAST_MIN, FAST_MAX] */
+    private void multiplySlow(double x) {
+        if (Double.isNaN(x)) {
+            hasNaN = true;
+        } else if (x == 0.0) {
+            hasZero = true;
+            mantissa = Math.copySign(mantissa, mantissa * x);
+        } else if (Double.isInfinite(x)) {
+            hasInfinity = true;
+            mantissa = Math.copySign(mantissa, mantissa * x);
+        } else {
+            int e = Math.getExponent(x);
+            if (e < Double.MIN_EXPONENT) {
+                x *= TWO_POW_54;
+                e = Math.getExponent(x);
+                exponent -= 54;
+            }
+            exponent += e;
+            mantissa *= Math.scalb(x, -e);
+        }
+    }
+
+    /** move the exponent of the mantissa to exponent, so that |mantissa| is in [1, 2) */
+    private void renormalize() {
+        int k = Math.getExponent(mantissa);
+        mantissa = Math.scalb(mantissa, -k);
+        exponent += k;
+    }
+
+    /** an exponent for scalb, large values give 0 or infinity anyway */
+    private static int clamp(long e) {
+        return (int) Math.max(Math.min(e, 4096), -4096);
+    }
+}
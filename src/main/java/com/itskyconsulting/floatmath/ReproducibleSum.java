@@ -0,0 +1,217 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Sum that is bitwise reproducible: the result only depends on the multiset of values,
+ * not on their order, nor on how they were split into parts that were summed separately and combined.
+ * So it gives the same bits sequentially, in a parallel stream and with any number of threads.
+ *
+ * This uses binned accumulation as described by Demmel and Nguyen ("Parallel Reproducible Summation", 2015):
+ * The exponent range is divided into bins of W=40 bits on a fixed grid.
+ * Only the K=3 bins starting with the bin of the largest value seen so far are kept.
+ * Each value is split into slices that belong to these bins. The slices only depend on the value and the grid,
+ * so each bin accumulates exactly the sum of its slices, whatever the order.
+ * The parts of values below the lowest bin are dropped, which is less than 2^-78 of the largest value per element,
+ * so for example 1e100 + 1 - 1e100 is 0.
+ * The result is usually the correctly rounded sum, but this is not guaranteed when most of the sum cancels out.
+ *
+ * Each bin has a primary value y, which is kept in [1, 2) in units of the bin, so all additions to it are rounded
+ * to the same grid and are exact. Every RENORMALIZE_INTERVAL additions, whole multiples of 1/4 are moved from y
+ * to the carry of the bin, which is exact as well.
+ * To avoid that rounding depends on the current value of y in case of a tie, the lowest bit of each slice is set
+ * before it is added, as done in ReproBLAS.
+ *
+ * Usage with a stream:
+ * double s = doubleStream.collect(ReproducibleSum::new, ReproducibleSum::accept, ReproducibleSum::combine).sum();
+ */
+public final class ReproducibleSum implements DoubleConsumer {
+
+    /** width of a bin in bits */
+    private static final int W = 40;
+
+    /** number of bins that are kept */
+    private static final int K = 3;
+
+    /** exponent of the top bin with index 0, high enough for Double.MAX_VALUE */
+    private static final int BIN_0 = 1040;
+
+    /** highest index that is needed for the first slice of a value, which is the index of Double.MIN_VALUE */
+    private static final int MAX_INDEX = (BIN_0 - 14 - Double.MIN_EXPONENT) / W;
+
+    /** index of an empty sum */
+    private static final int NONE = Integer.MAX_VALUE;
+
+    /** number of additions after which the primary values are renormalized */
+    private static final int RENORMALIZE_INTERVAL = 2048;
+
+    /** 2^W: converts the remainder of a bin to the units of the next lower bin */
+    private static final double BIN_RATIO = Math.scalb(1.0, W);
+
+    /** SCALE[i] = 2^-binExponent(i), converts values to the units of bin i */
+    private static final double[] SCALE = new double[MAX_INDEX + 1];
+
+    static {
+        for (int i = 0; i <= MAX_INDEX; i++) {
+            SCALE[i] = Math.scalb(1.0, -binExponent(i));
+        }
+    }
+
+    /** index of the first kept bin, NONE if no finite non-zero value has been added */
+    private int index = NONE;
+
+    /** primary values of the kept bins, in units of 2^binExponent, always in [1, 2) */
+    private final double[] primary = { 1.5, 1.5, 1.5 };
+
+    /** carries of the kept bins, in units of 2^binExponent/4 */
+    private final double[] carry = new double[K];
+
+    /** additions since the last renormalization */
+    private int additions;
+
+    /** sum of NaN and infinite values */
+    private double special;
+
+    /** exponent of bin i: slices in this bin are multiples of 2^(binExponent(i)-52) */
+    private static int binExponent(int i) {
+        return BIN_0 - W * i;
+    }
+
+    /** add one value */
+    @Override
+    public void accept(double x) {
+        if (x == 0.0) {
+            return;
+        }
+        if (Double.isNaN(x) || Double.isInfinite(x)) {
+            special += x;
+            return;
+        }
+        // lowest bin that can take the top slice of x: |x| < 2^(binExponent-13), so that the slices fit into y
+        int i = (BIN_0 - 14 - Math.getExponent(x)) / W;
+        if (i < index) {
+            shift(i);
+        }
+        int k = i - index;
+        if (k >= K) {
+            return;
+        }
+        double xs = x * SCALE[i];
+        for (; k < K; k++) {
+            double y = primary[k];
+            double t = y + Double.longBitsToDouble(Double.doubleToRawLongBits(xs) | 1L);
+            primary[k] = t;
+            xs = (xs - (t - y)) * BIN_RATIO;
+        }
+        if (++additions >= RENORMALIZE_INTERVAL) {
+            renormalize();
+        }
+    }
+
+    /** add arr[off..off+len-1] */
+    public void acceptAll(double[] arr, int off, int len) {
+        if (off < 0 || len < 0 || off > arr.length - len) {
+            throw new IndexOutOfBoundsException("off=" + off + " len=" + len + " length=" + arr.length);
+        }
+        for (int i = off, end = off + len; i < end; i++) {
+            accept(arr[i]);
+        }
+    }
+
+    /** add all elements of arr */
+    public void acceptAll(double ... arr) {
+        acceptAll(arr, 0, arr.length);
+    }
+
+    /** add the values of another reproducible sum, which is not changed */
+    public void combine(ReproducibleSum other) {
+        special += other.special;
+        if (other.index == NONE) {
+            return;
+        }
+        if (other.index < index) {
+            shift(other.index);
+        }
+        renormalize();
+        int delta = other.index - index;
+        for (int j = 0; j + delta < K; j++) {
+            // renormalize the bin of other on the fly, so y stays in [1, 2)
+            double d = other.primary[j] - 1.5;
+            double m = Math.floor(4 * d + 0.5);
+            primary[j + delta] += d - 0.25 * m;
+            carry[j + delta] += other.carry[j] + m;
+        }
+        renormalize();
+    }
+
+    /** the sum of all values added so far */
+    public double sum() {
+        if (special != 0.0) {
+            // NaN or +/-Infinity
+            return special;
+        }
+        if (index == NONE) {
+            return 0.0;
+        }
+        // The primary value and the carry of a bin are not unique, because they depend on when renormalization happened.
+        // So split the exact value of each bin v = d + carry/4 in a canonical way into floor(4v+1/2)/4 and the rest,
+        // and add these in a fixed order.
+        CompensatedSum result = new CompensatedSum();
+        double scale = Math.scalb(1.0, -W * (K - 1));
+        for (int k = K - 1; k >= 0; k--) {
+            double d = primary[k] - 1.5;
+            double m = Math.floor(4 * d + 0.5);
+            result.add((d - 0.25 * m) * scale);
+            result.add(0.25 * (carry[k] + m) * scale);
+            scale *= BIN_RATIO;
+        }
+        return Math.scalb(result.sum - result.correction, binExponent(index));
+    }
+
+    /** a collector for streams of Double */
+    public static Collector<Double, ReproducibleSum, Double> collector() {
+        return Collector.of(ReproducibleSum::new,
+                            ReproducibleSum::accept,
+                            (a, b) -> { a.combine(b); return a; },
+                            ReproducibleSum::sum,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    /** move the kept bins down, so that newIndex becomes the first kept bin */
+    private void shift(int newIndex) {
+        if (index != NONE) {
+            int s = index - newIndex;
+            for (int k = K - 1; k >= 0; k--) {
+                if (k >= s) {
+                    primary[k] = primary[k - s];
+                    carry[k] = carry[k - s];
+                } else {
+                    primary[k] = 1.5;
+                    carry[k] = 0.0;
+                }
+            }
+        }
+        index = newIndex;
+    }
+
+    /** move multiples of 1/4 from the primary values to the carries, so that they are in [1.375, 1.625] again */
+    private void renormalize() {
+        for (int k = 0; k < K; k++) {
+            double d = primary[k] - 1.5;
+            double m = Math.floor(4 * d + 0.5);
+            primary[k] -= 0.25 * m;
+            carry[k] += m;
+        }
+        additions = 0;
+    }
+}
@@ -0,0 +1,303 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A function that is sampled over a domain [lo, hi] into a table and then evaluated by interpolation.
+ *
+ * The table has n intervals of the same width and stores the coefficients of the interpolating polynomial of each
+ * interval next to each other (2 for linear, 4 for cubic interpolation), so a lookup reads one cache line and
+ * does not allocate anything. Cubic interpolation uses Hermite polynomials with the derivatives estimated from
+ * the samples with differences of 4th order.
+ *
+ * The builder doubles n (or more, according to the order of the error) until the error is below the requested
+ * bound. The error is estimated by comparing the interpolation with the function at 1/4, 1/2 and 3/4 of each
+ * interval, which is reported by getMaxError(). Outside [lo, hi] the function itself is evaluated.
+ *
+ * Example: TabulatedFunction.builder(FloatMathExt::acotd).domain(-10, 10).maxError(1e-9).cubic().build()
+ */
+public final class TabulatedFunction implements DoubleUnaryOperator {
+
+    /** interpolation between the samples */
+    public enum Interpolation {
+        /** linear, error proportional to the square of the interval width */
+        LINEAR(2, 2),
+        /** cubic Hermite, error proportional to the 4th power of the interval width */
+        CUBIC(4, 4);
+
+        /** number of coefficients per interval */
+        final int stride;
+
+        /** order of the error */
+        final int order;
+
+        private Interpolation(int stride, int order) {
+            this.stride = stride;
+            this.order = order;
+        }
+    }
+
+    /** number of intervals of the first table the builder tries */
+    private static final int MIN_INTERVALS = 16;
+
+    /** default for the maximum number of intervals, 64K intervals are 1 MB for linear interpolation */
+    public static final int DEFAULT_MAX_INTERVALS = 1 << 16;
+
+    private final DoubleUnaryOperator function;
+    private final double lo;
+    private final double hi;
+    private final int intervals;
+    private final boolean cubic;
+    private final Interpolation interpolation;
+
+    /** intervals / (hi - lo) */
+    private final double scale;
+
+    /** coefficients of interval i at i*stride, lowest power first */
+    private final double[] coefficients;
+
+    private final double maxError;
+
+    /** create the table, the builder checks the arguments */
+    private TabulatedFunction(DoubleUnaryOperator function, double lo, double hi, int intervals, Interpolation interpolation) {
+        this.function = function;
+        this.lo = lo;
+        this.hi = hi;
+        this.intervals = intervals;
+        this.interpolation = interpolation;
+        this.cubic = interpolation == Interpolation.CUBIC;
+        this.scale = intervals / (hi - lo);
+        this.coefficients = tabulate(function, lo, hi, intervals, interpolation);
+        this.maxError = estimateError();
+    }
+
+    /** start building a table of f */
+    public static Builder builder(DoubleUnaryOperator f) {
+        return new Builder(f);
+    }
+
+    /** the interpolated value of the function at x, or the function itself outside [lo, hi] */
+    @Override
+    public double applyAsDouble(double x) {
+        double t = (x - lo) * scale;
+        if (!(t >= 0 && t <= intervals)) {
+            return function.applyAsDouble(x);
+        }
+        int i = Math.min((int) t, intervals - 1);
+        double u = t - i;
+        double[] c = coefficients;
+        if (cubic) {
+            int k = 4 * i;
+            return c[k] + u * (c[k + 1] + u * (c[k + 2] + u * c[k + 3]));
+        } else {
+            int k = 2 * i;
+            return c[k] + u * c[k + 1];
+        }
+    }
+
+    /** the interpolated values of in[off..off+len-1] into out[off..off+len-1] */
+    public void apply(double[] in, int off, int len, double[] out) {
+        FloatMathExt.checkRange(in, off, len, out);
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = applyAsDouble(in[i]);
+        }
+    }
+
+    /** the interpolated values of arr[off..off+len-1] in place */
+    public void apply(double[] arr, int off, int len) {
+        apply(arr, off, len, arr);
+    }
+
+    /** the estimated maximum absolute error of the interpolation in [lo, hi] */
+    public double getMaxError() {
+        return maxError;
+    }
+
+    /** number of intervals of the table */
+    public int getIntervals() {
+        return intervals;
+    }
+
+    /** lower end of the domain */
+    public double getLo() {
+        return lo;
+    }
+
+    /** upper end of the domain */
+    public double getHi() {
+        return hi;
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    @Override
+    public String toString() {
+        return "TabulatedFunction{domain=[" + lo + ", " + hi + "], intervals=" + intervals
+            + ", interpolation=" + interpolation + ", maxError=" + maxError + "}";
+    }
+
+    /** sample f at the n+1 points and calculate the coefficients */
+    private static double[] tabulate(DoubleUnaryOperator f, double lo, double hi, int n, Interpolation interpolation) {
+        double h = (hi - lo) / n;
+        double[] y = new double[n + 1];
+        for (int i = 0; i <= n; i++) {
+            double x = (i == n) ? hi : lo + i * h;
+            y[i] = f.applyAsDouble(x);
+            if (Double.isNaN(y[i]) || Double.isInfinite(y[i])) {
+                throw new IllegalArgumentException("function is not finite at x=" + x + ": " + y[i]);
+            }
+        }
+        double[] c = new double[n * interpolation.stride];
+        if (interpolation == Interpolation.LINEAR) {
+            for (int i = 0; i < n; i++) {
+                c[2 * i] = y[i];
+                c[2 * i + 1] = y[i + 1] - y[i];
+            }
+            return c;
+        }
+        // derivatives in units of the interval width
+        double[] m = new double[n + 1];
+        for (int i = 0; i <= n; i++) {
+            if (i < 2) {
+                m[i] = (-25 * y[i] + 48 * y[i + 1] - 36 * y[i + 2] + 16 * y[i + 3] - 3 * y[i + 4]) / 12;
+            } else if (i > n - 2) {
+                m[i] = (25 * y[i] - 48 * y[i - 1] + 36 * y[i - 2] - 16 * y[i - 3] + 3 * y[i - 4]) / 12;
+            } else {
+                m[i] = (y[i - 2] - 8 * y[i - 1] + 8 * y[i + 1] - y[i + 2]) / 12;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            double d = y[i + 1] - y[i];
+            c[4 * i] = y[i];
+            c[4 * i + 1] = m[i];
+            c[4 * i + 2] = 3 * d - 2 * m[i] - m[i + 1];
+            c[4 * i + 3] = -2 * d + m[i] + m[i + 1];
+        }
+        return c;
+    }
+
+    /** maximum difference between interpolation and function at 1/4, 1/2 and 3/4 of each interval, NaN if the function is not finite there */
+    private double estimateError() {
+        double h = (hi - lo) / intervals;
+        double max = 0;
+        for (int i = 0; i < intervals; i++) {
+            for (int q = 1; q <= 3; q++) {
+                double x = lo + (i + 0.25 * q) * h;
+                double e = Math.abs(applyAsDouble(x) - function.applyAsDouble(x));
+                if (Double.isNaN(e)) {
+                    return e;
+                }
+                max = Math.max(max, e);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Builder for TabulatedFunction.
+     * The domain and the error bound are required, the interpolation is linear unless cubic() is called.
+     */
+    public static final class Builder {
+
+        private final DoubleUnaryOperator function;
+        private double lo = Double.NaN;
+        private double hi = Double.NaN;
+        private double maxError = Double.NaN;
+        private Interpolation interpolation = Interpolation.LINEAR;
+        private int maxIntervals = DEFAULT_MAX_INTERVALS;
+
+        private Builder(DoubleUnaryOperator function) {
+            if (function == null) {
+                throw new NullPointerException("function");
+            }
+            this.function = function;
+        }
+
+        /** the domain [lo, hi] in which the table is used */
+        public Builder domain(double lo, double hi) {
+            if (!(lo < hi) || Double.isInfinite(lo) || Double.isInfinite(hi)) {
+                throw new IllegalArgumentException("domain [" + lo + ", " + hi + "] must be finite and not empty");
+            }
+            this.lo = lo;
+            this.hi = hi;
+            return this;
+        }
+
+        /** the maximum absolute error of the interpolation */
+        public Builder maxError(double maxError) {
+            if (!(maxError > 0)) {
+                throw new IllegalArgumentException("maxError=" + maxError + " must be positive");
+            }
+            this.maxError = maxError;
+            return this;
+        }
+
+        public Builder interpolation(Interpolation interpolation) {
+            if (interpolation == null) {
+                throw new NullPointerException("interpolation");
+            }
+            this.interpolation = interpolation;
+            return this;
+        }
+
+        /** use linear interpolation, the default */
+        public Builder linear() {
+            return interpolation(Interpolation.LINEAR);
+        }
+
+        /** use cubic interpolation */
+        public Builder cubic() {
+            return interpolation(Interpolation.CUBIC);
+        }
+
+        /** the maximum number of intervals of the table, DEFAULT_MAX_INTERVALS if not set */
+        public Builder maxIntervals(int maxIntervals) {
+            if (maxIntervals < MIN_INTERVALS) {
+                throw new IllegalArgumentException("maxIntervals=" + maxIntervals + " must be at least " + MIN_INTERVALS);
+            }
+            this.maxIntervals = maxIntervals;
+            return this;
+        }
+
+        /**
+         * sample the function until the error is below maxError
+         * @throws IllegalStateException if the domain or the error bound have not been set
+         * @throws IllegalArgumentException if the function is not finite in the domain or the error bound cannot be
+         * reached with maxIntervals intervals
+         */
+        public TabulatedFunction build() {
+            if (Double.isNaN(lo) || Double.isNaN(maxError)) {
+                throw new IllegalStateException("domain and maxError are required");
+            }
+            int n = MIN_INTERVALS;
+            while (true) {
+                TabulatedFunction table = new TabulatedFunction(function, lo, hi, n, interpolation);
+                double error = table.getMaxError();
+                if (error <= maxError) {
+                    return table;
+                }
+                if (Double.isNaN(error)) {
+                    throw new IllegalArgumentException("function is not finite in [" + lo + ", " + hi + "]");
+                }
+                if (n >= maxIntervals) {
+                    throw new IllegalArgumentException("maxError=" + maxError + " not reached with " + n
+                                                       + " intervals, the error is " + error);
+                }
+                // the error is proportional to (1/n)^order, aim 10% below the bound
+                double factor = Math.pow(error / maxError * 1.1, 1.0 / interpolation.order);
+                n = (int) Math.min(maxIntervals, Math.max(2.0 * n, Math.ceil(n * factor)));
+            }
+        }
+    }
+}
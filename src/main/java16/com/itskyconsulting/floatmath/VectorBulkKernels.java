@@ -0,0 +1,412 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of the bulk kernels using the incubating Vector API (JDK 16+).
+ *
+ * This class is only compiled with the profile vector and only loaded by FloatMathExt if the module
+ * jdk.incubator.vector is available at runtime (--add-modules jdk.incubator.vector).
+ * The transcendental lane operations are intrinsified by HotSpot on x86 (SVML) and are within 1 ulp there,
+ * but the functions built from them (1/cos, log/log(2), ...) add their own roundings, so the results are within
+ * 4 ulps of the scalar functions of FloatMathExt (VECTOR_ULPS in the tests), not within 1 ulp.
+ * They are not deterministic either: until C2 compiles a loop, the lane operations run as Java code with the
+ * StrictMath functions, so the same arguments can give results that differ by an ulp in the first calls and
+ * in later ones, and on other CPUs or JDKs.
+ * log2 of powers of 2 and exp2 of integers (of double) are handled separately and are always exact.
+ * The elements that do not fill a whole vector are calculated with the scalar functions.
+ */
+final class VectorBulkKernels implements BulkKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private static final DoubleVector ONE = DoubleVector.broadcast(SPECIES, 1.0);
+
+    private static final DoubleVector TWO = DoubleVector.broadcast(SPECIES, 2.0);
+
+    private static final DoubleVector LOG_2 = DoubleVector.broadcast(SPECIES, FloatMathExt.LOG_2);
+
+    private static final DoubleVector TEN = DoubleVector.broadcast(SPECIES, 10.0);
+
+    private static final DoubleVector HALF = DoubleVector.broadcast(SPECIES, 0.5);
+
+    private static final DoubleVector NAN = DoubleVector.broadcast(SPECIES, Double.NaN);
+
+    /** the bits of the mantissa of a double, which are 0 for powers of 2 */
+    private static final long MANTISSA_BITS = 0x000FFFFFFFFFFFFFL;
+
+    /** bits of 2^52 */
+    private static final long BITS_2_52 = 0x4330000000000000L;
+
+    private static final double INV_LOG_2 = FloatMathExt.INV_LOG_2;
+
+    /** exp2 of arguments with a larger absolute value are calculated with the scalar function, because 2^n is not normal */
+    private static final double EXP2_MAX = 1022;
+
+    /** (x + ROUND) - ROUND is x rounded to an integer for |x| &lt; 2^51 */
+    private static final double ROUND = 0x1.8p52;
+
+    /** asinh and acosh of arguments above this are calculated with the scalar functions, because x*x can overflow */
+    private static final double LARGE = 0x1p28;
+
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private static final FloatVector FLOAT_ONE = FloatVector.broadcast(FLOAT_SPECIES, 1.0f);
+
+    private static final FloatVector FLOAT_TWO = FloatVector.broadcast(FLOAT_SPECIES, 2.0f);
+
+    private static final FloatVector FLOAT_LOG_2 = FloatVector.broadcast(FLOAT_SPECIES, (float) FloatMathExt.LOG_2);
+
+    /** the bits of the mantissa of a float, which are 0 for powers of 2 */
+    private static final int FLOAT_MANTISSA_BITS = 0x007FFFFF;
+
+    /** bits of 2^23f */
+    private static final int FLOAT_BITS_2_23 = 0x4B000000;
+
+    @Override
+    public void sec(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            ONE.div(v.lanewise(VectorOperators.COS)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.sec(in[i]);
+        }
+    }
+
+    @Override
+    public void csc(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            ONE.div(v.lanewise(VectorOperators.SIN)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.csc(in[i]);
+        }
+    }
+
+    @Override
+    public void coth(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            ONE.div(v.lanewise(VectorOperators.TANH)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.coth(in[i]);
+        }
+    }
+
+    @Override
+    public void sech(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            ONE.div(v.lanewise(VectorOperators.COSH)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.sech(in[i]);
+        }
+    }
+
+    @Override
+    public void csch(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            ONE.div(v.lanewise(VectorOperators.SINH)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.csch(in[i]);
+        }
+    }
+
+    @Override
+    public void log2(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            if (!v.compare(VectorOperators.GE, Double.MIN_NORMAL).and(v.compare(VectorOperators.LE, Double.MAX_VALUE)).allTrue()) {
+                for (int j = i, end = i + SPECIES.length(); j < end; j++) {
+                    out[j] = FloatMathExt.log2(in[j]);
+                }
+                continue;
+            }
+            // the exponent of powers of 2, from the bits 2^52 + biased exponent without conversion from long
+            LongVector bits = v.reinterpretAsLongs();
+            DoubleVector k = bits.lanewise(VectorOperators.LSHR, 52).or(BITS_2_52).reinterpretAsDoubles().sub(0x1p52 + 1023);
+            v.lanewise(VectorOperators.LOG).mul(INV_LOG_2).blend(k, bits.and(MANTISSA_BITS).eq(0).cast(SPECIES)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.log2(in[i]);
+        }
+    }
+
+    @Override
+    public void exp2(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            if (!v.abs().compare(VectorOperators.LE, EXP2_MAX).allTrue()) {
+                for (int j = i, end = i + SPECIES.length(); j < end; j++) {
+                    out[j] = FloatMathExt.exp2(in[j]);
+                }
+                continue;
+            }
+            // 2^x = 2^n * exp((x - n)*log(2)) with n = rint(x), like FloatMathExt.exp2
+            // the lower bits of x + ROUND are n, so shifting n + 1023 into the exponent gives 2^n
+            DoubleVector r = v.add(ROUND);
+            DoubleVector n = r.sub(ROUND);
+            DoubleVector scale = r.reinterpretAsLongs().add(1023).lanewise(VectorOperators.LSHL, 52).reinterpretAsDoubles();
+            v.sub(n).mul(LOG_2).lanewise(VectorOperators.EXP).mul(scale).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.exp2(in[i]);
+        }
+    }
+
+    @Override
+    public void square(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            v.mul(v).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.square(in[i]);
+        }
+    }
+
+    @Override
+    public void cube(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            v.mul(v).mul(v).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.cube(in[i]);
+        }
+    }
+
+    @Override
+    public void sec(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            FLOAT_ONE.div(v.lanewise(VectorOperators.COS)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.secf(in[i]);
+        }
+    }
+
+    @Override
+    public void csc(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            FLOAT_ONE.div(v.lanewise(VectorOperators.SIN)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.cscf(in[i]);
+        }
+    }
+
+    @Override
+    public void coth(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            FLOAT_ONE.div(v.lanewise(VectorOperators.TANH)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.cothf(in[i]);
+        }
+    }
+
+    @Override
+    public void sech(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            // 1/cosh(x) would overflow in float for |x| > 89, so use 2*exp(-|x|)/(1 + exp(-2|x|))
+            FloatVector e = v.lanewise(VectorOperators.ABS).neg().lanewise(VectorOperators.EXP);
+            FLOAT_TWO.mul(e).div(FLOAT_ONE.add(e.mul(e))).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.sechf(in[i]);
+        }
+    }
+
+    @Override
+    public void csch(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            // like sech: 2*exp(-|x|)/(1 - exp(-2|x|)) with the sign of x, including -0
+            FloatVector a = v.lanewise(VectorOperators.ABS).neg();
+            FloatVector r = FLOAT_TWO.mul(a.lanewise(VectorOperators.EXP)).div(FLOAT_TWO.mul(a).lanewise(VectorOperators.EXPM1).neg());
+            r.blend(r.neg(), v.test(VectorOperators.IS_NEGATIVE)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.cschf(in[i]);
+        }
+    }
+
+    @Override
+    public void log2(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            if (!v.compare(VectorOperators.GE, Float.MIN_NORMAL).and(v.compare(VectorOperators.LE, Float.MAX_VALUE)).allTrue()) {
+                for (int j = i, end = i + FLOAT_SPECIES.length(); j < end; j++) {
+                    out[j] = FloatMathExt.log2f(in[j]);
+                }
+                continue;
+            }
+            // like for double: the exponent of powers of 2, from the bits 2^23 + biased exponent
+            IntVector bits = v.reinterpretAsInts();
+            FloatVector k = bits.lanewise(VectorOperators.LSHR, 23).or(FLOAT_BITS_2_23).reinterpretAsFloats().sub(0x1p23f + 127);
+            v.lanewise(VectorOperators.LOG).div(FLOAT_LOG_2).blend(k, bits.and(FLOAT_MANTISSA_BITS).eq(0).cast(FLOAT_SPECIES)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.log2f(in[i]);
+        }
+    }
+
+    @Override
+    public void exp2(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            FLOAT_TWO.lanewise(VectorOperators.POW, v).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.exp2f(in[i]);
+        }
+    }
+
+    @Override
+    public void square(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            v.mul(v).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.squaref(in[i]);
+        }
+    }
+
+    @Override
+    public void cube(float[] in, int off, int len, float[] out) {
+        int i = off;
+        for (int bound = off + FLOAT_SPECIES.loopBound(len); i < bound; i += FLOAT_SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(FLOAT_SPECIES, in, i);
+            v.mul(v).mul(v).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FloatMathExt.cubef(in[i]);
+        }
+    }
+
+    @Override
+    public void fastCot(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            ONE.div(v.lanewise(VectorOperators.TAN)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FastFloatMath.cot(in[i]);
+        }
+    }
+
+    /** asinh(|x|) = log1p(|x| + x^2/(1 + sqrt(1 + x^2))) like FastFloatMath.asinh */
+    @Override
+    public void fastAsinh(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            DoubleVector a = v.abs();
+            if (a.compare(VectorOperators.GT, LARGE).anyTrue()) {
+                for (int j = i, end = i + SPECIES.length(); j < end; j++) {
+                    out[j] = FastFloatMath.asinh(in[j]);
+                }
+                continue;
+            }
+            DoubleVector t = a.mul(a);
+            DoubleVector r = a.add(t.div(ONE.add(ONE.add(t).sqrt()))).lanewise(VectorOperators.LOG1P);
+            r.blend(r.neg(), v.test(VectorOperators.IS_NEGATIVE)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FastFloatMath.asinh(in[i]);
+        }
+    }
+
+    /** acosh(x) = log1p(t + sqrt(t)*sqrt(t + 2)) with t = x - 1, NaN for x &lt; 1 */
+    @Override
+    public void fastAcosh(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            if (v.compare(VectorOperators.GT, LARGE).anyTrue()) {
+                for (int j = i, end = i + SPECIES.length(); j < end; j++) {
+                    out[j] = FastFloatMath.acosh(in[j]);
+                }
+                continue;
+            }
+            DoubleVector t = v.sub(ONE);
+            t.add(t.sqrt().mul(t.add(TWO).sqrt())).lanewise(VectorOperators.LOG1P).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FastFloatMath.acosh(in[i]);
+        }
+    }
+
+    /** atanh(|x|) = log1p(2|x| + 2x^2/(1 - |x|))/2, NaN for |x| &gt;= 1 */
+    @Override
+    public void fastAtanh(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            DoubleVector a = v.abs();
+            DoubleVector t = a.add(a);
+            DoubleVector r = t.add(t.mul(a).div(ONE.sub(a))).lanewise(VectorOperators.LOG1P).mul(HALF);
+            r = r.blend(r.neg(), v.test(VectorOperators.IS_NEGATIVE));
+            r.blend(NAN, a.compare(VectorOperators.GE, 1.0)).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FastFloatMath.atanh(in[i]);
+        }
+    }
+
+    @Override
+    public void fastExp10(double[] in, int off, int len, double[] out) {
+        int i = off;
+        for (int bound = off + SPECIES.loopBound(len); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, in, i);
+            TEN.lanewise(VectorOperators.POW, v).intoArray(out, i);
+        }
+        for (int end = off + len; i < end; i++) {
+            out[i] = FastFloatMath.exp10(in[i]);
+        }
+    }
+}
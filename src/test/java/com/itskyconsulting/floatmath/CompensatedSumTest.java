@@ -0,0 +1,90 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for CompensatedSum
+ */
+public class CompensatedSumTest {
+
+    @Test
+    public void testAddSameAsSum() {
+        double[] arr = { 1e16, 1.0, -1e16, 3.0, 1e-3, 7e15, -7e15 };
+        CompensatedSum s = new CompensatedSum();
+        for (double x : arr) {
+            s.add(x);
+        }
+        assertEquals(FloatCollectionMath.sum(arr), s.sum, 0);
+        CompensatedSum t = new CompensatedSum();
+        t.add(arr, 0, arr.length);
+        assertEquals(s.sum, t.sum, 0);
+        assertEquals(s.correction, t.correction, 0);
+    }
+
+    /** merging keeps the corrections: 1e16 + 1 + 1 is 1e16+2, which naive addition of the partial sums would lose */
+    @Test
+    public void testMergeKeepsCorrection() {
+        CompensatedSum a = new CompensatedSum();
+        a.add(1e16);
+        a.add(1.0);
+        CompensatedSum b = new CompensatedSum();
+        b.add(1.0);
+        a.add(b);
+        assertEquals(1e16 + 2, a.sum, 0);
+    }
+
+    @Test
+    public void testMergeRandom() {
+        Random random = new Random(17);
+        for (int k = 0; k < 100; k++) {
+            int n = 1 + random.nextInt(1000);
+            double[] arr = new double[n];
+            BigDecimal exact = BigDecimal.ZERO;
+            double absSum = 0;
+            for (int i = 0; i < n; i++) {
+                arr[i] = (random.nextDouble() - 0.5) * Math.pow(2, random.nextInt(80));
+                exact = exact.add(new BigDecimal(arr[i]));
+                absSum += Math.abs(arr[i]);
+            }
+            int split = random.nextInt(n + 1);
+            CompensatedSum a = new CompensatedSum();
+            a.add(arr, 0, split);
+            CompensatedSum b = new CompensatedSum();
+            b.add(arr, split, n);
+            a.add(b);
+            double expected = exact.doubleValue();
+            // error bound of compensated summation: about 2*eps*sum(|x|)
+            assertEquals("k=" + k, expected, a.sum, 2 * Math.ulp(absSum) + Math.ulp(expected));
+        }
+    }
+
+    @Test
+    public void testMergeInfinity() {
+        CompensatedSum a = new CompensatedSum();
+        a.add(Double.POSITIVE_INFINITY);
+        CompensatedSum b = new CompensatedSum();
+        b.add(1.0);
+        a.add(b);
+        assertEquals(Double.POSITIVE_INFINITY, a.sum, 0);
+        a.add(1.0);
+        assertEquals(Double.POSITIVE_INFINITY, a.sum, 0);
+        CompensatedSum c = new CompensatedSum();
+        c.add(Double.NEGATIVE_INFINITY);
+        a.add(c);
+        assertTrue(Double.isNaN(a.sum));
+    }
+}
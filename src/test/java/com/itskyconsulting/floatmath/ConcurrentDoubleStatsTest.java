@@ -0,0 +1,155 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ConcurrentDoubleStats
+ */
+public class ConcurrentDoubleStatsTest {
+
+    private static ConcurrentDoubleStats of(double ... arr) {
+        ConcurrentDoubleStats stats = new ConcurrentDoubleStats();
+        for (double x : arr) {
+            stats.accept(x);
+        }
+        return stats;
+    }
+
+    @Test
+    public void testEmpty() {
+        ConcurrentDoubleStats.Snapshot s = new ConcurrentDoubleStats().snapshot();
+        assertEquals(0, s.getCount());
+        assertEquals(0.0, s.getSum(), 0);
+        assertEquals(Double.POSITIVE_INFINITY, s.getMin(), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, s.getMax(), 0);
+        assertTrue(Double.isNaN(s.getMean()));
+        assertTrue(Double.isNaN(s.getVariance()));
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        Random random = new Random(24);
+        double[] arr = new double[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = random.nextGaussian() * 10 + 3;
+        }
+        ConcurrentDoubleStats.Snapshot s = of(arr).snapshot();
+        MomentsAccumulator moments = new MomentsAccumulator();
+        moments.acceptAll(arr);
+        assertEquals(arr.length, s.getCount());
+        assertEquals(FloatCollectionMath.sum(arr), s.getSum(), 1e-12);
+        assertEquals(FloatCollectionMath.min(arr), s.getMin(), 0);
+        assertEquals(FloatCollectionMath.max(arr), s.getMax(), 0);
+        assertEquals(moments.getMean(), s.getMean(), 1e-14);
+        assertEquals(moments.getVariance(), s.getVariance(), 1e-12);
+        assertEquals(moments.getStandardDeviation(), s.getStandardDeviation(), 1e-13);
+    }
+
+    /** a large mean does not cancel the variance */
+    @Test
+    public void testLargeMean() {
+        ConcurrentDoubleStats.Snapshot s = of(1e9 + 2, 1e9 + 4, 1e9 + 4, 1e9 + 4, 1e9 + 5, 1e9 + 5, 1e9 + 7, 1e9 + 9).snapshot();
+        assertEquals(1e9 + 5, s.getMean(), 0);
+        assertEquals(32.0 / 7, s.getVariance(), 1e-15);
+    }
+
+    /** min and max like FloatCollectionMath, NaN wins and -0.0 is smaller than 0.0 */
+    @Test
+    public void testMinMaxSemantics() {
+        double[][] cases = { { 0.0, -0.0 }, { -0.0, 0.0 }, { 1.0, Double.NaN, 2.0 }, { Double.NaN },
+                             { Double.NEGATIVE_INFINITY, 5.0 } };
+        for (double[] arr : cases) {
+            ConcurrentDoubleStats.Snapshot s = of(arr).snapshot();
+            assertEquals(Double.doubleToLongBits(FloatCollectionMath.min(arr)), Double.doubleToLongBits(s.getMin()));
+            assertEquals(Double.doubleToLongBits(FloatCollectionMath.max(arr)), Double.doubleToLongBits(s.getMax()));
+        }
+    }
+
+    @Test
+    public void testInfinite() {
+        ConcurrentDoubleStats.Snapshot s = of(1.0, Double.POSITIVE_INFINITY, 2.0).snapshot();
+        assertEquals(Double.POSITIVE_INFINITY, s.getSum(), 0);
+        assertEquals(Double.POSITIVE_INFINITY, s.getMean(), 0);
+        assertEquals(Double.POSITIVE_INFINITY, s.getMax(), 0);
+        assertTrue(Double.isNaN(of(1.0, Double.NaN).snapshot().getSum()));
+    }
+
+    @Test
+    public void testSnapshotAndReset() {
+        ConcurrentDoubleStats stats = of(1.0, 2.0, 3.0);
+        ConcurrentDoubleStats.Snapshot s = stats.snapshotAndReset();
+        assertEquals(3, s.getCount());
+        assertEquals(2.0, s.getMean(), 0);
+        assertEquals(0, stats.snapshot().getCount());
+        stats.accept(10.0);
+        assertEquals(10.0, stats.snapshot().getMax(), 0);
+    }
+
+    /** values recorded by many threads during snapshotAndReset are counted exactly once */
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        int threads = 6;
+        int n = 50000;
+        ConcurrentDoubleStats stats = new ConcurrentDoubleStats();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < n; i++) {
+                        stats.accept(id + 1.0);
+                    }
+                } catch (Throwable e) {
+                    failed.set(true);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        long count = 0;
+        double sum = 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread w : workers) {
+                running |= w.isAlive();
+            }
+            ConcurrentDoubleStats.Snapshot s = stats.snapshotAndReset();
+            count += s.getCount();
+            sum += s.getSum();
+            min = Math.min(min, s.getMin());
+            max = Math.max(max, s.getMax());
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        ConcurrentDoubleStats.Snapshot rest = stats.snapshot();
+        count += rest.getCount();
+        sum += rest.getSum();
+        assertFalse(failed.get());
+        assertEquals((long) threads * n, count);
+        assertEquals((double) n * threads * (threads + 1) / 2, sum, 0);
+        assertEquals(1.0, min, 0);
+        assertEquals(threads, max, 0);
+    }
+}
@@ -0,0 +1,137 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for DoubleArrayExpr
+ */
+public class DoubleArrayExprTest {
+
+    private static double[] random(long seed, int n) {
+        Random random = new Random(seed);
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = (random.nextDouble() - 0.5) * 720;
+        }
+        return result;
+    }
+
+    /** the same as the bulk functions and FloatCollectionMath on temporary arrays, also for incomplete blocks */
+    @Test
+    public void testMapAndReductions() {
+        for (int n : new int[] { 0, 1, 1000, DoubleArrayExpr.BLOCK_SIZE, 5 * DoubleArrayExpr.BLOCK_SIZE + 17 }) {
+            double[] data = random(20, n);
+            double[] mapped = data.clone();
+            FloatMathExt.sind(mapped, 0, n);
+            DoubleArrayExpr e = DoubleArrayExpr.of(data).map(FloatFunction.SIND);
+            assertArrayEquals(mapped, e.toArray(), 0.0);
+            assertEquals(FloatCollectionMath.sum(mapped), e.sum(), 0.0);
+            assertEquals(FloatCollectionMath.arithmeticMean(mapped), e.arithmeticMean(), 0.0);
+            assertEquals(FloatCollectionMath.min(mapped), e.min(), 0.0);
+            assertEquals(FloatCollectionMath.max(mapped), e.max(), 0.0);
+            assertEquals(n, e.count());
+
+            MeanAccumulator expected = new MeanAccumulator();
+            expected.acceptAll(mapped);
+            MeanAccumulator means = e.means();
+            assertEquals(expected.getCount(), means.getCount());
+            assertEquals(expected.getGeometricMean(), means.getGeometricMean(), 0.0);
+            assertEquals(expected.getQuadraticMean(), means.getQuadraticMean(), 0.0);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        DoubleArrayExpr e = DoubleArrayExpr.of();
+        assertEquals(0.0, e.sum(), 0.0);
+        assertEquals(Double.NaN, e.arithmeticMean(), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, e.min(), 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY, e.max(), 0.0);
+        assertEquals(0, e.toArray().length);
+    }
+
+    @Test
+    public void testChain() {
+        double[] data = random(21, 3000);
+        double[] other = random(22, 3000);
+        CompiledExpression square = Expression.x().apply(FloatFunction.SQUARE).compile();
+        double[] result = DoubleArrayExpr.of(data)
+            .map(FloatFunction.COSD)
+            .zip(DoubleArrayExpr.of(other).map(square), (a, b) -> a + b)
+            .map(x -> x / 2)
+            .filter(x -> x > 100)
+            .toArray();
+        double[] expected = Arrays.stream(data)
+            .map(FloatMathExt::cosd)
+            .toArray();
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (expected[i] + FloatMathExt.square(other[i])) / 2;
+        }
+        expected = Arrays.stream(expected).filter(x -> x > 100).toArray();
+        assertTrue(expected.length > 100 && expected.length < 2900);
+        assertArrayEquals(expected, result, 0.0);
+    }
+
+    @Test
+    public void testPartOfArray() {
+        double[] data = random(23, 100);
+        assertArrayEquals(Arrays.copyOfRange(data, 10, 60), DoubleArrayExpr.of(data, 10, 50).toArray(), 0.0);
+    }
+
+    /** expressions are lazy, evaluating them again sees the changed array */
+    @Test
+    public void testLazy() {
+        double[] data = { 1, 2, 3 };
+        DoubleArrayExpr e = DoubleArrayExpr.of(data).map(FloatFunction.SQUARE);
+        assertEquals(14.0, e.sum(), 0.0);
+        data[0] = 4;
+        assertEquals(29.0, e.sum(), 0.0);
+    }
+
+    /** parallel terminal operations give the same result, only the sum can differ by rounding */
+    @Test
+    public void testParallel() {
+        int n = 10 * FloatCollectionMath.PARALLEL_SUM_THRESHOLD + 123;
+        double[] data = random(24, n);
+        DoubleArrayExpr e = DoubleArrayExpr.of(data).map(FloatFunction.SIND).filter(x -> x > -0.5);
+        DoubleArrayExpr p = e.parallel();
+        assertTrue(p.isParallel());
+        assertFalse(p.sequential().isParallel());
+        assertArrayEquals(e.toArray(), p.toArray(), 0.0);
+        assertEquals(e.count(), p.count());
+        assertEquals(e.min(), p.min(), 0.0);
+        assertEquals(e.max(), p.max(), 0.0);
+        assertEquals(e.sum(), p.sum(), 1e-9);
+        assertEquals(e.means().getHarmonicMean(), p.means().getHarmonicMean(), 1e-12);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testZipFiltered() {
+        double[] data = random(25, 10);
+        DoubleArrayExpr.of(data).filter(x -> x > 0).zip(data, (a, b) -> a * b);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZipDifferentLengths() {
+        DoubleArrayExpr.of(new double[10]).zip(new double[11], (a, b) -> a * b);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfRange() {
+        DoubleArrayExpr.of(new double[10], 5, 6);
+    }
+}
@@ -0,0 +1,184 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ExactSum
+ */
+public class ExactSumTest {
+
+    /** the sum of ExactSum, which FloatCollectionMath.exactSum must give as well, with or without its fast path */
+    private static double sum(double ... arr) {
+        ExactSum s = new ExactSum();
+        s.acceptAll(arr);
+        double result = s.sum();
+        assertBitwiseEquals("exactSum", result, FloatCollectionMath.exactSum(arr));
+        return result;
+    }
+
+    /** the exact sum, rounded half to even by BigDecimal.doubleValue */
+    private static double bigDecimalSum(double[] arr) {
+        BigDecimal result = BigDecimal.ZERO;
+        for (double x : arr) {
+            result = result.add(new BigDecimal(x));
+        }
+        return result.doubleValue();
+    }
+
+    private static void assertBitwiseEquals(String message, double expected, double actual) {
+        assertEquals(message, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+
+    /** values of all magnitudes and both signs, including subnormal ones */
+    private static double[] values(int n, long seed) {
+        Random random = new Random(seed);
+        double[] arr = new double[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = Math.scalb(random.nextDouble() - 0.5, random.nextInt(2080) - 1070);
+        }
+        return arr;
+    }
+
+    /** large values that cancel, so the sum depends on the small ones */
+    private static double[] cancelling(int n, long seed) {
+        Random random = new Random(seed);
+        double[] arr = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            double large = Math.scalb(random.nextDouble(), random.nextInt(200));
+            arr[2 * i] = large;
+            arr[2 * i + 1] = -large + Math.scalb(random.nextDouble() - 0.5, random.nextInt(60) - 100);
+        }
+        return arr;
+    }
+
+    @Test
+    public void testSimple() {
+        assertEquals(0.0, new ExactSum().sum(), 0);
+        assertEquals(6.0, sum(1, 2, 3), 0);
+        assertEquals(-6.0, sum(-1, -2, -3), 0);
+        assertEquals(1.0, sum(1e100, 1.0, -1e100), 0);
+        assertEquals(-1.0, sum(-1e100, -1.0, 1e100), 0);
+        assertEquals(2.0, sum(1e16, 1.0, 1.0, -1e16), 0);
+        assertEquals(0.1, sum(0.0, -0.0, 0.1), 0);
+        assertBitwiseEquals("0", 0.0, sum(Double.MAX_VALUE, Double.MIN_VALUE, -Double.MAX_VALUE, -Double.MIN_VALUE));
+        assertEquals(Double.MIN_VALUE, sum(Double.MAX_VALUE, Double.MIN_VALUE, -Double.MAX_VALUE), 0);
+    }
+
+    /** ties are rounded to even, also if the bit that decides it is far below the others */
+    @Test
+    public void testRounding() {
+        double ulp = Math.ulp(1.0);
+        assertEquals(1.0, sum(1.0, ulp / 2), 0);
+        assertEquals(1.0 + 2 * ulp, sum(1.0 + ulp, ulp / 2), 0);
+        assertEquals(1.0 + ulp, sum(1.0, ulp / 2, Double.MIN_VALUE), 0);
+        assertEquals(1.0, sum(1.0, ulp / 2, -Double.MIN_VALUE), 0);
+        assertEquals(-1.0 - ulp, sum(-1.0, -ulp / 2, -1e-300), 0);
+        // a subnormal sum is exact
+        assertEquals(Double.MIN_NORMAL - Double.MIN_VALUE, sum(Double.MIN_NORMAL, -Double.MIN_VALUE), 0);
+    }
+
+    @Test
+    public void testOverflow() {
+        assertEquals(Double.POSITIVE_INFINITY, sum(Double.MAX_VALUE, Double.MAX_VALUE), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, sum(-Double.MAX_VALUE, -Double.MAX_VALUE), 0);
+        // intermediate sums beyond the range of double do not matter
+        assertEquals(Double.MAX_VALUE, sum(Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE), 0);
+        double halfUlp = Math.ulp(Double.MAX_VALUE) / 2;
+        assertEquals(Double.POSITIVE_INFINITY, sum(Double.MAX_VALUE, halfUlp), 0);
+        assertEquals(Double.MAX_VALUE, sum(Double.MAX_VALUE, halfUlp, -Double.MIN_VALUE), 0);
+    }
+
+    @Test
+    public void testSpecialValues() {
+        assertEquals(Double.POSITIVE_INFINITY, sum(1, Double.POSITIVE_INFINITY, -1e300), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, sum(1, Double.NEGATIVE_INFINITY), 0);
+        assertTrue(Double.isNaN(sum(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY)));
+        assertTrue(Double.isNaN(sum(1, Double.NaN, 2)));
+    }
+
+    /** correctly rounded, compared with BigDecimal */
+    @Test
+    public void testAgainstBigDecimal() {
+        for (int seed = 0; seed < 20; seed++) {
+            double[] arr = values(1000, seed);
+            assertBitwiseEquals("seed=" + seed, bigDecimalSum(arr), sum(arr));
+            double[] c = cancelling(500, seed);
+            assertBitwiseEquals("seed=" + seed, bigDecimalSum(c), sum(c));
+        }
+    }
+
+    @Test
+    public void testOrderDoesNotMatter() {
+        double[] arr = cancelling(5000, 30);
+        double expected = sum(arr);
+        double[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        assertBitwiseEquals("sorted", expected, sum(sorted));
+        double[] reversed = new double[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            reversed[i] = arr[arr.length - 1 - i];
+        }
+        assertBitwiseEquals("reversed", expected, sum(reversed));
+    }
+
+    /** the carries are propagated in time, even if every value adds to the same chunks */
+    @Test
+    public void testManyValues() {
+        ExactSum s = new ExactSum();
+        int n = ExactSum.NORMALIZE_INTERVAL + 1000;
+        double x = Math.nextDown(1.0);
+        for (int i = 0; i < n; i++) {
+            s.accept(x);
+        }
+        assertEquals(new BigDecimal(x).multiply(BigDecimal.valueOf(n)).doubleValue(), s.sum(), 0);
+    }
+
+    @Test
+    public void testCombine() {
+        double[] arr = cancelling(3000, 31);
+        ExactSum a = new ExactSum();
+        ExactSum b = new ExactSum();
+        a.acceptAll(arr, 0, 1001);
+        b.acceptAll(arr, 1001, arr.length - 1001);
+        a.combine(b);
+        assertBitwiseEquals("combined", sum(arr), a.sum());
+        // adding more after sum() and combine()
+        a.accept(1.0);
+        a.combine(new ExactSum());
+        assertEquals(sum(arr) + 1.0, a.sum(), Math.ulp(1.0));
+    }
+
+    @Test
+    public void testParallel() {
+        double[] arr = cancelling(3 * FloatCollectionMath.PARALLEL_SUM_THRESHOLD + 17, 32);
+        double expected = bigDecimalSum(arr);
+        assertBitwiseEquals("sequential", expected, FloatCollectionMath.exactSum(arr));
+        assertBitwiseEquals("parallel", expected, FloatCollectionMath.parallelExactSum(arr));
+        List<Double> list = Arrays.stream(arr).boxed().collect(Collectors.toList());
+        assertBitwiseEquals("stream", expected, list.parallelStream().collect(ExactSum.collector()));
+        assertBitwiseEquals("collect", expected,
+                            Arrays.stream(arr).parallel().collect(ExactSum::new, ExactSum::accept, ExactSum::combine).sum());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfRange() {
+        new ExactSum().acceptAll(new double[10], 5, 6);
+    }
+}
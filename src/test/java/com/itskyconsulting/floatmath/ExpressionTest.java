@@ -0,0 +1,133 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static com.itskyconsulting.floatmath.Expression.constant;
+import static com.itskyconsulting.floatmath.Expression.x;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for Expression and CompiledExpression
+ */
+public class ExpressionTest {
+
+    private static double[] arguments(long seed, int n, double range) {
+        Random random = new Random(seed);
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = (random.nextDouble() - 0.5) * range;
+        }
+        return result;
+    }
+
+    /** the tree, the compiled expression and its bulk version give exactly the hand-written result */
+    private static void check(Expression e, DoubleUnaryOperator expected, double[] in) {
+        CompiledExpression compiled = e.compile();
+        double[] out = new double[in.length];
+        compiled.apply(in, 0, in.length, out);
+        for (int i = 0; i < in.length; i++) {
+            double x = in[i];
+            double y = expected.applyAsDouble(x);
+            assertEquals(e + " x=" + x, y, e.applyAsDouble(x), 0.0);
+            assertEquals(e + " x=" + x, y, compiled.applyAsDouble(x), 0.0);
+            assertEquals(e + " x=" + x, y, out[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testComposedFunctions() {
+        double[] in = arguments(19, 1000, 20);
+        check(x().apply(FloatFunction.COTH).multiply(3).apply(FloatFunction.ACOTD),
+              x -> FloatMathExt.acotd(FloatMathExt.coth(x) * 3), in);
+        check(x().apply(FloatFunction.SEC).apply(FloatFunction.LOG2),
+              x -> FloatMathExt.log2(FloatMathExt.sec(x)), in);
+        check(x().apply(FloatFunction.SIND).multiply(x().apply(FloatFunction.COSD)),
+              x -> FloatMathExt.sind(x) * FloatMathExt.cosd(x), in);
+        check(x().subtract(1).divide(x().add(1)).apply(FloatFunction.ATANH),
+              x -> FloatMathExt.atanh((x - 1) / (x + 1)), in);
+    }
+
+    @Test
+    public void testConstantsAndOperators() {
+        double[] in = arguments(20, 100, 10);
+        check(x(), x -> x, in);
+        check(constant(2.5), x -> 2.5, in);
+        check(x().negate(), x -> -x, in);
+        check(constant(1).divide(x().multiply(x())), x -> 1 / (x * x), in);
+        check(x().add(x()).subtract(constant(0.5).multiply(x())), x -> (x + x) - 0.5 * x, in);
+    }
+
+    /** negate changes the sign of zero like -x, which assertEquals with a delta does not check */
+    @Test
+    public void testNegateSignedZero() {
+        Expression e = x().negate();
+        CompiledExpression compiled = e.compile();
+        double[] in = { 0.0, -0.0 };
+        double[] out = new double[2];
+        compiled.apply(in, 0, 2, out);
+        for (int i = 0; i < in.length; i++) {
+            long expected = Double.doubleToRawLongBits(-in[i]);
+            String str = "x=" + in[i];
+            assertEquals(str, expected, Double.doubleToRawLongBits(e.applyAsDouble(in[i])));
+            assertEquals(str, expected, Double.doubleToRawLongBits(compiled.applyAsDouble(in[i])));
+            assertEquals(str, expected, Double.doubleToRawLongBits(out[i]));
+        }
+    }
+
+    /** other functions than those of FloatMathExt */
+    @Test
+    public void testOtherFunctions() {
+        double[] in = arguments(21, 100, 10);
+        check(x().apply(Math::abs).apply(Math::sqrt).apply(FloatFunction.ASINH),
+              x -> FloatMathExt.asinh(Math.sqrt(Math.abs(x))), in);
+        check(x().apply(FloatFunction.CUBE.andThen(FloatFunction.SECH)),
+              x -> FloatMathExt.sech(FloatMathExt.cube(x)), in);
+    }
+
+    @Test
+    public void testPartialAndInPlace() {
+        CompiledExpression compiled = x().apply(FloatFunction.COTH).multiply(3).apply(FloatFunction.ACOTD).compile();
+        double[] in = arguments(22, 37, 20);
+        double[] out = new double[in.length];
+        compiled.apply(in, 3, 30, out);
+        double[] arr = in.clone();
+        compiled.apply(arr, 3, 30);
+        for (int i = 0; i < in.length; i++) {
+            boolean inside = i >= 3 && i < 33;
+            double expected = FloatMathExt.acotd(FloatMathExt.coth(in[i]) * 3);
+            assertEquals("i=" + i, inside ? expected : 0.0, out[i], 0.0);
+            assertEquals("i=" + i, inside ? expected : in[i], arr[i], 0.0);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testShortOutput() {
+        x().apply(FloatFunction.SECH).compile().apply(new double[10], 0, 10, new double[9]);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullFunction() {
+        x().apply(null);
+    }
+
+    @Test
+    public void testToString() {
+        Expression e = x().apply(FloatFunction.COTH).multiply(3).apply(FloatFunction.ACOTD);
+        assertEquals("acotd(coth(x) * 3.0)", e.toString());
+        assertEquals("acotd(coth(x) * 3.0)", e.compile().toString());
+        assertSame(e, e.compile().getExpression());
+        assertEquals("log2(sec(x))", x().apply(FloatFunction.SEC).apply(FloatFunction.LOG2).toString());
+    }
+}
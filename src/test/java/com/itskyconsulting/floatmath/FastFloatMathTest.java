@@ -0,0 +1,364 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for FastFloatMath
+ *
+ * The functions are compared with exact references calculated with BigDecimal (40 digits), so the allowed
+ * difference is the documented error bound. The bulk versions are allowed 4 ulps if they use the SIMD kernels.
+ */
+public class FastFloatMathTest {
+
+    private interface BulkFunction {
+        void apply(double[] in, int off, int len, double[] out);
+    }
+
+    private interface InPlaceFunction {
+        void apply(double[] arr, int off, int len);
+    }
+
+    private static final double[] SPECIALS = {
+        0.0, -0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, 1.0, -1.0, 2.0, 1e300, -1e300,
+        Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN
+    };
+
+    /** error bound of the bulk versions with the SIMD kernels, like VECTOR_ULPS in FloatMathExtTest */
+    private static final double VECTOR_ULPS = 4;
+
+    private static final MathContext MC = new MathContext(40, RoundingMode.HALF_EVEN);
+
+    private static final BigDecimal ONE = BigDecimal.ONE;
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    /** pi with 60 digits, enough for the reduction of the arguments of the trigonometric functions, |x| &lt; 1e6 */
+    private static final BigDecimal PI = new BigDecimal("3.14159265358979323846264338327950288419716939937510582097494");
+    private static final BigDecimal HALF_PI = PI.divide(TWO);
+
+    private static final BigDecimal LN2 = log1p(ONE);
+    private static final BigDecimal LN10 = log(BigDecimal.TEN);
+
+    /** x + x^3/3 + x^5/5 + ... = atanh(x) for |x| &lt;= 1/3 */
+    private static BigDecimal atanhSeries(BigDecimal x) {
+        BigDecimal x2 = x.multiply(x, MC);
+        BigDecimal power = x;
+        BigDecimal sum = x;
+        BigDecimal eps = x.abs().movePointLeft(MC.getPrecision() + 2);
+        for (int n = 1; power.abs().compareTo(eps) > 0; n++) {
+            power = power.multiply(x2, MC);
+            sum = sum.add(power.divide(BigDecimal.valueOf(2 * n + 1), MC), MC);
+        }
+        return sum;
+    }
+
+    /** log(1 + y) = 2 atanh(y/(2 + y)) for 0 &lt;= y &lt;= 1, also accurate for tiny y */
+    private static BigDecimal log1p(BigDecimal y) {
+        return atanhSeries(y.divide(TWO.add(y), MC)).multiply(TWO, MC);
+    }
+
+    /** log(x) for x &gt; 0, x = m * 2^k with m near 1 */
+    private static BigDecimal log(BigDecimal x) {
+        int k = Math.getExponent(x.doubleValue());
+        BigDecimal m = (k >= 0) ? x.divide(TWO.pow(k)) : x.multiply(TWO.pow(-k));
+        return log1p(m.subtract(ONE)).add(LN2.multiply(BigDecimal.valueOf(k)), MC);
+    }
+
+    /** sqrt(x) for x &gt;= 0 with Newton's method, starting with the double square root */
+    private static BigDecimal sqrt(BigDecimal x) {
+        if (x.signum() == 0) {
+            return x;
+        }
+        BigDecimal r = new BigDecimal(Math.sqrt(x.doubleValue()));
+        for (int i = 0; i < 3; i++) {
+            r = r.add(x.divide(r, MC)).multiply(HALF);
+        }
+        return r.round(MC);
+    }
+
+    /** exp(x) for |x| &lt; 2000, with the Taylor series of x/2^s and s squarings */
+    private static BigDecimal exp(BigDecimal x) {
+        int s = 0;
+        BigDecimal r = x;
+        while (r.abs().compareTo(HALF) > 0) {
+            r = r.multiply(HALF);
+            s++;
+        }
+        MathContext mc = new MathContext(MC.getPrecision() + s);
+        BigDecimal term = ONE;
+        BigDecimal sum = ONE;
+        BigDecimal eps = ONE.movePointLeft(mc.getPrecision() + 2);
+        for (int n = 1; term.abs().compareTo(eps) > 0; n++) {
+            term = term.multiply(r, mc).divide(BigDecimal.valueOf(n), mc);
+            sum = sum.add(term, mc);
+        }
+        for (int i = 0; i < s; i++) {
+            sum = sum.multiply(sum, mc);
+        }
+        return sum.round(MC);
+    }
+
+    /** sin(x) or cos(x) for first = 1 or 0, after the reduction modulo pi/2 */
+    private static BigDecimal sinCos(double x, int first) {
+        BigDecimal bx = new BigDecimal(x);
+        BigDecimal q = bx.divide(HALF_PI, MC).setScale(0, RoundingMode.HALF_EVEN);
+        BigDecimal r = bx.subtract(HALF_PI.multiply(q)).round(MC);
+        int quadrant = (q.intValueExact() + 1 - first) & 3;
+        BigDecimal r2 = r.multiply(r, MC);
+        BigDecimal term = (quadrant % 2 == 0) ? r : ONE;
+        BigDecimal sum = term;
+        BigDecimal eps = ONE.movePointLeft(2 * MC.getPrecision());
+        for (int n = 2 - quadrant % 2; term.abs().compareTo(eps) > 0; n += 2) {
+            term = term.multiply(r2, MC).divide(BigDecimal.valueOf((long) n * (n + 1)), MC).negate();
+            sum = sum.add(term, MC);
+        }
+        return (quadrant >= 2) ? sum.negate() : sum;
+    }
+
+    private static BigDecimal sin(double x) {
+        return sinCos(x, 1);
+    }
+
+    private static BigDecimal cos(double x) {
+        return sinCos(x, 0);
+    }
+
+    /** log1p(u) for the exact u &gt;= 0, with the sign of x */
+    private static BigDecimal log1pWithSign(BigDecimal u, double x) {
+        BigDecimal r = (u.compareTo(ONE) <= 0) ? log1p(u) : log(ONE.add(u));
+        return (x < 0) ? r.negate() : r;
+    }
+
+    /** exact asinh(x) = log1p(a + a^2/(1 + sqrt(1 + a^2))) */
+    private static BigDecimal asinh(double x) {
+        BigDecimal a = new BigDecimal(Math.abs(x));
+        BigDecimal a2 = a.multiply(a);
+        BigDecimal u = a.add(a2.divide(ONE.add(sqrt(ONE.add(a2))), MC));
+        return log1pWithSign(u, x);
+    }
+
+    /** exact acosh(x) = log1p(t + sqrt(2t + t^2)) with t = x - 1, null for x &lt; 1 */
+    private static BigDecimal acosh(double x) {
+        if (!(x >= 1)) {
+            return null;
+        }
+        BigDecimal t = new BigDecimal(x).subtract(ONE);
+        return log1pWithSign(t.add(sqrt(t.multiply(TWO.add(t)))), x);
+    }
+
+    /** exact atanh(x) = log1p(2a/(1 - a))/2, null for |x| &gt;= 1 */
+    private static BigDecimal atanh(double x) {
+        if (!(Math.abs(x) < 1)) {
+            return null;
+        }
+        BigDecimal a = new BigDecimal(Math.abs(x));
+        return log1pWithSign(a.multiply(TWO).divide(ONE.subtract(a), MC), x).multiply(HALF);
+    }
+
+    /**
+     * check that found is within maxUlps of the exact value, in ulps of the exact value rounded to double,
+     * null for NaN
+     */
+    private static void assertUlps(String s, BigDecimal exact, double found, double maxUlps) {
+        if (exact == null) {
+            assertTrue(s + " found=" + found, Double.isNaN(found));
+            return;
+        }
+        double expected = exact.doubleValue();
+        if (Double.isInfinite(expected)) {
+            assertEquals(s, expected, found, 0.0);
+            return;
+        }
+        assertFalse(s + " found=" + found, Double.isNaN(found) || Double.isInfinite(found));
+        double error = new BigDecimal(found).subtract(exact).abs().divide(new BigDecimal(Math.ulp(expected)), MC).doubleValue();
+        assertTrue(s + " expected=" + expected + " found=" + found + " error=" + error + " ulps", error <= maxUlps);
+    }
+
+    /** random arguments: count values uniform in [lo, hi) and count values lo + 2^-k*(hi - lo) */
+    private static double[] arguments(long seed, int count, double lo, double hi) {
+        Random random = new Random(seed);
+        double[] result = new double[2 * count];
+        for (int i = 0; i < count; i++) {
+            result[i] = lo + random.nextDouble() * (hi - lo);
+            result[count + i] = lo + Math.scalb(random.nextDouble(), -random.nextInt(50)) * (hi - lo);
+        }
+        return result;
+    }
+
+    /**
+     * check f and the bulk versions against the exact reference for all args, the bulk versions with VECTOR_ULPS
+     * if they use the SIMD kernels, and the special values against ext
+     */
+    private static void check(String name, DoubleUnaryOperator f, DoubleFunction<BigDecimal> reference, DoubleUnaryOperator ext,
+                              BulkFunction bulk, InPlaceFunction inPlace, double[] args, double maxUlps) {
+        int n = args.length;
+        BigDecimal[] exact = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            exact[i] = reference.apply(args[i]);
+            assertUlps(name + "(" + args[i] + ")", exact[i], f.applyAsDouble(args[i]), maxUlps);
+        }
+        double bulkUlps = (FloatMathExt.VECTOR_KERNELS != null) ? Math.max(maxUlps, VECTOR_ULPS) : maxUlps;
+        int off = 3;
+        int len = n - 8;
+        double[] out = new double[n];
+        Arrays.fill(out, -7.0);
+        bulk.apply(args, off, len, out);
+        double[] arr = args.clone();
+        inPlace.apply(arr, off, len);
+        for (int i = 0; i < n; i++) {
+            if (i < off || i >= off + len) {
+                assertEquals(-7.0, out[i], 0.0);
+                assertEquals(args[i], arr[i], 0.0);
+            } else {
+                assertUlps(name + " bulk(" + args[i] + ")", exact[i], out[i], bulkUlps);
+                assertEquals(out[i], arr[i], 0.0);
+            }
+        }
+        for (double x : SPECIALS) {
+            double expected = ext.applyAsDouble(x);
+            assertEquals(name + "(" + x + ")", expected, f.applyAsDouble(x), Math.ulp(expected));
+            double[] a = { x };
+            bulk.apply(a, 0, 1, a);
+            assertEquals(name + " bulk(" + x + ")", expected, a[0], Math.ulp(expected));
+        }
+        try {
+            bulk.apply(args, 1, n, out);
+            fail(name + " out of range");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /** arguments for cot, sec and csc, including values close to multiples of pi/2 */
+    private static double[] trigArguments() {
+        double[] args = arguments(1, 1000, -20, 20);
+        double[] result = Arrays.copyOf(args, args.length + 400);
+        for (int i = 0; i < 200; i++) {
+            double m = (i - 100) * FloatMathExt.HALF_PI;
+            result[args.length + 2 * i] = Math.nextUp(m);
+            // 0 is one of the special values, the exact references are finite
+            result[args.length + 2 * i + 1] = (m == 0) ? Math.nextDown(m) : m * 1000.5;
+        }
+        return result;
+    }
+
+    /** cot is compared with cos/sin also for the special values, because FloatMathExt.cot is not infinite at 0 */
+    @Test
+    public void testCot() {
+        DoubleUnaryOperator ext = x -> StrictMath.cos(x) / StrictMath.sin(x);
+        check("cot", FastFloatMath::cot, x -> cos(x).divide(sin(x), MC), ext,
+              FastFloatMath::cot, FastFloatMath::cot, trigArguments(), 2);
+        assertEquals(Double.NEGATIVE_INFINITY, FastFloatMath.cot(-0.0), 0.0);
+    }
+
+    @Test
+    public void testSec() {
+        check("sec", FastFloatMath::sec, x -> ONE.divide(cos(x), MC), FloatMathExt::sec,
+              FastFloatMath::sec, FastFloatMath::sec, trigArguments(), 2);
+    }
+
+    @Test
+    public void testCsc() {
+        check("csc", FastFloatMath::csc, x -> ONE.divide(sin(x), MC), FloatMathExt::csc,
+              FastFloatMath::csc, FastFloatMath::csc, trigArguments(), 2);
+        assertEquals(Double.NEGATIVE_INFINITY, FastFloatMath.csc(-0.0), 0.0);
+    }
+
+    /** asinh, also accurate near 0, where FloatMathExt.asinh is not */
+    @Test
+    public void testAsinh() {
+        DoubleUnaryOperator ext = x -> {
+            double a = Math.abs(x);
+            double r = (a > 1e150) ? StrictMath.log(a) + FloatMathExt.LOG_2 : StrictMath.log1p(a + a * a / (1 + StrictMath.sqrt(1 + a * a)));
+            return Math.copySign(r, x);
+        };
+        check("asinh", FastFloatMath::asinh, FastFloatMathTest::asinh, ext, FastFloatMath::asinh, FastFloatMath::asinh,
+              arguments(2, 1000, -1e3, 1e3), 2);
+        check("asinh", FastFloatMath::asinh, FastFloatMathTest::asinh, ext, FastFloatMath::asinh, FastFloatMath::asinh,
+              arguments(11, 1000, -2, 2), 2);
+        assertEquals(1e-20, FastFloatMath.asinh(1e-20), 0.0);
+        assertEquals(-0.0, FastFloatMath.asinh(-0.0), 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY, 1 / FastFloatMath.asinh(-0.0), 0.0);
+    }
+
+    @Test
+    public void testAcosh() {
+        check("acosh", FastFloatMath::acosh, FastFloatMathTest::acosh, FloatMathExt::acosh, FastFloatMath::acosh, FastFloatMath::acosh,
+              arguments(3, 1000, 1, 1e3), 3);
+        check("acosh", FastFloatMath::acosh, FastFloatMathTest::acosh, FloatMathExt::acosh, FastFloatMath::acosh, FastFloatMath::acosh,
+              arguments(12, 1000, 1, 3), 3);
+        assertEquals(0.0, FastFloatMath.acosh(1.0), 0.0);
+        assertTrue(Double.isNaN(FastFloatMath.acosh(0.5)));
+    }
+
+    @Test
+    public void testAtanh() {
+        DoubleUnaryOperator ext = x -> {
+            double a = Math.abs(x);
+            return (a < 1) ? Math.copySign(0.5 * StrictMath.log1p(2 * a / (1 - a)), x) : Double.NaN;
+        };
+        check("atanh", FastFloatMath::atanh, FastFloatMathTest::atanh, ext, FastFloatMath::atanh, FastFloatMath::atanh,
+              arguments(4, 1000, -1, 1), 2);
+        check("atanh", FastFloatMath::atanh, FastFloatMathTest::atanh, ext, FastFloatMath::atanh, FastFloatMath::atanh,
+              arguments(13, 1000, 0, 0.5), 2);
+        // 2.01 ulps when 2a/(1 - a) was rounded before log1p
+        assertUlps("atanh", atanh(0.015433087903827136), FastFloatMath.atanh(0.015433087903827136), 2);
+        assertEquals(1e-20, FastFloatMath.atanh(1e-20), 0.0);
+        assertTrue(Double.isNaN(FastFloatMath.atanh(1.0)));
+        assertTrue(Double.isNaN(FastFloatMath.atanh(-1.0)));
+    }
+
+    @Test
+    public void testLog2() {
+        double[] args = arguments(5, 1000, 0, 4);
+        double[] wide = new double[1000];
+        Random random = new Random(6);
+        for (int i = 0; i < wide.length; i++) {
+            wide[i] = Math.scalb(0.5 + random.nextDouble(), random.nextInt(2000) - 1000);
+        }
+        DoubleFunction<BigDecimal> reference = x -> log(new BigDecimal(x)).divide(LN2, MC);
+        check("log2", FastFloatMath::log2, reference, FloatMathExt::log2, FastFloatMath::log2, FastFloatMath::log2, args, 2);
+        check("log2", FastFloatMath::log2, reference, FloatMathExt::log2, FastFloatMath::log2, FastFloatMath::log2, wide, 2);
+        for (int k = -1074; k <= 1023; k++) {
+            assertEquals(k, FastFloatMath.log2(Math.scalb(1.0, k)), 0.0);
+        }
+    }
+
+    @Test
+    public void testExp2() {
+        double[] args = arguments(7, 1000, -1100, 1100);
+        DoubleFunction<BigDecimal> reference = x -> exp(new BigDecimal(x).multiply(LN2));
+        check("exp2", FastFloatMath::exp2, reference, FloatMathExt::exp2, FastFloatMath::exp2, FastFloatMath::exp2, args, 2);
+        check("exp2", FastFloatMath::exp2, reference, FloatMathExt::exp2, FastFloatMath::exp2, FastFloatMath::exp2, arguments(8, 1000, -2, 2), 2);
+        for (int k = -1074; k <= 1023; k++) {
+            assertEquals(Math.scalb(1.0, k), FastFloatMath.exp2(k), 0.0);
+        }
+    }
+
+    @Test
+    public void testExp10() {
+        double[] args = arguments(9, 1000, -330, 330);
+        DoubleFunction<BigDecimal> reference = x -> exp(new BigDecimal(x).multiply(LN10));
+        check("exp10", FastFloatMath::exp10, reference, FloatMathExt::exp10, FastFloatMath::exp10, FastFloatMath::exp10, args, 2);
+        check("exp10", FastFloatMath::exp10, reference, FloatMathExt::exp10, FastFloatMath::exp10, FastFloatMath::exp10, arguments(10, 1000, -2, 2), 2);
+    }
+}
@@ -10,12 +10,17 @@
 package com.itskyconsulting.floatmath;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.TreeSet;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Random;
 
 import org.junit.Test;
 import static com.itskyconsulting.floatmath.FloatCollectionMath.*;
@@ -400,4 +405,220 @@ public class FloatCollectionMathTest {
         }
     }
 
+    @Test
+    public void testSumWithInfinity() {
+        double inf = Double.POSITIVE_INFINITY;
+        assertEquals(inf, sum(inf, 1.0, 1.0), 0);
+        assertEquals(-inf, sum(1.0, -inf, 1.0, 2.0), 0);
+        assertEquals(inf, sum(Double.MAX_VALUE, Double.MAX_VALUE, 1.0, 1.0), 0);
+        assertTrue(Double.isNaN(sum(inf, 1.0, -inf, 1.0)));
+        assertTrue(Double.isNaN(sum(Double.NaN, inf)));
+        assertTrue(Double.isNaN(sum(inf, Double.NaN)));
+    }
+
+    @Test
+    public void testMeansWithZeroAndInfinity() {
+        double inf = Double.POSITIVE_INFINITY;
+        assertEquals(0.0, harmonicMean(0.0, 1.0, 2.0), 0);
+        assertEquals(2.5, harmonicMean(inf, 1.0, 2.0, 4.0, 4.0), 0);
+        assertEquals(inf, quadraticMean(inf, 1.0, 2.0), 0);
+        assertEquals(-inf, cubicMean(-inf, 1.0, 2.0), 0);
+        assertTrue(Double.isNaN(cubicMean(-inf, inf, 1.0)));
+    }
+
+    /** the one pass means have to give the same result as the arithmetic mean of the transformed array */
+    @Test
+    public void testMeansSameAsTwoPasses() {
+        Random random = new Random(42);
+        for (int n = 2; n < 200; n += 7) {
+            double[] arr = new double[n];
+            double[] rec = new double[n];
+            double[] sqr = new double[n];
+            double[] cub = new double[n];
+            for (int i = 0; i < n; i++) {
+                arr[i] = (random.nextDouble() - 0.3) * Math.pow(10, random.nextInt(10));
+                rec[i] = 1/arr[i];
+                sqr[i] = arr[i]*arr[i];
+                cub[i] = arr[i]*arr[i]*arr[i];
+            }
+            assertEquals("n=" + n, 1/arithmeticMean(rec), harmonicMean(arr), 0);
+            assertEquals("n=" + n, Math.sqrt(arithmeticMean(sqr)), quadraticMean(arr), 0);
+            assertEquals("n=" + n, Math.cbrt(arithmeticMean(cub)), cubicMean(arr), 0);
+        }
+    }
+
+    /** bytes allocated by the current thread so far, -1 if the JVM does not support this */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /** harmonic, quadratic and cubic mean must not allocate a temporary array */
+    @Test
+    public void testMeansDoNotAllocate() {
+        assumeTrue(allocatedBytes() >= 0);
+        int n = 100000;
+        double[] arr = new double[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = 1 + i;
+        }
+        double result = 0;
+        // warm up, so that class loading and compilation are not counted
+        for (int i = 0; i < 5; i++) {
+            result += harmonicMean(arr) + quadraticMean(arr) + cubicMean(arr);
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < 10; i++) {
+            result += harmonicMean(arr) + quadraticMean(arr) + cubicMean(arr);
+        }
+        long allocated = allocatedBytes() - before;
+        // with a temporary array each call would allocate 8*n bytes
+        assertTrue("allocated=" + allocated + " result=" + result, allocated < 8*n);
+    }
+
+    /** exact sum of finite values, rounded to double */
+    private static double exactSum(double[] arr) {
+        BigDecimal result = BigDecimal.ZERO;
+        for (double x : arr) {
+            result = result.add(new BigDecimal(x));
+        }
+        return result.doubleValue();
+    }
+
+    /** values of very different magnitudes and both signs, that cancel each other mostly */
+    private static double[] illConditioned(int n, long seed) {
+        Random random = new Random(seed);
+        double[] arr = new double[n];
+        for (int i = 0; i < n; i += 2) {
+            double x = random.nextDouble() * Math.pow(10, random.nextInt(20));
+            arr[i] = x;
+            if (i + 1 < n) {
+                arr[i+1] = -x + random.nextDouble();
+            }
+        }
+        return arr;
+    }
+
+    @Test
+    public void testParallelSumSmall() {
+        double[] arr = illConditioned(1000, 1);
+        assertEquals(sum(arr), parallelSum(arr), 0);
+        assertEquals(0.0, parallelSum(), 0);
+    }
+
+    @Test
+    public void testParallelSumAccuracy() {
+        for (int n : new int[] { PARALLEL_SUM_THRESHOLD + 1, 3 * PARALLEL_SUM_THRESHOLD + 17, 1000000 }) {
+            double[] arr = illConditioned(n, n);
+            double exact = exactSum(arr);
+            double seq = sum(arr);
+            double par = parallelSum(arr);
+            // error bound of compensated summation: about 2*eps*sum(|x|)
+            double absSum = 0;
+            for (double x : arr) {
+                absSum += Math.abs(x);
+            }
+            double delta = 2 * Math.ulp(absSum) + Math.ulp(exact);
+            String str = "n=" + n + " exact=" + exact + " seq=" + seq + " par=" + par + " delta=" + delta;
+            assertEquals(str, exact, par, delta);
+            assertEquals(str, exact, seq, delta);
+        }
+    }
+
+    @Test
+    public void testParallelSumDeterministic() {
+        double[] arr = illConditioned(777777, 3);
+        double first = parallelSum(arr);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first, parallelSum(arr), 0);
+        }
+    }
+
+    @Test
+    public void testProdAndGeometricMeanDoNotOverflow() {
+        assertEquals(1e300, prod(1e300, 1e300, 1e-300), 1e285);
+        assertEquals(1e-300, prod(1e-300, 1e-300, 1e300), 1e-315);
+        assertEquals(Double.POSITIVE_INFINITY, prod(1e300, 1e300), 0);
+        double[] arr = new double[1000];
+        Arrays.fill(arr, 1e100);
+        assertEquals(1e100, geometricMean(arr), 1e87);
+        Arrays.fill(arr, 1e-100);
+        assertEquals(1e-100, geometricMean(arr), 1e-113);
+    }
+
+    @Test
+    public void testFloatArrays() {
+        assertEquals(Float.POSITIVE_INFINITY, min(new float[0]), 0);
+        assertEquals(Float.NEGATIVE_INFINITY, max(new float[0]), 0);
+        assertTrue(Double.isNaN(arithmeticMean(new float[0])));
+        assertTrue(Double.isNaN(min(new float[] { 1.0f, Float.NaN })));
+        Random random = new Random(17);
+        for (int n = 1; n < 200; n += 13) {
+            float[] arr = new float[n];
+            double[] darr = new double[n];
+            for (int i = 0; i < n; i++) {
+                arr[i] = 0.1f + random.nextFloat() * 10;
+                darr[i] = arr[i];
+            }
+            String str = "n=" + n;
+            assertEquals(str, min(darr), min(arr), 0);
+            assertEquals(str, max(darr), max(arr), 0);
+            assertEquals(str, sum(darr), sum(arr), 0);
+            assertEquals(str, arithmeticMean(darr), arithmeticMean(arr), 0);
+            assertEquals(str, geometricMean(darr), geometricMean(arr), 0);
+            assertEquals(str, harmonicMean(darr), harmonicMean(arr), 0);
+            assertEquals(str, quadraticMean(darr), quadraticMean(arr), 0);
+            assertEquals(str, cubicMean(darr), cubicMean(arr), 0);
+        }
+        // accumulated in double, so this does not lose the small values
+        float[] arr = { 1e8f, 1.0f, 1.0f, 1.0f, 1.0f, -1e8f };
+        assertEquals(4.0, sum(arr), 0);
+    }
+
+    @Test
+    public void testParallelReproducibleSum() {
+        for (int n : new int[] { 1000, 3 * PARALLEL_SUM_THRESHOLD + 17 }) {
+            double[] arr = illConditioned(n, n);
+            double seq = reproducibleSum(arr);
+            assertEquals("n=" + n, Double.doubleToLongBits(seq), Double.doubleToLongBits(parallelReproducibleSum(arr)));
+            double[] reversed = new double[n];
+            for (int i = 0; i < n; i++) {
+                reversed[i] = arr[n - 1 - i];
+            }
+            assertEquals("n=" + n, Double.doubleToLongBits(seq), Double.doubleToLongBits(parallelReproducibleSum(reversed)));
+            double exact = exactSum(arr);
+            assertEquals("n=" + n, exact, seq, Math.ulp(exact));
+        }
+    }
+
+    @Test
+    public void testParallelSumWithInfinity() {
+        int n = 4 * PARALLEL_SUM_THRESHOLD;
+        double[] arr = illConditioned(n, 4);
+        arr[n - 3] = Double.POSITIVE_INFINITY;
+        assertEquals(Double.POSITIVE_INFINITY, parallelSum(arr), 0);
+        arr[5] = Double.NEGATIVE_INFINITY;
+        assertTrue(Double.isNaN(parallelSum(arr)));
+        arr[n - 3] = 1.0;
+        arr[5] = Double.NaN;
+        assertTrue(Double.isNaN(parallelSum(arr)));
+    }
+
+
+    @Test
+    public void testVarianceAndStandardDeviation() {
+        assertTrue(Double.isNaN(variance()));
+        assertTrue(Double.isNaN(variance(1.0)));
+        assertEquals(0.5, variance(1.0, 2.0), 0);
+        assertEquals(32.0 / 7, variance(2, 4, 4, 4, 5, 5, 7, 9), 1e-15);
+        assertEquals(Math.sqrt(32.0 / 7), standardDeviation(2, 4, 4, 4, 5, 5, 7, 9), 1e-15);
+        // the naive formula (sum of squares - n mean^2)/(n-1) gives 0 or worse here
+        assertEquals(32.0 / 7, variance(1e9 + 2, 1e9 + 4, 1e9 + 4, 1e9 + 4, 1e9 + 5, 1e9 + 5, 1e9 + 7, 1e9 + 9), 1e-6);
+    }
 }
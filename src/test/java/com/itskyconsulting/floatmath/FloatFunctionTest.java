@@ -0,0 +1,183 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for FloatFunction
+ */
+public class FloatFunctionTest {
+
+    /** the names of the public static double f(double) methods of FloatMathExt */
+    private static Set<String> scalarFunctions() {
+        Set<String> result = new TreeSet<>();
+        for (Method m : FloatMathExt.class.getMethods()) {
+            if (Modifier.isStatic(m.getModifiers()) && m.getReturnType() == double.class
+                && Arrays.equals(m.getParameterTypes(), new Class<?>[] { double.class })) {
+                result.add(m.getName());
+            }
+        }
+        return result;
+    }
+
+    /** every function of FloatMathExt with one argument has its constant and the other way round */
+    @Test
+    public void testAllFunctions() {
+        Set<String> constants = new TreeSet<>();
+        for (FloatFunction f : FloatFunction.values()) {
+            constants.add(f.name().toLowerCase(Locale.ROOT));
+        }
+        assertEquals(scalarFunctions(), constants);
+    }
+
+    /** each constant calls its own function */
+    @Test
+    public void testApplyAsDouble() throws Exception {
+        Random random = new Random(18);
+        for (FloatFunction f : FloatFunction.values()) {
+            Method m = FloatMathExt.class.getMethod(f.name().toLowerCase(Locale.ROOT), double.class);
+            for (int i = 0; i < 100; i++) {
+                double x = (random.nextDouble() - 0.5) * 20;
+                assertEquals(f + "(" + x + ")", (Double) m.invoke(null, x), f.applyAsDouble(x), 0.0);
+            }
+        }
+    }
+
+    /** applyAll is the bulk version of FloatMathExt */
+    @Test
+    public void testApplyAll() throws Exception {
+        Random random = new Random(19);
+        double[] in = new double[37];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = (random.nextDouble() - 0.5) * 20;
+        }
+        for (FloatFunction f : FloatFunction.values()) {
+            Method m = FloatMathExt.class.getMethod(f.name().toLowerCase(Locale.ROOT), double[].class, int.class, int.class, double[].class);
+            double[] expected = new double[in.length];
+            m.invoke(null, in, 0, in.length, expected);
+            double[] out = new double[in.length];
+            f.applyAll(in, out);
+            assertArrayEquals(f.toString(), expected, out, 0.0);
+
+            double[] partial = new double[in.length];
+            f.applyAll(in, 3, 30, partial);
+            double[] arr = in.clone();
+            f.applyAll(arr, 3, 30);
+            for (int i = 0; i < in.length; i++) {
+                boolean inside = i >= 3 && i < 33;
+                assertEquals(f + " i=" + i, inside ? expected[i] : 0.0, partial[i], 0.0);
+                assertEquals(f + " i=" + i, inside ? expected[i] : in[i], arr[i], 0.0);
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testApplyAllShortOutput() {
+        FloatFunction.SECH.applyAll(new double[10], new double[9]);
+    }
+
+    @Test
+    public void testValueOf() {
+        assertSame(FloatFunction.SECH, FloatFunction.valueOf("SECH"));
+        assertEquals(FloatMathExt.sech(0.5), FloatFunction.valueOf("SECH").applyAsDouble(0.5), 0.0);
+        assertEquals(FloatMathExt.sech(FloatMathExt.cube(0.5)), FloatFunction.CUBE.andThen(FloatFunction.SECH).applyAsDouble(0.5), 0.0);
+    }
+
+    /**
+     * parallelApplyAll gives the results of applyAll, for cheap and expensive functions and any split
+     *
+     * The SIMD kernels can differ between interpreted and compiled code, so the functions that use them are compared
+     * with the scalar function and the bound of the kernels, 4 ulps, all others exactly with applyAll.
+     */
+    @Test
+    public void testParallelApplyAll() {
+        Random random = new Random(21);
+        int n = 40 * FloatFunction.PARALLEL_BLOCK + 123;
+        double[] in = new double[n];
+        for (int i = 0; i < n; i++) {
+            in[i] = (random.nextDouble() - 0.5) * 20;
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (FloatFunction f : new FloatFunction[] { FloatFunction.SQUARE, FloatFunction.ACOTD, FloatFunction.SECH }) {
+                double[] expected = new double[n];
+                int ulps = 0;
+                if (usesVectorKernels(f)) {
+                    ulps = VECTOR_ULPS;
+                    for (int i = 5; i < n - 5; i++) {
+                        expected[i] = f.applyAsDouble(in[i]);
+                    }
+                } else {
+                    f.applyAll(in, 5, n - 10, expected);
+                }
+                double[] out = new double[n];
+                f.parallelApplyAll(in, 5, n - 10, out, pool);
+                assertCloseArrays(f.toString(), expected, out, ulps);
+                Arrays.fill(out, 0.0);
+                f.parallelApplyAll(in, 5, n - 10, out);
+                assertCloseArrays(f.toString(), expected, out, ulps);
+                double[] arr = in.clone();
+                f.parallelApplyAll(arr, 5, n - 10, arr, pool);
+                for (int i = 0; i < n; i++) {
+                    boolean inside = i >= 5 && i < n - 5;
+                    assertEquals(f + " i=" + i, inside ? expected[i] : in[i], arr[i], ulps * Math.ulp(expected[i]));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** error bound of the SIMD kernels, like VECTOR_ULPS in FloatMathExtTest */
+    private static final int VECTOR_ULPS = 4;
+
+    /** the functions whose bulk versions in FloatMathExt use the SIMD kernels if they are available */
+    private static final Set<FloatFunction> VECTOR_FUNCTIONS = EnumSet.of(FloatFunction.SEC, FloatFunction.CSC,
+            FloatFunction.COTH, FloatFunction.SECH, FloatFunction.CSCH, FloatFunction.LOG2, FloatFunction.EXP2,
+            FloatFunction.SQUARE, FloatFunction.CUBE);
+
+    /** whether applyAll of f uses FloatMathExt.VECTOR_KERNELS */
+    private static boolean usesVectorKernels(FloatFunction f) {
+        return FloatMathExt.VECTOR_KERNELS != null && VECTOR_FUNCTIONS.contains(f);
+    }
+
+    private static void assertCloseArrays(String str, double[] expected, double[] actual, int ulps) {
+        assertEquals(str, expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(str + " i=" + i, expected[i], actual[i], ulps * Math.ulp(expected[i]));
+        }
+    }
+
+    @Test
+    public void testParallelApplyAllSmall() {
+        double[] in = { 0.5, 1.5, -2.5 };
+        double[] out = new double[3];
+        FloatFunction.CUBE.parallelApplyAll(in, 0, 3, out, new ForkJoinPool(1));
+        assertArrayEquals(new double[] { 0.125, 3.375, -15.625 }, out, 0.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testParallelApplyAllShortOutput() {
+        FloatFunction.SECH.parallelApplyAll(new double[10], 0, 10, new double[9]);
+    }
+}
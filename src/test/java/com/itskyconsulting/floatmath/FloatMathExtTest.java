@@ -9,9 +9,16 @@
 
 package com.itskyconsulting.floatmath;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 import static com.itskyconsulting.floatmath.FloatMathExt.*;
 
 /**
@@ -453,6 +460,84 @@ public class FloatMathExtTest {
         assertEquals(1.0, cscd(90), 1e-100);
     }
 
+    /** multiples of 30 and 45 degrees give the exact table values, also for large and negative angles */
+    @Test
+    public void testDegreesExactTable() {
+        double h = Math.sqrt(0.5);
+        double s3 = Math.sqrt(3)/2;
+        double[] angles =  { 0, 30,  45, 60,  90, 120, 135, 150, 180, 210, 225, 240,  270, 300, 315, 330 };
+        double[] sines =   { 0, 0.5, h,  s3,  1,  s3,  h,   0.5, 0,   -0.5, -h, -s3,  -1,  -s3, -h,  -0.5 };
+        double[] cosines = { 1, s3,  h,  0.5, 0,  -0.5, -h, -s3, -1,  -s3, -h,  -0.5, 0,   0.5, h,   s3 };
+        for (int k = -3; k <= 3; k++) {
+            for (int i = 0; i < angles.length; i++) {
+                double x = angles[i] + 360.0 * k * 1000003;
+                String str = "x=" + x;
+                assertEquals(str, sines[i], sind(x), 0);
+                assertEquals(str, cosines[i], cosd(x), 0);
+                if (cosines[i] != 0) {
+                    assertEquals(str, sines[i] / cosines[i], tand(x), Math.ulp(tand(x)));
+                    assertEquals(str, 1 / cosines[i], secd(x), Math.ulp(secd(x)));
+                }
+                if (sines[i] != 0) {
+                    assertEquals(str, cosines[i] / sines[i], cotd(x), Math.ulp(cotd(x)));
+                    assertEquals(str, 1 / sines[i], cscd(x), Math.ulp(cscd(x)));
+                }
+            }
+        }
+        assertEquals(Double.POSITIVE_INFINITY, tand(90), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, tand(-90), 0);
+        assertEquals(Double.POSITIVE_INFINITY, secd(90), 0);
+        assertEquals(0.0, cotd(90), 0);
+        assertEquals(0.0, tand(180), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, 1/sind(-0.0), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, 1/tand(-0.0), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, cotd(-0.0), 0);
+        assertTrue(Double.isNaN(sind(Double.POSITIVE_INFINITY)));
+        assertTrue(Double.isNaN(cosd(Double.NaN)));
+        assertTrue(Double.isNaN(tand(Double.NEGATIVE_INFINITY)));
+        assertTrue(Double.isNaN(cotd(Double.NaN)));
+    }
+
+    /** the degree functions agree with the radians functions, and large angles are reduced exactly */
+    @Test
+    public void testDegreesReduction() {
+        Random random = new Random(11);
+        for (int i = 0; i < 10000; i++) {
+            double x = (random.nextDouble() - 0.5) * 720;
+            String str = "x=" + x;
+            double r = Math.toRadians(x);
+            assertEquals(str, Math.sin(r), sind(x), 1e-15);
+            assertEquals(str, Math.cos(r), cosd(x), 1e-15);
+            assertEquals(str, Math.tan(r), tand(x), 1e-14 * Math.max(1, square(tand(x))));
+            double big = x + 360 * 1e12;
+            // big - x is a multiple of 360 only if big is exact, so compare with the exactly reduced angle
+            double reduced = big % 360;
+            assertEquals(str, sind(reduced), sind(big), 0);
+            assertEquals(str, cosd(reduced), cosd(big), 0);
+        }
+    }
+
+    /** doubles from 2^52 on are integers, they are reduced modulo 360 like BigDecimal does it */
+    @Test
+    public void testDegreesReductionOfHugeAngles() {
+        Random random = new Random(12);
+        for (int i = 0; i < 10000; i++) {
+            double x = Math.scalb(1 + random.nextDouble(), 52 + random.nextInt(972));
+            if (random.nextBoolean()) {
+                x = -x;
+            }
+            String str = "x=" + x;
+            // with the sign of x, also for 0
+            double reduced = Math.copySign(new BigDecimal(Math.abs(x)).remainder(BigDecimal.valueOf(360)).doubleValue(), x);
+            assertEquals(str, sind(reduced), sind(x), 0);
+            assertEquals(str, cosd(reduced), cosd(x), 0);
+            assertEquals(str, tand(reduced), tand(x), 0);
+            assertEquals(str, cotd(reduced), cotd(x), 0);
+        }
+        assertEquals(0.0, sind(0x1p60 * 45), 0);
+        assertEquals(1.0, cosd(0x1p52 * 45), 0);
+    }
+
     /** test asind for some well known values */
     @Test
     public void testAsind() {
@@ -934,6 +1019,113 @@ public class FloatMathExtTest {
         }
     }
 
+    /** log2 and exp2 are exact for powers of 2 and integers, also for subnormal values */
+    @Test
+    public void testLog2Exp2Exact() {
+        for (int k = -1074; k <= 1023; k++) {
+            double p = Math.scalb(1.0, k);
+            assertEquals("k=" + k, k, log2(p), 0.0);
+            assertEquals("k=" + k, p, exp2((double) k), 0.0);
+            assertEquals("k=" + k, p, exp2(k), 0.0);
+        }
+        assertEquals(Double.POSITIVE_INFINITY, exp2(1024), 0.0);
+        assertEquals(0.0, exp2(-1075), 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY, log2(0.0), 0.0);
+        assertNaN("log2(-1)", log2(-1.0));
+        double[] in = new double[2098];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = i - 1074;
+        }
+        double[] out = new double[in.length];
+        exp2(in, 0, in.length, out);
+        log2(out, 0, out.length);
+        assertArrayEquals(in, out, 0.0);
+    }
+
+    /** log2 of float is exact for all powers of 2, in log2f and in the bulk version with and without SIMD kernels */
+    @Test
+    public void testLog2FloatPowersOfTwo() {
+        float[] in = new float[277];
+        for (int k = -149; k <= 127; k++) {
+            in[k + 149] = Math.scalb(1.0f, k);
+        }
+        float[] bulk = new float[in.length];
+        log2(in, 0, in.length, bulk);
+        float[] simd = bulk.clone();
+        if (VECTOR_KERNELS != null) {
+            VECTOR_KERNELS.log2(in, 0, in.length, simd);
+        }
+        for (int k = -149; k <= 127; k++) {
+            String str = "k=" + k;
+            assertEquals(str, k, log2f(in[k + 149]), 0.0f);
+            assertEquals(str, k, bulk[k + 149], 0.0f);
+            assertEquals(str, k, simd[k + 149], 0.0f);
+        }
+    }
+
+    /** log2 and exp2 against the exponential and logarithm of StrictMath, with the exact powers of 2 split off */
+    @Test
+    public void testLog2Exp2Accuracy() {
+        Random random = new Random(16);
+        for (int i = 0; i < 100000; i++) {
+            int k = random.nextInt(2000) - 1000;
+            double m = 0.5 + random.nextDouble();
+            double x = Math.scalb(m, k);
+            double expected = k + StrictMath.log(m) / LOG_2;
+            assertEquals("x=" + x, expected, log2(x), 2 * Math.ulp(expected) + 2 * Math.ulp(StrictMath.log(m) / LOG_2));
+            double f = random.nextDouble() - 0.5;
+            double y = k + f;
+            double expected2 = Math.scalb(StrictMath.exp((y - k) * LOG_2), k);
+            assertEquals("y=" + y, expected2, exp2(y), 2 * Math.ulp(expected2));
+        }
+    }
+
+    /** exp10 of integers is correctly rounded */
+    @Test
+    public void testExp10Integers() {
+        for (int k = -330; k <= 330; k++) {
+            double expected = new BigDecimal(BigInteger.ONE, -k).doubleValue();
+            assertEquals("k=" + k, expected, exp10(k), 0.0);
+            assertEquals("k=" + k, expected, exp10((double) k), 0.0);
+        }
+        assertEquals(1e22, exp10(22.0), 0.0);
+        assertEquals(Math.pow(10, 0.5), exp10(0.5), 0.0);
+    }
+
+    @Test
+    public void testFloorCeilLog2() {
+        assertEquals(0, floorLog2(1));
+        assertEquals(0, ceilLog2(1));
+        assertEquals(1, floorLog2(3));
+        assertEquals(2, ceilLog2(3));
+        assertEquals(10, floorLog2(1024));
+        assertEquals(10, ceilLog2(1024));
+        assertEquals(10, floorLog2(2047));
+        assertEquals(11, ceilLog2(1025));
+        assertEquals(61, floorLog2(Long.MAX_VALUE >> 1));
+        assertEquals(62, floorLog2(Long.MAX_VALUE));
+        assertEquals(63, ceilLog2(Long.MAX_VALUE));
+        for (int k = 0; k < 63; k++) {
+            long p = 1L << k;
+            assertEquals(k, floorLog2(p));
+            assertEquals(k, ceilLog2(p));
+            if (k > 1) {
+                assertEquals(k - 1, floorLog2(p - 1));
+                assertEquals(k, ceilLog2(p - 1));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFloorLog2Zero() {
+        floorLog2(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCeilLog2Negative() {
+        ceilLog2(-8);
+    }
+
     /** test Math.log10(exp10(x))=x */
     @Test
     public void testLog10OfExp10() {
@@ -1188,6 +1380,557 @@ public class FloatMathExtTest {
         }
     }
 
+    /** allowed difference between SIMD kernels and scalar functions */
+    private static final int VECTOR_ULPS = 4;
+
+    /** a bulk function f(in, off, len, out) */
+    private interface BulkFunction {
+        void apply(double[] in, int off, int len, double[] out);
+    }
+
+    /** a bulk function f(arr, off, len) working in place */
+    private interface InPlaceFunction {
+        void apply(double[] arr, int off, int len);
+    }
+
+    /** arguments for testing the bulk functions, including the special cases of all the functions */
+    private static double[] bulkArguments() {
+        double[] specials = { 0.0, -0.0, 1.0, -1.0, 0.5, -0.5, 2.0, -2.0, 30, 45, 60, 90, -90, 180, 1e-300, -1e-300, 1e300, -1e300,
+                              HALF_PI, -HALF_PI, Math.PI, -Math.PI, Double.MIN_VALUE, Double.MAX_VALUE,
+                              Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN };
+        int n = 400;
+        double[] result = new double[specials.length + n];
+        System.arraycopy(specials, 0, result, 0, specials.length);
+        for (int i = 0; i < n; i++) {
+            result[specials.length + i] = (i - n/2) / 17.0 + 1e-3;
+        }
+        return result;
+    }
+
+    /** helper for testBulk*: make sure that the bulk versions give exactly the same results as the scalar function and do not touch other elements */
+    private void checkBulk(String name, DoubleUnaryOperator scalar, BulkFunction bulk, InPlaceFunction inPlace) {
+        checkBulk(name, scalar, bulk, inPlace, 0);
+    }
+
+    /**
+     * helper for testBulk*: make sure that the bulk versions give the same results as the scalar function up to maxUlps and do not touch other elements.
+     * Special values like NaN, Infinity and 0 have to be exactly the same.
+     */
+    private void checkBulk(String name, DoubleUnaryOperator scalar, BulkFunction bulk, InPlaceFunction inPlace, int maxUlps) {
+        double[] in = bulkArguments();
+        int n = in.length;
+        int off = 3;
+        int len = n - 7;
+        double[] out = new double[n];
+        Arrays.fill(out, -7.0);
+        bulk.apply(in, off, len, out);
+        double[] arr = in.clone();
+        inPlace.apply(arr, off, len);
+        for (int i = 0; i < n; i++) {
+            String str = name + " i=" + i + " x=" + in[i];
+            if (i < off || i >= off + len) {
+                assertEquals(str, -7.0, out[i], 0.0);
+                assertEquals(str, in[i], arr[i], 0.0);
+            } else {
+                double expected = scalar.applyAsDouble(in[i]);
+                assertUlps(str, expected, out[i], maxUlps);
+                assertUlps(str, expected, arr[i], maxUlps);
+            }
+        }
+    }
+
+    /** helper function: make sure that found is within maxUlps of expected, special values have to be equal */
+    private void assertUlps(String s, double expected, double found, int maxUlps) {
+        if (maxUlps == 0 || expected == 0 || Double.isNaN(expected) || Double.isInfinite(expected)) {
+            assertEquals(s + " found=" + found, expected, found, 0.0);
+        } else {
+            assertEquals(s + " found=" + found, expected, found, maxUlps * Math.ulp(expected));
+        }
+    }
+
+    /** helper for testVectorKernels: check all combinations of short lengths and offsets, to cover the scalar tail of the loop */
+    private void checkVectorKernel(String name, DoubleUnaryOperator scalar, BulkFunction kernel, int maxUlps) {
+        double[] args = bulkArguments();
+        for (int off = 0; off < 4; off++) {
+            for (int len = 0; len < 70; len++) {
+                double[] in = Arrays.copyOfRange(args, 60, 60 + off + len + 3);
+                double[] out = new double[in.length];
+                Arrays.fill(out, -7.0);
+                kernel.apply(in, off, len, out);
+                for (int i = 0; i < in.length; i++) {
+                    String str = name + " off=" + off + " len=" + len + " i=" + i + " x=" + in[i];
+                    if (i < off || i >= off + len) {
+                        assertEquals(str, -7.0, out[i], 0.0);
+                    } else {
+                        assertUlps(str, scalar.applyAsDouble(in[i]), out[i], maxUlps);
+                    }
+                }
+            }
+        }
+    }
+
+    /** helper for testBulk*: invalid ranges have to be rejected */
+    private void checkBulkRange(BulkFunction bulk) {
+        double[] in = new double[10];
+        double[] out = new double[10];
+        int[][] ranges = { { -1, 5 }, { 0, -1 }, { 0, 11 }, { 6, 5 }, { 11, 0 }, { Integer.MAX_VALUE, 2 } };
+        for (int[] range : ranges) {
+            try {
+                bulk.apply(in, range[0], range[1], out);
+                fail("off=" + range[0] + " len=" + range[1]);
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        }
+        try {
+            bulk.apply(in, 0, 10, new double[9]);
+            fail("out too short");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        bulk.apply(in, 10, 0, out);
+    }
+
+    /** a float function, there is no FloatUnaryOperator */
+    private interface FloatFunction {
+        float apply(float x);
+    }
+
+    /** a bulk function f(in, off, len, out) for float[] */
+    private interface FloatBulkFunction {
+        void apply(float[] in, int off, int len, float[] out);
+    }
+
+    /** a bulk function f(arr, off, len) for float[] working in place */
+    private interface FloatInPlaceFunction {
+        void apply(float[] arr, int off, int len);
+    }
+
+    /** bulkArguments as float */
+    private static float[] floatBulkArguments() {
+        double[] args = bulkArguments();
+        float[] result = new float[args.length];
+        for (int i = 0; i < args.length; i++) {
+            result[i] = (float) args[i];
+        }
+        return result;
+    }
+
+    /**
+     * helper for testFloat*: the float version has to be the double version rounded to float,
+     * the bulk versions have to be within maxUlps of it and must not touch other elements.
+     */
+    private void checkFloat(String name, DoubleUnaryOperator scalar, FloatFunction scalarf,
+                            FloatBulkFunction bulk, FloatInPlaceFunction inPlace, int maxUlps) {
+        float[] in = floatBulkArguments();
+        int n = in.length;
+        int off = 3;
+        int len = n - 7;
+        float[] out = new float[n];
+        Arrays.fill(out, -7.0f);
+        bulk.apply(in, off, len, out);
+        float[] arr = in.clone();
+        inPlace.apply(arr, off, len);
+        for (int i = 0; i < n; i++) {
+            String str = name + " i=" + i + " x=" + in[i];
+            float expected = scalarf.apply(in[i]);
+            assertEquals(str, (float) scalar.applyAsDouble(in[i]), expected, 0.0f);
+            if (i < off || i >= off + len) {
+                assertEquals(str, -7.0f, out[i], 0.0f);
+                assertEquals(str, in[i], arr[i], 0.0f);
+            } else {
+                assertFloatUlps(str, expected, out[i], maxUlps);
+                assertFloatUlps(str, expected, arr[i], maxUlps);
+            }
+        }
+    }
+
+    /** helper function: make sure that found is within maxUlps of expected, special values have to be equal */
+    private void assertFloatUlps(String s, float expected, float found, int maxUlps) {
+        if (maxUlps == 0 || expected == 0 || Float.isNaN(expected) || Float.isInfinite(expected)) {
+            assertEquals(s + " found=" + found, expected, found, 0.0f);
+        } else {
+            assertEquals(s + " found=" + found, expected, found, maxUlps * Math.ulp(expected));
+        }
+    }
+
+    /** bulk versions of trigonometric functions and their inverses */
+    @Test
+    public void testBulkTrig() {
+        checkBulk("cot", FloatMathExt::cot, FloatMathExt::cot, FloatMathExt::cot);
+        checkBulk("sec", FloatMathExt::sec, FloatMathExt::sec, FloatMathExt::sec, VECTOR_ULPS);
+        checkBulk("csc", FloatMathExt::csc, FloatMathExt::csc, FloatMathExt::csc, VECTOR_ULPS);
+        checkBulk("acot", FloatMathExt::acot, FloatMathExt::acot, FloatMathExt::acot);
+        checkBulk("asec", FloatMathExt::asec, FloatMathExt::asec, FloatMathExt::asec);
+        checkBulk("acsc", FloatMathExt::acsc, FloatMathExt::acsc, FloatMathExt::acsc);
+    }
+
+    /** bulk versions of trigonometric functions with degrees and their inverses */
+    @Test
+    public void testBulkTrigDegrees() {
+        checkBulk("sind", FloatMathExt::sind, FloatMathExt::sind, FloatMathExt::sind);
+        checkBulk("cosd", FloatMathExt::cosd, FloatMathExt::cosd, FloatMathExt::cosd);
+        checkBulk("tand", FloatMathExt::tand, FloatMathExt::tand, FloatMathExt::tand);
+        checkBulk("cotd", FloatMathExt::cotd, FloatMathExt::cotd, FloatMathExt::cotd);
+        checkBulk("secd", FloatMathExt::secd, FloatMathExt::secd, FloatMathExt::secd);
+        checkBulk("cscd", FloatMathExt::cscd, FloatMathExt::cscd, FloatMathExt::cscd);
+        checkBulk("asind", FloatMathExt::asind, FloatMathExt::asind, FloatMathExt::asind);
+        checkBulk("acosd", FloatMathExt::acosd, FloatMathExt::acosd, FloatMathExt::acosd);
+        checkBulk("atand", FloatMathExt::atand, FloatMathExt::atand, FloatMathExt::atand);
+        checkBulk("acotd", FloatMathExt::acotd, FloatMathExt::acotd, FloatMathExt::acotd);
+        checkBulk("asecd", FloatMathExt::asecd, FloatMathExt::asecd, FloatMathExt::asecd);
+        checkBulk("acscd", FloatMathExt::acscd, FloatMathExt::acscd, FloatMathExt::acscd);
+    }
+
+    /** bulk versions of hyperbolic functions and their inverses */
+    @Test
+    public void testBulkHyperbolic() {
+        checkBulk("coth", FloatMathExt::coth, FloatMathExt::coth, FloatMathExt::coth, VECTOR_ULPS);
+        checkBulk("sech", FloatMathExt::sech, FloatMathExt::sech, FloatMathExt::sech, VECTOR_ULPS);
+        checkBulk("csch", FloatMathExt::csch, FloatMathExt::csch, FloatMathExt::csch, VECTOR_ULPS);
+        checkBulk("asinh", FloatMathExt::asinh, FloatMathExt::asinh, FloatMathExt::asinh);
+        checkBulk("acosh", FloatMathExt::acosh, FloatMathExt::acosh, FloatMathExt::acosh);
+        checkBulk("atanh", FloatMathExt::atanh, FloatMathExt::atanh, FloatMathExt::atanh);
+        checkBulk("acoth", FloatMathExt::acoth, FloatMathExt::acoth, FloatMathExt::acoth);
+        checkBulk("asech", FloatMathExt::asech, FloatMathExt::asech, FloatMathExt::asech);
+        checkBulk("acsch", FloatMathExt::acsch, FloatMathExt::acsch, FloatMathExt::acsch);
+    }
+
+    /** bulk versions of exp, log and powers */
+    @Test
+    public void testBulkExpLog() {
+        checkBulk("log2", FloatMathExt::log2, FloatMathExt::log2, FloatMathExt::log2, VECTOR_ULPS);
+        checkBulk("exp10", FloatMathExt::exp10, FloatMathExt::exp10, FloatMathExt::exp10);
+        checkBulk("exp2", FloatMathExt::exp2, FloatMathExt::exp2, FloatMathExt::exp2, VECTOR_ULPS);
+        checkBulk("square", FloatMathExt::square, FloatMathExt::square, FloatMathExt::square);
+        checkBulk("cube", FloatMathExt::cube, FloatMathExt::cube, FloatMathExt::cube);
+    }
+
+    /** SIMD kernels, only if the Vector API is available */
+    @Test
+    public void testVectorKernels() {
+        assumeTrue(VECTOR_KERNELS != null);
+        checkVectorKernel("sec", FloatMathExt::sec, VECTOR_KERNELS::sec, VECTOR_ULPS);
+        checkVectorKernel("csc", FloatMathExt::csc, VECTOR_KERNELS::csc, VECTOR_ULPS);
+        checkVectorKernel("coth", FloatMathExt::coth, VECTOR_KERNELS::coth, VECTOR_ULPS);
+        checkVectorKernel("sech", FloatMathExt::sech, VECTOR_KERNELS::sech, VECTOR_ULPS);
+        checkVectorKernel("csch", FloatMathExt::csch, VECTOR_KERNELS::csch, VECTOR_ULPS);
+        checkVectorKernel("log2", FloatMathExt::log2, VECTOR_KERNELS::log2, VECTOR_ULPS);
+        checkVectorKernel("exp2", FloatMathExt::exp2, VECTOR_KERNELS::exp2, VECTOR_ULPS);
+        checkVectorKernel("square", FloatMathExt::square, VECTOR_KERNELS::square, 0);
+        checkVectorKernel("cube", FloatMathExt::cube, VECTOR_KERNELS::cube, 0);
+    }
+
+    /** float versions and float[] bulk versions of all functions */
+    @Test
+    public void testFloatFunctions() {
+        checkFloat("cot", FloatMathExt::cot, FloatMathExt::cotf, FloatMathExt::cot, FloatMathExt::cot, 0);
+        checkFloat("sec", FloatMathExt::sec, FloatMathExt::secf, FloatMathExt::sec, FloatMathExt::sec, VECTOR_ULPS);
+        checkFloat("csc", FloatMathExt::csc, FloatMathExt::cscf, FloatMathExt::csc, FloatMathExt::csc, VECTOR_ULPS);
+        checkFloat("acot", FloatMathExt::acot, FloatMathExt::acotf, FloatMathExt::acot, FloatMathExt::acot, 0);
+        checkFloat("asec", FloatMathExt::asec, FloatMathExt::asecf, FloatMathExt::asec, FloatMathExt::asec, 0);
+        checkFloat("acsc", FloatMathExt::acsc, FloatMathExt::acscf, FloatMathExt::acsc, FloatMathExt::acsc, 0);
+        checkFloat("sind", FloatMathExt::sind, FloatMathExt::sindf, FloatMathExt::sind, FloatMathExt::sind, 0);
+        checkFloat("cosd", FloatMathExt::cosd, FloatMathExt::cosdf, FloatMathExt::cosd, FloatMathExt::cosd, 0);
+        checkFloat("tand", FloatMathExt::tand, FloatMathExt::tandf, FloatMathExt::tand, FloatMathExt::tand, 0);
+        checkFloat("cotd", FloatMathExt::cotd, FloatMathExt::cotdf, FloatMathExt::cotd, FloatMathExt::cotd, 0);
+        checkFloat("secd", FloatMathExt::secd, FloatMathExt::secdf, FloatMathExt::secd, FloatMathExt::secd, 0);
+        checkFloat("cscd", FloatMathExt::cscd, FloatMathExt::cscdf, FloatMathExt::cscd, FloatMathExt::cscd, 0);
+        checkFloat("asind", FloatMathExt::asind, FloatMathExt::asindf, FloatMathExt::asind, FloatMathExt::asind, 0);
+        checkFloat("acosd", FloatMathExt::acosd, FloatMathExt::acosdf, FloatMathExt::acosd, FloatMathExt::acosd, 0);
+        checkFloat("atand", FloatMathExt::atand, FloatMathExt::atandf, FloatMathExt::atand, FloatMathExt::atand, 0);
+        checkFloat("acotd", FloatMathExt::acotd, FloatMathExt::acotdf, FloatMathExt::acotd, FloatMathExt::acotd, 0);
+        checkFloat("asecd", FloatMathExt::asecd, FloatMathExt::asecdf, FloatMathExt::asecd, FloatMathExt::asecd, 0);
+        checkFloat("acscd", FloatMathExt::acscd, FloatMathExt::acscdf, FloatMathExt::acscd, FloatMathExt::acscd, 0);
+        checkFloat("coth", FloatMathExt::coth, FloatMathExt::cothf, FloatMathExt::coth, FloatMathExt::coth, VECTOR_ULPS);
+        checkFloat("sech", FloatMathExt::sech, FloatMathExt::sechf, FloatMathExt::sech, FloatMathExt::sech, VECTOR_ULPS);
+        checkFloat("csch", FloatMathExt::csch, FloatMathExt::cschf, FloatMathExt::csch, FloatMathExt::csch, VECTOR_ULPS);
+        checkFloat("asinh", FloatMathExt::asinh, FloatMathExt::asinhf, FloatMathExt::asinh, FloatMathExt::asinh, 0);
+        checkFloat("acosh", FloatMathExt::acosh, FloatMathExt::acoshf, FloatMathExt::acosh, FloatMathExt::acosh, 0);
+        checkFloat("atanh", FloatMathExt::atanh, FloatMathExt::atanhf, FloatMathExt::atanh, FloatMathExt::atanh, 0);
+        checkFloat("acoth", FloatMathExt::acoth, FloatMathExt::acothf, FloatMathExt::acoth, FloatMathExt::acoth, 0);
+        checkFloat("asech", FloatMathExt::asech, FloatMathExt::asechf, FloatMathExt::asech, FloatMathExt::asech, 0);
+        checkFloat("acsch", FloatMathExt::acsch, FloatMathExt::acschf, FloatMathExt::acsch, FloatMathExt::acsch, 0);
+        checkFloat("log2", FloatMathExt::log2, FloatMathExt::log2f, FloatMathExt::log2, FloatMathExt::log2, VECTOR_ULPS);
+        checkFloat("exp10", FloatMathExt::exp10, FloatMathExt::exp10f, FloatMathExt::exp10, FloatMathExt::exp10, 0);
+        checkFloat("exp2", FloatMathExt::exp2, FloatMathExt::exp2f, FloatMathExt::exp2, FloatMathExt::exp2, VECTOR_ULPS);
+        checkFloat("square", FloatMathExt::square, FloatMathExt::squaref, FloatMathExt::square, FloatMathExt::square, 0);
+        checkFloat("cube", FloatMathExt::cube, FloatMathExt::cubef, FloatMathExt::cube, FloatMathExt::cube, VECTOR_ULPS);
+    }
+
+    /**
+     * arguments for sincos: random values, values near multiples of pi/2, where the reduction cancels,
+     * and values with the high words of the thresholds of fdlibm, pi/4, 0.3 and 0.78125, where the low word
+     * decides on which side of the threshold the value is, but fdlibm only looks at the high word
+     */
+    private static double[] sincosArguments() {
+        Random random = new Random(5);
+        long[] thresholds = { 0x3FE921FB54442D18L, 0x3FD3333333333333L, 0x3FE9000000000000L };
+        double[] result = new double[4000 + 600 * thresholds.length];
+        for (int i = 0; i < 1000; i++) {
+            result[i] = (random.nextDouble() - 0.5) * 20;
+            result[1000 + i] = (random.nextDouble() - 0.5) * 2e6;
+            double m = (i - 500) * HALF_PI;
+            result[2000 + i] = m;
+            result[3000 + i] = Math.nextUp(m);
+        }
+        int k = 4000;
+        for (long t : thresholds) {
+            long high = t & 0xFFFFFFFF00000000L;
+            for (int i = 0; i < 100; i++) {
+                double[] near = { Double.longBitsToDouble(t - i), Double.longBitsToDouble(t + i),
+                                  Double.longBitsToDouble(high | (random.nextLong() & 0xFFFFFFFFL)) };
+                for (double x : near) {
+                    result[k++] = x;
+                    result[k++] = -x;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** sincos is within 1 ulp of Math.sin and Math.cos and gives the results of StrictMath */
+    @Test
+    public void testSincos() {
+        double[] r = new double[2];
+        for (double x : sincosArguments()) {
+            sincos(x, r);
+            String str = "x=" + x;
+            double s = Math.sin(x);
+            double c = Math.cos(x);
+            assertEquals(str, s, r[SIN], Math.ulp(s));
+            assertEquals(str, c, r[COS], Math.ulp(c));
+            assertEquals(str, StrictMath.sin(x), r[SIN], 0.0);
+            assertEquals(str, StrictMath.cos(x), r[COS], 0.0);
+        }
+        double[] specials = { 0.0, -0.0, Double.MIN_VALUE, 1e300, -1e300, Double.POSITIVE_INFINITY, Double.NaN };
+        for (double x : specials) {
+            sincos(x, r);
+            assertEquals("x=" + x, StrictMath.sin(x), r[SIN], 0.0);
+            assertEquals("x=" + x, StrictMath.cos(x), r[COS], 0.0);
+        }
+        sincos(-0.0, r);
+        assertEquals(Double.NEGATIVE_INFINITY, 1/r[SIN], 0.0);
+    }
+
+    /** sincosd gives exactly the results of sind and cosd */
+    @Test
+    public void testSincosd() {
+        double[] r = new double[2];
+        double[] args = bulkArguments();
+        for (int i = -2000; i <= 2000; i++) {
+            double x = i * 7.5;
+            sincosd(x, r);
+            assertEquals("x=" + x, sind(x), r[SIN], 0.0);
+            assertEquals("x=" + x, cosd(x), r[COS], 0.0);
+        }
+        for (double x : args) {
+            sincosd(x, r);
+            assertEquals("x=" + x, sind(x), r[SIN], 0.0);
+            assertEquals("x=" + x, cosd(x), r[COS], 0.0);
+        }
+        sincosd(-0.0, r);
+        assertEquals(Double.NEGATIVE_INFINITY, 1/r[SIN], 0.0);
+        assertEquals(1.0, r[COS], 0.0);
+    }
+
+    /** trig and trigd return sin and cos like sincos and sincosd and the other functions from them */
+    @Test
+    public void testTrig() {
+        double[] r = new double[6];
+        double[] sc = new double[2];
+        for (double x : bulkArguments()) {
+            String str = "x=" + x;
+            trig(x, r);
+            sincos(x, sc);
+            assertEquals(str, sc[SIN], r[SIN], 0.0);
+            assertEquals(str, sc[COS], r[COS], 0.0);
+            assertEquals(str, sc[SIN] / sc[COS], r[TAN], 0.0);
+            assertEquals(str, sc[COS] / sc[SIN], r[COT], 0.0);
+            assertEquals(str, 1 / sc[COS], r[SEC], 0.0);
+            assertEquals(str, 1 / sc[SIN], r[CSC], 0.0);
+            assertUlps(str, Math.tan(x), r[TAN], 4);
+            trigd(x, r);
+            assertEquals(str, sind(x), r[SIN], 0.0);
+            assertEquals(str, cosd(x), r[COS], 0.0);
+            assertUlps(str, secd(x), r[SEC], 0);
+            assertUlps(str, cscd(x), r[CSC], 0);
+            // the sign of Infinity at the poles is not the same
+            assertUlps(str, Math.abs(tand(x)), Math.abs(r[TAN]), 2);
+            assertUlps(str, Math.abs(cotd(x)), Math.abs(r[COT]), 2);
+        }
+        trigd(90, r);
+        assertEquals(Double.POSITIVE_INFINITY, r[TAN], 0.0);
+        assertEquals(0.0, r[COT], 0.0);
+        assertEquals(1.0, r[CSC], 0.0);
+        try {
+            trig(1.0, new double[5]);
+            fail("result too short");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /** arguments for hyperbolic: small, medium and large values of both signs */
+    private static double[] hyperbolicArguments() {
+        Random random = new Random(6);
+        double[] result = new double[4000];
+        for (int i = 0; i < 1000; i++) {
+            result[i] = (random.nextDouble() - 0.5) * 4;
+            result[1000 + i] = (random.nextDouble() - 0.5) * 60;
+            result[2000 + i] = (random.nextDouble() - 0.5) * 1500;
+            result[3000 + i] = Math.scalb(random.nextDouble() - 0.5, -random.nextInt(60));
+        }
+        return result;
+    }
+
+    /** hyperbolic is within 4 ulps of Math.sinh, Math.cosh and Math.tanh, coth, sech and csch are their reciprocals */
+    @Test
+    public void testHyperbolic() {
+        double[] r = new double[6];
+        for (double x : hyperbolicArguments()) {
+            String str = "x=" + x;
+            hyperbolic(x, r);
+            assertUlps(str, Math.sinh(x), r[SINH], 4);
+            assertUlps(str, Math.cosh(x), r[COSH], 4);
+            assertUlps(str, Math.tanh(x), r[TANH], 4);
+            assertEquals(str, 1 / r[TANH], r[COTH], 0.0);
+            if (Math.abs(x) < 700) {
+                assertEquals(str, 1 / r[COSH], r[SECH], 0.0);
+                assertEquals(str, 1 / r[SINH], r[CSCH], 0.0);
+            }
+        }
+        try {
+            hyperbolic(1.0, new double[5]);
+            fail("result too short");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testHyperbolicSpecialValues() {
+        double inf = Double.POSITIVE_INFINITY;
+        double[] r = new double[6];
+        hyperbolic(0.0, r);
+        assertArrayEquals(new double[] { 0.0, 1.0, 0.0, inf, 1.0, inf }, r, 0.0);
+        hyperbolic(-0.0, r);
+        assertArrayEquals(new double[] { -0.0, 1.0, -0.0, -inf, 1.0, -inf }, r, 0.0);
+        assertEquals(-inf, 1 / r[SINH], 0.0);
+        hyperbolic(Double.MIN_VALUE, r);
+        assertArrayEquals(new double[] { Double.MIN_VALUE, 1.0, Double.MIN_VALUE, inf, 1.0, inf }, r, 0.0);
+        hyperbolic(-inf, r);
+        assertArrayEquals(new double[] { -inf, inf, -1.0, -1.0, 0.0, -0.0 }, r, 0.0);
+        hyperbolic(Double.NaN, r);
+        for (double y : r) {
+            assertTrue(Double.isNaN(y));
+        }
+        // cosh and sinh overflow, but sech and csch are still subnormal
+        hyperbolic(-720.0, r);
+        assertEquals(-inf, r[SINH], 0.0);
+        assertEquals(inf, r[COSH], 0.0);
+        assertEquals(-1.0, r[TANH], 0.0);
+        double sech = 2 * Math.exp(-360) * Math.exp(-360);
+        assertEquals(sech, r[SECH], 1e-6 * sech);
+        assertEquals(-sech, r[CSCH], 1e-6 * sech);
+        hyperbolic(750.0, r);
+        assertEquals(0.0, r[SECH], 0.0);
+    }
+
+    /** the bulk version of hyperbolic gives the same results as the scalar version */
+    @Test
+    public void testBulkHyperbolicAll() {
+        double[] in = hyperbolicArguments();
+        int n = in.length;
+        int off = 3;
+        int len = n - 10;
+        double[][] out = new double[6][n];
+        for (double[] o : out) {
+            Arrays.fill(o, -7.0);
+        }
+        hyperbolic(in, off, len, out[SINH], out[COSH], out[TANH], out[COTH], out[SECH], out[CSCH]);
+        double[] r = new double[6];
+        for (int i = 0; i < n; i++) {
+            hyperbolic(in[i], r);
+            for (int k = SINH; k <= CSCH; k++) {
+                double expected = (i < off || i >= off + len) ? -7.0 : r[k];
+                assertEquals("i=" + i + " k=" + k, expected, out[k][i], 0.0);
+            }
+        }
+        double[] tanh = in.clone();
+        hyperbolic(tanh, off, len, null, null, tanh, null, null, null);
+        for (int i = off; i < off + len; i++) {
+            hyperbolic(in[i], r);
+            assertEquals(r[TANH], tanh[i], 0.0);
+        }
+        try {
+            hyperbolic(in, 0, n, null, new double[n - 1], null, null, null, null);
+            fail("cosh too short");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /** the bulk versions of sincos, sincosd, trig and trigd give the same results as the scalar versions */
+    @Test
+    public void testBulkSincos() {
+        double[] in = sincosArguments();
+        int n = in.length;
+        int off = 5;
+        int len = n - 9;
+        double[][] out = new double[6][n];
+        double[] r = new double[6];
+        for (boolean degrees : new boolean[] { false, true }) {
+            for (double[] o : out) {
+                Arrays.fill(o, -7.0);
+            }
+            if (degrees) {
+                trigd(in, off, len, out[SIN], out[COS], out[TAN], out[COT], out[SEC], out[CSC]);
+            } else {
+                trig(in, off, len, out[SIN], out[COS], out[TAN], out[COT], out[SEC], out[CSC]);
+            }
+            for (int i = 0; i < n; i++) {
+                String str = "degrees=" + degrees + " i=" + i + " x=" + in[i];
+                if (degrees) {
+                    trigd(in[i], r);
+                } else {
+                    trig(in[i], r);
+                }
+                for (int k = SIN; k <= CSC; k++) {
+                    double expected = (i < off || i >= off + len) ? -7.0 : r[k];
+                    assertEquals(str + " k=" + k, expected, out[k][i], 0.0);
+                }
+            }
+        }
+        double[] sin = new double[n];
+        double[] cos = in.clone();
+        sincos(cos, off, len, sin, cos);
+        for (int i = off; i < off + len; i++) {
+            sincos(in[i], r);
+            assertEquals(r[SIN], sin[i], 0.0);
+            assertEquals(r[COS], cos[i], 0.0);
+        }
+        double[] cosd = new double[n];
+        sincosd(in, off, len, null, cosd);
+        for (int i = off; i < off + len; i++) {
+            assertEquals(cosd(in[i]), cosd[i], 0.0);
+        }
+        try {
+            sincos(in, 0, n, sin, new double[n - 1]);
+            fail("cos too short");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    /** bulk versions reject invalid ranges */
+    @Test
+    public void testBulkRange() {
+        checkBulkRange(FloatMathExt::cot);
+        checkBulkRange(FloatMathExt::asinh);
+        checkBulkRange(FloatMathExt::square);
+    }
+
     /** x**y with integral y to compare with Math.pow */
     private static double pow(double x, long y) {
         if (y == 0) {
@@ -0,0 +1,141 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for KahanAdder
+ */
+public class KahanAdderTest {
+
+    @Test
+    public void testEmpty() {
+        KahanAdder adder = new KahanAdder();
+        assertEquals(0.0, adder.sum(), 0);
+        assertEquals("0.0", adder.toString());
+    }
+
+    /** small values are not lost next to a large one, unlike with DoubleAdder */
+    @Test
+    public void testCompensation() {
+        KahanAdder adder = new KahanAdder();
+        DoubleAdder plain = new DoubleAdder();
+        adder.add(1e16);
+        plain.add(1e16);
+        for (int i = 0; i < 1000; i++) {
+            adder.add(1.0);
+            plain.add(1.0);
+        }
+        adder.add(-1e16);
+        plain.add(-1e16);
+        assertEquals(1000.0, adder.sum(), 0);
+        assertEquals(0.0, plain.sum(), 0);
+    }
+
+    @Test
+    public void testSameAsSum() {
+        double[] arr = new double[10000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = 0.1 * (i % 7) - 1e-3 * i;
+        }
+        KahanAdder adder = new KahanAdder();
+        for (double x : arr) {
+            adder.add(x);
+        }
+        BigDecimal exact = BigDecimal.ZERO;
+        for (double x : arr) {
+            exact = exact.add(new BigDecimal(x));
+        }
+        assertEquals(exact.doubleValue(), adder.sum(), 0);
+        assertEquals(FloatCollectionMath.sum(arr), adder.sum(), Math.ulp(adder.sum()));
+    }
+
+    /** many threads at the same time lose nothing and get the exactly rounded sum */
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        int threads = 8;
+        int n = 100000;
+        KahanAdder adder = new KahanAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < n; i++) {
+                    adder.add(0.1);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread w : workers) {
+            w.join();
+        }
+        double exact = new BigDecimal(0.1).multiply(BigDecimal.valueOf((long) threads * n)).doubleValue();
+        assertEquals(exact, adder.sum(), 0);
+        assertEquals(exact, adder.sumThenReset(), 0);
+        assertEquals(0.0, adder.sum(), 0);
+    }
+
+    @Test
+    public void testSpecialValues() {
+        KahanAdder adder = new KahanAdder();
+        adder.add(1.0);
+        adder.add(Double.POSITIVE_INFINITY);
+        adder.add(1e-20);
+        assertEquals(Double.POSITIVE_INFINITY, adder.sum(), 0);
+        adder.add(Double.NEGATIVE_INFINITY);
+        assertTrue(Double.isNaN(adder.sum()));
+        adder.reset();
+        adder.add(2.5);
+        assertEquals(2.5, adder.sum(), 0);
+    }
+
+    @Test
+    public void testNumber() {
+        KahanAdder adder = new KahanAdder();
+        adder.add(7.75);
+        assertEquals(7.75, adder.doubleValue(), 0);
+        assertEquals(7.75f, adder.floatValue(), 0);
+        assertEquals(7L, adder.longValue());
+        assertEquals(7, adder.intValue());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        KahanAdder adder = new KahanAdder();
+        adder.add(3.25);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(adder);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            KahanAdder copy = (KahanAdder) in.readObject();
+            assertEquals(3.25, copy.sum(), 0);
+            copy.add(1.0);
+            assertEquals(4.25, copy.sum(), 0);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for MeanAccumulator
+ */
+public class MeanAccumulatorTest {
+
+    private static MeanAccumulator of(double ... arr) {
+        MeanAccumulator m = new MeanAccumulator();
+        m.acceptAll(arr);
+        return m;
+    }
+
+    private static double[] values(int n, long seed) {
+        Random random = new Random(seed);
+        double[] arr = new double[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = 0.1 + random.nextDouble() * 100;
+        }
+        return arr;
+    }
+
+    private static void assertSameMeans(String str, double[] arr, MeanAccumulator m) {
+        double eps = 1e-13;
+        assertEquals(str, arr.length, m.getCount());
+        assertEquals(str, FloatCollectionMath.arithmeticMean(arr), m.getArithmeticMean(), eps * Math.abs(m.getArithmeticMean()));
+        assertEquals(str, FloatCollectionMath.geometricMean(arr), m.getGeometricMean(), eps * Math.abs(m.getGeometricMean()));
+        assertEquals(str, FloatCollectionMath.harmonicMean(arr), m.getHarmonicMean(), eps * Math.abs(m.getHarmonicMean()));
+        assertEquals(str, FloatCollectionMath.quadraticMean(arr), m.getQuadraticMean(), eps * Math.abs(m.getQuadraticMean()));
+        assertEquals(str, FloatCollectionMath.cubicMean(arr), m.getCubicMean(), eps * Math.abs(m.getCubicMean()));
+    }
+
+    @Test
+    public void testEmpty() {
+        MeanAccumulator m = new MeanAccumulator();
+        assertEquals(0, m.getCount());
+        assertTrue(Double.isNaN(m.getArithmeticMean()));
+        assertTrue(Double.isNaN(m.getGeometricMean()));
+        assertTrue(Double.isNaN(m.getHarmonicMean()));
+        assertTrue(Double.isNaN(m.getQuadraticMean()));
+        assertTrue(Double.isNaN(m.getCubicMean()));
+    }
+
+    @Test
+    public void testSameAsFloatCollectionMath() {
+        for (int n = 1; n < 300; n += 7) {
+            double[] arr = values(n, n);
+            assertSameMeans("n=" + n, arr, of(arr));
+        }
+        double[] arr = { -3.0, 4.0, 0.5 };
+        assertSameMeans("negative", arr, of(arr));
+        assertEquals(-3.0, of(-3.0).getQuadraticMean(), 0);
+    }
+
+    @Test
+    public void testGeometricMeanExact() {
+        for (int i = 0; i < 1000; i++) {
+            double x = i;
+            assertEquals(x, of(x, x).getGeometricMean(), 0);
+            assertEquals(x, of(x, x, x).getGeometricMean(), 0);
+            assertEquals(-x, of(-x, -x, -x).getGeometricMean(), 0);
+            assertEquals(x, of(-x, -x).getGeometricMean(), 0);
+        }
+    }
+
+    @Test
+    public void testGeometricMeanDoesNotOverflow() {
+        assertEquals(1e200, of(1e200, 1e200, 1e200, 1e200).getGeometricMean(), 1e186);
+        assertEquals(1e-200, of(1e-200, 1e-200, 1e-200, 1e-200).getGeometricMean(), 1e-214);
+        assertEquals(1.0, of(1e300, 1e-300, Double.MAX_VALUE, 1/Double.MAX_VALUE).getGeometricMean(), 1e-15);
+        assertEquals(Double.MIN_VALUE, of(Double.MIN_VALUE, Double.MIN_VALUE).getGeometricMean(), 0);
+    }
+
+    @Test
+    public void testSpecialValues() {
+        double inf = Double.POSITIVE_INFINITY;
+        assertEquals(0.0, of(0.0, 1.0, 2.0).getGeometricMean(), 0);
+        assertEquals(0.0, of(0.0, 1.0, 2.0).getHarmonicMean(), 0);
+        assertEquals(2.5, of(inf, 1.0, 2.0, 4.0, 4.0).getHarmonicMean(), 0);
+        assertEquals(inf, of(inf, 1.0, 2.0).getGeometricMean(), 0);
+        assertEquals(inf, of(inf, 1.0, 2.0).getArithmeticMean(), 0);
+        assertTrue(Double.isNaN(of(inf, 0.0, 2.0).getGeometricMean()));
+        assertTrue(Double.isNaN(of(-1.0, 2.0).getGeometricMean()));
+        assertTrue(Double.isNaN(of(1.0, Double.NaN).getGeometricMean()));
+        assertTrue(Double.isNaN(of(1.0, Double.NaN).getArithmeticMean()));
+    }
+
+    @Test
+    public void testCombine() {
+        double[] arr = values(1000, 7);
+        Random random = new Random(8);
+        for (int i = 0; i < 20; i++) {
+            int split = random.nextInt(arr.length + 1);
+            MeanAccumulator a = new MeanAccumulator();
+            a.acceptAll(arr, 0, split);
+            MeanAccumulator b = new MeanAccumulator();
+            b.acceptAll(arr, split, arr.length - split);
+            a.combine(b);
+            assertSameMeans("split=" + split, arr, a);
+        }
+        MeanAccumulator empty = new MeanAccumulator();
+        empty.combine(of(5.0));
+        assertEquals(5.0, empty.getHarmonicMean(), 0);
+    }
+
+    @Test
+    public void testStreams() {
+        double[] arr = values(100000, 9);
+        MeanAccumulator seq = of(arr);
+        MeanAccumulator par = DoubleStream.of(arr).parallel()
+            .collect(MeanAccumulator::new, MeanAccumulator::accept, MeanAccumulator::combine);
+        assertSameMeans("parallel", arr, par);
+        MeanAccumulator boxed = DoubleStream.of(arr).boxed().collect(Collectors.toList())
+            .parallelStream().collect(MeanAccumulator.collector());
+        assertEquals(seq.getCount(), boxed.getCount());
+        assertEquals(seq.getQuadraticMean(), boxed.getQuadraticMean(), 1e-13 * seq.getQuadraticMean());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRange() {
+        new MeanAccumulator().acceptAll(new double[3], -1, 2);
+    }
+}
@@ -0,0 +1,152 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for MomentsAccumulator
+ */
+public class MomentsAccumulatorTest {
+
+    private static MomentsAccumulator of(double ... arr) {
+        MomentsAccumulator m = new MomentsAccumulator();
+        m.acceptAll(arr);
+        return m;
+    }
+
+    private static double[] values(int n, long seed, double offset) {
+        Random random = new Random(seed);
+        double[] arr = new double[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = offset + random.nextDouble() * random.nextDouble() * 10;
+        }
+        return arr;
+    }
+
+    /** exact central moments sum (x-mean)^k for k = 0..4 with BigDecimal */
+    private static double[] exactMoments(double[] arr) {
+        MathContext mc = MathContext.DECIMAL128;
+        BigDecimal sum = BigDecimal.ZERO;
+        for (double x : arr) {
+            sum = sum.add(new BigDecimal(x));
+        }
+        BigDecimal mean = sum.divide(BigDecimal.valueOf(arr.length), mc);
+        double[] result = new double[5];
+        result[0] = mean.doubleValue();
+        for (int k = 2; k <= 4; k++) {
+            BigDecimal m = BigDecimal.ZERO;
+            for (double x : arr) {
+                m = m.add(new BigDecimal(x).subtract(mean).pow(k, mc), mc);
+            }
+            result[k] = m.doubleValue();
+        }
+        return result;
+    }
+
+    private static void assertMoments(String str, double[] arr, MomentsAccumulator m, double eps) {
+        double[] exact = exactMoments(arr);
+        int n = arr.length;
+        assertEquals(str, n, m.getCount());
+        assertEquals(str, exact[0], m.getMean(), eps * Math.abs(exact[0]));
+        double variance = exact[2] / (n - 1);
+        assertEquals(str, variance, m.getVariance(), eps * variance);
+        assertEquals(str, exact[2] / n, m.getPopulationVariance(), eps * variance);
+        double skewness = Math.sqrt(n) * exact[3] / Math.pow(exact[2], 1.5);
+        assertEquals(str, skewness, m.getSkewness(), eps * Math.max(1, Math.abs(skewness)));
+        double kurtosis = n * exact[4] / (exact[2] * exact[2]);
+        assertEquals(str, kurtosis, m.getKurtosis(), eps * kurtosis);
+        assertEquals(str, kurtosis - 3, m.getExcessKurtosis(), eps * kurtosis);
+    }
+
+    @Test
+    public void testEmptyAndOne() {
+        MomentsAccumulator m = new MomentsAccumulator();
+        assertEquals(0, m.getCount());
+        assertTrue(Double.isNaN(m.getMean()));
+        assertTrue(Double.isNaN(m.getVariance()));
+        assertTrue(Double.isNaN(m.getPopulationVariance()));
+        assertTrue(Double.isNaN(m.getSkewness()));
+        assertTrue(Double.isNaN(m.getKurtosis()));
+        m.accept(3.0);
+        assertEquals(3.0, m.getMean(), 0);
+        assertTrue(Double.isNaN(m.getVariance()));
+        assertEquals(0.0, m.getPopulationVariance(), 0);
+        assertTrue(Double.isNaN(m.getSkewness()));
+    }
+
+    @Test
+    public void testSmallExample() {
+        MomentsAccumulator m = of(2, 4, 4, 4, 5, 5, 7, 9);
+        assertEquals(5.0, m.getMean(), 0);
+        assertEquals(4.0, m.getPopulationVariance(), 1e-15);
+        assertEquals(2.0, m.getPopulationStandardDeviation(), 1e-15);
+        assertEquals(32.0 / 7, m.getVariance(), 1e-15);
+        assertEquals(Math.sqrt(32.0 / 7), m.getStandardDeviation(), 1e-15);
+        assertEquals(0.65625, m.getSkewness(), 1e-15);
+        assertEquals(2.78125, m.getKurtosis(), 1e-14);
+    }
+
+    @Test
+    public void testAgainstExact() {
+        for (int n = 3; n < 1000; n += 37) {
+            double[] arr = values(n, n, 0.0);
+            assertMoments("n=" + n, arr, of(arr), 1e-12);
+        }
+    }
+
+    /** a large mean compared to the standard deviation does not cancel */
+    @Test
+    public void testLargeMean() {
+        double[] arr = values(1000, 22, 1e9);
+        assertMoments("1e9", arr, of(arr), 1e-6);
+        double[] small = new double[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            small[i] = arr[i] - 1e9;
+        }
+        assertEquals(of(small).getVariance(), of(arr).getVariance(), 1e-6 * of(small).getVariance());
+    }
+
+    @Test
+    public void testCombine() {
+        double[] arr = values(1000, 23, 100.0);
+        for (int split : new int[] { 0, 1, 2, 17, 500, 999, 1000 }) {
+            MomentsAccumulator a = new MomentsAccumulator();
+            a.acceptAll(arr, 0, split);
+            MomentsAccumulator b = new MomentsAccumulator();
+            b.acceptAll(arr, split, arr.length - split);
+            a.combine(b);
+            assertMoments("split=" + split, arr, a, 1e-9);
+            assertEquals(arr.length - split, b.getCount());
+        }
+    }
+
+    @Test
+    public void testStreams() {
+        double[] arr = values(10000, 24, -5.0);
+        MomentsAccumulator m = DoubleStream.of(arr).parallel()
+            .collect(MomentsAccumulator::new, MomentsAccumulator::accept, MomentsAccumulator::combine);
+        assertMoments("parallel", arr, m, 1e-9);
+        MomentsAccumulator c = DoubleStream.of(arr).boxed().parallel().collect(MomentsAccumulator.collector());
+        assertMoments("collector", arr, c, 1e-9);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAcceptAllOutOfRange() {
+        new MomentsAccumulator().acceptAll(new double[3], 2, 2);
+    }
+}
@@ -0,0 +1,143 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ProductAccumulator
+ */
+public class ProductAccumulatorTest {
+
+    private static ProductAccumulator of(double ... arr) {
+        ProductAccumulator p = new ProductAccumulator();
+        p.acceptAll(arr);
+        return p;
+    }
+
+    @Test
+    public void testEmpty() {
+        ProductAccumulator p = new ProductAccumulator();
+        assertEquals(0, p.getCount());
+        assertEquals(1.0, p.getProduct(), 0);
+        assertTrue(Double.isNaN(p.getGeometricMean()));
+    }
+
+    /** as long as no partial product overflows, the result is the same as naive multiplication */
+    @Test
+    public void testSameAsNaive() {
+        Random random = new Random(1);
+        for (int n = 1; n < 100; n++) {
+            double naive = 1.0;
+            double[] arr = new double[n];
+            for (int i = 0; i < n; i++) {
+                arr[i] = (random.nextDouble() - 0.3) * 4;
+                naive *= arr[i];
+            }
+            assertEquals("n=" + n, naive, of(arr).getProduct(), 0);
+        }
+    }
+
+    @Test
+    public void testManyFactors() {
+        int n = 1000000;
+        Random random = new Random(2);
+        double[] arr = new double[n];
+        double logSum = 0;
+        for (int i = 0; i < n; i++) {
+            arr[i] = Math.scalb(1 + random.nextDouble(), random.nextInt(200) - 80);
+            logSum += Math.log(arr[i]);
+        }
+        double expected = Math.exp(logSum / n);
+        assertEquals(expected, of(arr).getGeometricMean(), 1e-9 * expected);
+        assertEquals(Double.POSITIVE_INFINITY, of(arr).getProduct(), 0);
+    }
+
+    @Test
+    public void testExtremeFactors() {
+        double[] arr = { Double.MAX_VALUE, Double.MIN_VALUE, 3.0, 1e-310, 1e300, 0x1p70, 0x1p-70 };
+        BigDecimal exact = BigDecimal.ONE;
+        for (double x : arr) {
+            exact = exact.multiply(new BigDecimal(x));
+        }
+        double expected = exact.round(MathContext.DECIMAL64).doubleValue();
+        assertEquals(expected, of(arr).getProduct(), 1e-14 * Math.abs(expected));
+        assertEquals(Double.MIN_VALUE, of(Double.MIN_VALUE, 0.3, 2.0).getProduct(), 0);
+        assertEquals(Double.MIN_VALUE, of(Double.MIN_VALUE, Double.MIN_VALUE).getGeometricMean(), 0);
+    }
+
+    @Test
+    public void testSpecialValues() {
+        double inf = Double.POSITIVE_INFINITY;
+        assertEquals(-0.0, of(-1.0, 0.0, 2.0).getProduct(), 0);
+        assertEquals(1/-0.0, 1/of(-1.0, 0.0, 2.0).getProduct(), 0);
+        assertEquals(-inf, of(-1.0, inf, 2.0).getProduct(), 0);
+        assertTrue(Double.isNaN(of(0.0, inf).getProduct()));
+        assertTrue(Double.isNaN(of(1.0, Double.NaN).getProduct()));
+        assertEquals(-2.0, of(-1.0, -2.0, -4.0).getGeometricMean(), 0);
+        assertTrue(Double.isNaN(of(-1.0, 2.0, 2.0, 2.0).getGeometricMean()));
+        assertEquals(-inf, of(-1.0, inf, 2.0).getGeometricMean(), 0);
+        assertEquals(0.0, of(0.0, 1.0, 2.0, 5.0).getGeometricMean(), 0);
+    }
+
+    /** a subnormal product is rounded twice, first to 53 bits, here to 2^-1075, and then to even */
+    @Test
+    public void testSubnormalDoubleRounding() {
+        double x = (1 + 0x1p-20) * 0x1p-600;
+        double y = (1 - 0x1p-20 + 0x1p-40) * 0x1p-475;
+        assertEquals(Double.MIN_VALUE, x * y, 0);
+        assertEquals(0.0, of(x, y).getProduct(), 0);
+        // exact subnormal products are not affected
+        assertEquals(3 * Double.MIN_VALUE, of(0.5, 6 * Double.MIN_VALUE).getProduct(), 0);
+    }
+
+    /** a negative infinite product gives NaN like a negative finite one, except for three values */
+    @Test
+    public void testNegativeInfiniteGeometricMean() {
+        double inf = Double.POSITIVE_INFINITY;
+        assertTrue(Double.isNaN(of(-1.0, inf).getGeometricMean()));
+        assertTrue(Double.isNaN(of(-1.0, inf, 2.0, 3.0).getGeometricMean()));
+        assertTrue(Double.isNaN(of(-1.0, inf, 2.0, 3.0, 4.0).getGeometricMean()));
+        assertTrue(Double.isNaN(of(-1.0, 2.0, 3.0, 4.0, 5.0).getGeometricMean()));
+        assertEquals(inf, of(-1.0, -inf, 2.0, 3.0).getGeometricMean(), 0);
+        assertTrue(Double.isNaN(FloatCollectionMath.geometricMean(-1.0, inf, 2.0, 3.0)));
+    }
+
+    @Test
+    public void testCombine() {
+        Random random = new Random(3);
+        double[] arr = new double[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = Math.scalb(random.nextDouble() + 0.5, random.nextInt(100) - 50);
+        }
+        double expected = of(arr).getGeometricMean();
+        for (int i = 0; i < 20; i++) {
+            int split = random.nextInt(arr.length + 1);
+            ProductAccumulator a = new ProductAccumulator();
+            a.acceptAll(arr, 0, split);
+            ProductAccumulator b = new ProductAccumulator();
+            b.acceptAll(arr, split, arr.length - split);
+            a.combine(b);
+            assertEquals(arr.length, a.getCount());
+            assertEquals("split=" + split, expected, a.getGeometricMean(), 1e-14 * expected);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRange() {
+        new ProductAccumulator().acceptAll(new double[3], 1, 3);
+    }
+}
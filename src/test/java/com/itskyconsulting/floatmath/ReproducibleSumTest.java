@@ -0,0 +1,173 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for ReproducibleSum
+ */
+public class ReproducibleSumTest {
+
+    private static double sum(double[] arr, int off, int len) {
+        ReproducibleSum s = new ReproducibleSum();
+        s.acceptAll(arr, off, len);
+        return s.sum();
+    }
+
+    private static double exactSum(double[] arr) {
+        BigDecimal result = BigDecimal.ZERO;
+        for (double x : arr) {
+            result = result.add(new BigDecimal(x));
+        }
+        return result.doubleValue();
+    }
+
+    /** values of very different magnitudes and both signs */
+    private static double[] values(int n, long seed) {
+        Random random = new Random(seed);
+        double[] arr = new double[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = (random.nextDouble() - 0.4) * Math.pow(2, random.nextInt(120) - 60);
+        }
+        return arr;
+    }
+
+    private static void shuffle(double[] arr, Random random) {
+        for (int i = arr.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double t = arr[i];
+            arr[i] = arr[j];
+            arr[j] = t;
+        }
+    }
+
+    @Test
+    public void testSimple() {
+        assertEquals(0.0, new ReproducibleSum().sum(), 0);
+        assertEquals(6.0, sum(new double[] { 1, 2, 3 }, 0, 3), 0);
+        assertEquals(1.0, sum(new double[] { 1e20, 1.0, -1e20 }, 0, 3), 0);
+        // parts below 2^-78 of the largest value are dropped
+        assertEquals(0.0, sum(new double[] { 1e100, 1.0, -1e100 }, 0, 3), 0);
+        assertEquals(2.0, sum(new double[] { 1e16, 1.0, 1.0, -1e16 }, 0, 4), 0);
+        assertEquals(0.1, sum(new double[] { 0.0, -0.0, 0.1 }, 0, 3), 0);
+    }
+
+    @Test
+    public void testOrderDoesNotMatter() {
+        Random random = new Random(1);
+        double[] arr = values(10000, 2);
+        double expected = sum(arr, 0, arr.length);
+        for (int i = 0; i < 20; i++) {
+            shuffle(arr, random);
+            assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(sum(arr, 0, arr.length)));
+        }
+    }
+
+    @Test
+    public void testPartitionDoesNotMatter() {
+        Random random = new Random(3);
+        double[] arr = values(20000, 4);
+        double expected = sum(arr, 0, arr.length);
+        for (int i = 0; i < 20; i++) {
+            int parts = 1 + random.nextInt(16);
+            ReproducibleSum[] partial = new ReproducibleSum[parts];
+            for (int p = 0; p < parts; p++) {
+                partial[p] = new ReproducibleSum();
+            }
+            for (double x : arr) {
+                partial[random.nextInt(parts)].accept(x);
+            }
+            List<ReproducibleSum> list = Arrays.asList(partial);
+            Collections.shuffle(list, random);
+            ReproducibleSum total = new ReproducibleSum();
+            for (ReproducibleSum s : list) {
+                total.combine(s);
+            }
+            assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(total.sum()));
+        }
+    }
+
+    @Test
+    public void testStreams() {
+        double[] arr = values(200000, 5);
+        double expected = sum(arr, 0, arr.length);
+        double seq = DoubleStream.of(arr).collect(ReproducibleSum::new, ReproducibleSum::accept, ReproducibleSum::combine).sum();
+        double par = DoubleStream.of(arr).parallel().collect(ReproducibleSum::new, ReproducibleSum::accept, ReproducibleSum::combine).sum();
+        assertEquals(expected, seq, 0);
+        assertEquals(expected, par, 0);
+        List<Double> list = DoubleStream.of(arr).boxed().collect(Collectors.toList());
+        assertEquals(expected, list.parallelStream().collect(ReproducibleSum.collector()), 0);
+        for (int threads : new int[] { 1, 2, 3, 7 }) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                double result = pool.submit(() -> list.parallelStream().collect(ReproducibleSum.collector())).get();
+                assertEquals("threads=" + threads, expected, result, 0);
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testAccuracy() {
+        for (int n : new int[] { 1, 10, 1000, 100000 }) {
+            double[] arr = values(n, n);
+            double exact = exactSum(arr);
+            assertEquals("n=" + n, exact, sum(arr, 0, n), Math.ulp(exact));
+        }
+        // cancellation over 20 orders of magnitude
+        double[] arr = { 1e20, 3.0, 1e-20, -1e20, Math.PI };
+        assertEquals(3.0 + Math.PI, sum(arr, 0, arr.length), Math.ulp(3.0 + Math.PI));
+    }
+
+    @Test
+    public void testExtremeValues() {
+        double m = Double.MAX_VALUE;
+        assertEquals(m, sum(new double[] { m, m, -m }, 0, 3), 0);
+        assertEquals(Double.POSITIVE_INFINITY, sum(new double[] { m, m }, 0, 2), 0);
+        double t = Double.MIN_VALUE;
+        assertEquals(3 * t, sum(new double[] { t, t, t }, 0, 3), 0);
+        assertEquals(Double.MIN_NORMAL + t, sum(new double[] { Double.MIN_NORMAL, t }, 0, 2), 0);
+    }
+
+    @Test
+    public void testSpecialValues() {
+        double inf = Double.POSITIVE_INFINITY;
+        assertEquals(inf, sum(new double[] { 1, inf, 2 }, 0, 3), 0);
+        assertEquals(-inf, sum(new double[] { -inf, 1e300, -inf }, 0, 3), 0);
+        assertTrue(Double.isNaN(sum(new double[] { inf, 1, -inf }, 0, 3)));
+        assertTrue(Double.isNaN(sum(new double[] { 1, Double.NaN }, 0, 2)));
+        ReproducibleSum a = new ReproducibleSum();
+        a.accept(inf);
+        ReproducibleSum b = new ReproducibleSum();
+        b.accept(1.0);
+        b.combine(a);
+        assertEquals(inf, b.sum(), 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRange() {
+        new ReproducibleSum().acceptAll(new double[3], 2, 2);
+    }
+}
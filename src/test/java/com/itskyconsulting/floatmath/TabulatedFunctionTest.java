@@ -0,0 +1,144 @@
+// -*- coding: utf-8-unix -*- Юникод/UTF-8
+/* (C) IT Sky Consulting GmbH 2015
+ * http://www.it-sky-consulting.com/
+ * Author: Karl Brodowsky
+ * Date: 2015-03-11
+ * License: GPL v2 (See https://de.wikipedia.org/wiki/GNU_General_Public_License)
+ * GNU LESSER GENERAL PUBLIC LICENSE, Version 2.1 of February 1999
+ */
+
+package com.itskyconsulting.floatmath;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.Test;
+
+import com.itskyconsulting.floatmath.TabulatedFunction.Interpolation;
+
+/**
+ * Unit tests for TabulatedFunction
+ */
+public class TabulatedFunctionTest {
+
+    /** maximum difference between table and function at random points of the domain */
+    private static double randomError(TabulatedFunction table, DoubleUnaryOperator f, long seed) {
+        Random random = new Random(seed);
+        double lo = table.getLo();
+        double hi = table.getHi();
+        double max = 0;
+        for (int i = 0; i < 100000; i++) {
+            double x = lo + random.nextDouble() * (hi - lo);
+            max = Math.max(max, Math.abs(table.applyAsDouble(x) - f.applyAsDouble(x)));
+        }
+        return max;
+    }
+
+    /** the requested error bound is reached, also at random points, and the estimate is not far too pessimistic */
+    private static void checkBound(DoubleUnaryOperator f, double lo, double hi, double maxError, Interpolation interpolation) {
+        TabulatedFunction table = TabulatedFunction.builder(f).domain(lo, hi).maxError(maxError).interpolation(interpolation).build();
+        String str = table.toString();
+        assertTrue(str, table.getMaxError() <= maxError);
+        assertTrue(str, table.getMaxError() > 0);
+        double error = randomError(table, f, 1);
+        assertTrue(str + " random error=" + error, error <= 1.1 * maxError);
+        assertTrue(str + " random error=" + error, error >= 0.5 * table.getMaxError());
+        assertEquals(f.applyAsDouble(lo), table.applyAsDouble(lo), maxError);
+        assertEquals(f.applyAsDouble(hi), table.applyAsDouble(hi), maxError);
+    }
+
+    @Test
+    public void testLinear() {
+        checkBound(FloatMathExt::acotd, -10, 10, 1e-6, Interpolation.LINEAR);
+        checkBound(FloatMathExt::asech, 0.1, 0.9, 1e-5, Interpolation.LINEAR);
+        checkBound(FloatMathExt::coth, 0.5, 20, 1e-6, Interpolation.LINEAR);
+        checkBound(Math::sin, 0, 100, 1e-4, Interpolation.LINEAR);
+    }
+
+    @Test
+    public void testCubic() {
+        checkBound(FloatMathExt::acotd, -10, 10, 1e-10, Interpolation.CUBIC);
+        checkBound(FloatMathExt::asech, 0.1, 0.9, 1e-9, Interpolation.CUBIC);
+        checkBound(FloatMathExt::coth, 0.5, 20, 1e-12, Interpolation.CUBIC);
+        checkBound(Math::sin, 0, 100, 1e-8, Interpolation.CUBIC);
+    }
+
+    /** cubic interpolation needs far fewer intervals for the same error */
+    @Test
+    public void testCubicIsSmaller() {
+        TabulatedFunction linear = TabulatedFunction.builder(Math::exp).domain(0, 5).maxError(1e-6).linear().build();
+        TabulatedFunction cubic = TabulatedFunction.builder(Math::exp).domain(0, 5).maxError(1e-6).cubic().build();
+        assertEquals(Interpolation.LINEAR, linear.getInterpolation());
+        assertEquals(Interpolation.CUBIC, cubic.getInterpolation());
+        assertTrue(linear + " " + cubic, 4 * cubic.getIntervals() < linear.getIntervals());
+    }
+
+    /** polynomials of degree 1 and 3 are interpolated exactly up to rounding */
+    @Test
+    public void testPolynomials() {
+        TabulatedFunction linear = TabulatedFunction.builder(x -> 3 * x - 2).domain(-4, 4).maxError(1e-12).build();
+        assertEquals(16, linear.getIntervals());
+        assertEquals(-2.0, linear.applyAsDouble(0), 1e-14);
+        TabulatedFunction cubic = TabulatedFunction.builder(x -> x * x * x - x).domain(-2, 2).maxError(1e-12).cubic().build();
+        assertEquals(16, cubic.getIntervals());
+        assertEquals(0.125 - 0.5, cubic.applyAsDouble(0.5), 1e-14);
+    }
+
+    /** outside the domain the function itself is used */
+    @Test
+    public void testOutsideDomain() {
+        TabulatedFunction table = TabulatedFunction.builder(Math::exp).domain(0, 1).maxError(1e-3).build();
+        assertEquals(Math.exp(2), table.applyAsDouble(2), 0.0);
+        assertEquals(Math.exp(-0.5), table.applyAsDouble(-0.5), 0.0);
+        assertTrue(Double.isNaN(table.applyAsDouble(Double.NaN)));
+    }
+
+    @Test
+    public void testBulk() {
+        TabulatedFunction table = TabulatedFunction.builder(FloatMathExt::sech).domain(-5, 5).maxError(1e-8).cubic().build();
+        double[] in = new double[100];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = (i - 50) * 0.11;
+        }
+        double[] out = new double[in.length];
+        Arrays.fill(out, -7.0);
+        table.apply(in, 2, 90, out);
+        double[] arr = in.clone();
+        table.apply(arr, 2, 90);
+        for (int i = 0; i < in.length; i++) {
+            double expected = (i < 2 || i >= 92) ? -7.0 : table.applyAsDouble(in[i]);
+            assertEquals(expected, out[i], 0.0);
+            assertEquals((i < 2 || i >= 92) ? in[i] : expected, arr[i], 0.0);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBulkRange() {
+        TabulatedFunction table = TabulatedFunction.builder(Math::exp).domain(0, 1).maxError(1e-3).build();
+        table.apply(new double[10], 5, 6, new double[10]);
+    }
+
+    /** coth has a pole at 0 */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotFinite() {
+        TabulatedFunction.builder(FloatMathExt::coth).domain(-1, 1).maxError(1e-3).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundNotReached() {
+        TabulatedFunction.builder(Math::sin).domain(0, 1000).maxError(1e-12).maxIntervals(1000).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingDomain() {
+        TabulatedFunction.builder(Math::sin).maxError(1e-3).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyDomain() {
+        TabulatedFunction.builder(Math::sin).domain(1, 1);
+    }
+}